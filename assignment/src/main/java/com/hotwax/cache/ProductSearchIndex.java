@@ -0,0 +1,286 @@
+package com.hotwax.cache;
+
+import com.hotwax.dto.ProductSuggestionDTO;
+import com.hotwax.model.Product;
+import com.hotwax.model.ReferenceDataChangedEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+/**
+ * Typeahead index over product name, color and size, held in memory. Every word of those fields is
+ * indexed under each of its prefixes (up to {@link #MAX_PREFIX} characters) with a posting array of
+ * products sorted by name, so a query costs one map lookup per query word plus a walk of the
+ * shortest posting array that stops at the requested number of matches. It is loaded from the
+ * product table before the application accepts requests and updated after every committed product
+ * change. Posting arrays are never modified once published, only replaced, so searches take no locks.
+ */
+@Component
+public class ProductSearchIndex implements SmartInitializingSingleton {
+
+    static final int MAX_PREFIX = 12;
+
+    private static final Logger log = LoggerFactory.getLogger(ProductSearchIndex.class);
+    private static final Pattern WORD_SEPARATOR = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final Comparator<Entry> ORDER = Comparator.comparing(Entry::sortKey).thenComparingInt(Entry::productId);
+
+    private record Entry(int productId, String productName, String color, String size, String sortKey, List<String> words) {
+
+        boolean matchesAll(List<String> queryWords) {
+            for (String queryWord : queryWords) {
+                if (!matches(queryWord)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private boolean matches(String queryWord) {
+            for (String word : words) {
+                if (word.startsWith(queryWord)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        ProductSuggestionDTO toDTO() {
+            return new ProductSuggestionDTO(productId, productName, color, size);
+        }
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Map<String, Entry[]> postings = new ConcurrentHashMap<>();
+    private final Map<Integer, Entry> products = new ConcurrentHashMap<>();
+
+    public ProductSearchIndex(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        long start = System.nanoTime();
+        List<Product> all = jdbcTemplate.query("select product_id, product_name, color, size from product", (rs, n) -> {
+            Product product = new Product();
+            product.setProductId(rs.getInt(1));
+            product.setProductName(rs.getString(2));
+            product.setColor(rs.getString(3));
+            product.setSize(rs.getString(4));
+            return product;
+        });
+        load(all);
+        log.info("Indexed {} products under {} prefixes in {} ms", products.size(), postings.size(),
+                (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /** Replaces the whole index. */
+    synchronized void load(Iterable<Product> all) {
+        Map<String, List<Entry>> built = new HashMap<>();
+        Map<Integer, Entry> byId = new HashMap<>();
+        for (Product product : all) {
+            Entry entry = toEntry(product);
+            byId.put(entry.productId(), entry);
+            for (String key : keys(entry)) {
+                built.computeIfAbsent(key, k -> new ArrayList<>()).add(entry);
+            }
+        }
+        postings.clear();
+        built.forEach((key, entries) -> {
+            entries.sort(ORDER);
+            postings.put(key, entries.toArray(Entry[]::new));
+        });
+        products.clear();
+        products.putAll(byId);
+    }
+
+    /**
+     * Products whose words start with every word of the query, in product name order. An empty
+     * query matches nothing.
+     */
+    public List<ProductSuggestionDTO> search(String query, int limit) {
+        List<String> queryWords = words(query);
+        if (queryWords.isEmpty()) {
+            return List.of();
+        }
+        Entry[][] lists = new Entry[queryWords.size()][];
+        for (int n = 0; n < lists.length; n++) {
+            String word = queryWords.get(n);
+            lists[n] = postings.get(word.length() > MAX_PREFIX ? word.substring(0, MAX_PREFIX) : word);
+            if (lists[n] == null) {
+                return List.of();
+            }
+        }
+        Arrays.sort(lists, Comparator.comparingInt(list -> list.length));
+
+        // Leapfrog intersection: each posting skips ahead to the current candidate, and a posting
+        // that lands past it proposes the next candidate, so postings are never walked entry by entry.
+        List<ProductSuggestionDTO> matches = new ArrayList<>(Math.min(limit, lists[0].length));
+        int[] at = new int[lists.length];
+        Entry candidate = lists[0][0];
+        int agreeing = 0;
+        for (int n = 0; ; n = (n + 1) % lists.length) {
+            Entry[] list = lists[n];
+            at[n] = seek(list, at[n], candidate);
+            if (at[n] == list.length) {
+                break;
+            }
+            // Compared by order, not identity: a put between two posting reads can leave the old and
+            // the new entry of one product in different postings.
+            if (ORDER.compare(list[at[n]], candidate) == 0) {
+                agreeing++;
+            } else {
+                candidate = list[at[n]];
+                agreeing = 1;
+            }
+            if (agreeing == lists.length) {
+                // Words longer than MAX_PREFIX were looked up by their prefix.
+                if (candidate.matchesAll(queryWords)) {
+                    matches.add(candidate.toDTO());
+                    if (matches.size() == limit) {
+                        break;
+                    }
+                }
+                if (++at[n] == list.length) {
+                    break;
+                }
+                candidate = list[at[n]];
+                agreeing = 0;
+            }
+        }
+        return matches;
+    }
+
+    /** First index at or after {@code from} whose entry does not sort before {@code target}, galloping. */
+    private static int seek(Entry[] list, int from, Entry target) {
+        if (from == list.length || ORDER.compare(list[from], target) >= 0) {
+            return from;
+        }
+        int low = from;
+        int step = 1;
+        while (low + step < list.length && ORDER.compare(list[low + step], target) < 0) {
+            low += step;
+            step <<= 1;
+        }
+        int high = Math.min(low + step, list.length);
+        while (low + 1 < high) {
+            int mid = (low + high) >>> 1;
+            if (ORDER.compare(list[mid], target) < 0) {
+                low = mid;
+            } else {
+                high = mid;
+            }
+        }
+        return high;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onReferenceDataChanged(ReferenceDataChangedEvent event) {
+        if (event.entity() instanceof Product product) {
+            if (event.removed()) {
+                remove(product.getProductId());
+            } else {
+                put(product);
+            }
+        }
+    }
+
+    synchronized void put(Product product) {
+        Entry entry = toEntry(product);
+        Entry previous = products.get(entry.productId());
+        if (entry.equals(previous)) {
+            return;
+        }
+        // Postings holding both entries swap them in one step, so a search never misses the product.
+        Set<String> stale = previous == null ? new LinkedHashSet<>() : keys(previous);
+        for (String key : keys(entry)) {
+            boolean replacing = stale.remove(key);
+            postings.merge(key, new Entry[]{entry}, (posting, added) ->
+                    with(replacing ? without(posting, previous) : posting, entry));
+        }
+        for (String key : stale) {
+            postings.computeIfPresent(key, (k, posting) -> without(posting, previous));
+        }
+        products.put(entry.productId(), entry);
+    }
+
+    synchronized void remove(int productId) {
+        Entry previous = products.remove(productId);
+        if (previous != null) {
+            for (String key : keys(previous)) {
+                postings.computeIfPresent(key, (k, posting) -> without(posting, previous));
+            }
+        }
+    }
+
+    private static Entry[] with(Entry[] posting, Entry entry) {
+        if (posting == null) {
+            return new Entry[]{entry};
+        }
+        int at = -Arrays.binarySearch(posting, entry, ORDER) - 1;
+        Entry[] copy = new Entry[posting.length + 1];
+        System.arraycopy(posting, 0, copy, 0, at);
+        copy[at] = entry;
+        System.arraycopy(posting, at, copy, at + 1, posting.length - at);
+        return copy;
+    }
+
+    /** The posting without the entry, or null if that leaves it empty. */
+    private static Entry[] without(Entry[] posting, Entry entry) {
+        int at = Arrays.binarySearch(posting, entry, ORDER);
+        if (at < 0) {
+            return posting;
+        }
+        if (posting.length == 1) {
+            return null;
+        }
+        Entry[] copy = new Entry[posting.length - 1];
+        System.arraycopy(posting, 0, copy, 0, at);
+        System.arraycopy(posting, at + 1, copy, at, posting.length - at - 1);
+        return copy;
+    }
+
+    private static Entry toEntry(Product product) {
+        Set<String> words = new LinkedHashSet<>();
+        words.addAll(words(product.getProductName()));
+        words.addAll(words(product.getColor()));
+        words.addAll(words(product.getSize()));
+        String sortKey = product.getProductName() == null ? "" : product.getProductName().toLowerCase(Locale.ROOT);
+        return new Entry(product.getProductId(), product.getProductName(), product.getColor(), product.getSize(),
+                sortKey, List.copyOf(words));
+    }
+
+    private static Set<String> keys(Entry entry) {
+        Set<String> keys = new LinkedHashSet<>();
+        for (String word : entry.words()) {
+            for (int length = 1; length <= Math.min(word.length(), MAX_PREFIX); length++) {
+                keys.add(word.substring(0, length));
+            }
+        }
+        return keys;
+    }
+
+    private static List<String> words(String text) {
+        if (text == null) {
+            return List.of();
+        }
+        return Arrays.stream(WORD_SEPARATOR.split(text.toLowerCase(Locale.ROOT)))
+                .filter(word -> !word.isEmpty())
+                .distinct()
+                .toList();
+    }
+}
@@ -0,0 +1,70 @@
+package com.hotwax.cache;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.hotwax.model.ContactMech;
+import com.hotwax.model.Customer;
+import com.hotwax.model.Product;
+import com.hotwax.model.ReferenceDataChangedEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.util.DigestUtils;
+
+import java.time.Duration;
+import java.util.function.Supplier;
+
+@Component
+public class ReferenceDataCache {
+
+    public static final String CUSTOMERS = "customers";
+    public static final String PRODUCTS = "products";
+    public static final String CONTACTS = "contacts";
+
+    public record Payload(byte[] body, String etag) {}
+
+    private final ObjectMapper objectMapper;
+    private final Cache<String, Payload> cache;
+
+    public ReferenceDataCache(ObjectMapper objectMapper,
+                              @Value("${data.cache.maximum-bytes:67108864}") long maximumBytes,
+                              @Value("${data.cache.ttl:10m}") Duration ttl) {
+        this.objectMapper = objectMapper;
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maximumBytes)
+                .weigher((String key, Payload payload) -> payload.body().length)
+                .expireAfterWrite(ttl)
+                .build();
+    }
+
+    public Payload get(String key, Supplier<?> loader) {
+        return cache.get(key, k -> serialize(loader.get()));
+    }
+
+    public void invalidate(String key) {
+        cache.invalidate(key);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onReferenceDataChanged(ReferenceDataChangedEvent event) {
+        Object entity = event.entity();
+        if (entity instanceof Customer) {
+            invalidate(CUSTOMERS);
+        } else if (entity instanceof Product) {
+            invalidate(PRODUCTS);
+        } else if (entity instanceof ContactMech) {
+            invalidate(CONTACTS);
+        }
+    }
+
+    private Payload serialize(Object value) {
+        try {
+            byte[] body = objectMapper.writeValueAsBytes(value);
+            return new Payload(body, "\"" + DigestUtils.md5DigestAsHex(body) + "\"");
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize reference data", e);
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.hotwax.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hotwax.filter.DbConcurrencyLimitFilter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+public class ConcurrencyConfig {
+
+    private static final Logger log = LoggerFactory.getLogger(ConcurrencyConfig.class);
+
+    @Bean
+    @ConditionalOnProperty(name = "db.limiter.enabled", havingValue = "true")
+    public FilterRegistrationBean<DbConcurrencyLimitFilter> dbConcurrencyLimitFilter(
+            @Value("${spring.datasource.hikari.maximum-pool-size:10}") int poolSize,
+            @Value("${db.limiter.reserved-connections:3}") int reservedConnections,
+            @Value("${db.limiter.permits:}") Integer configuredPermits,
+            @Value("${db.limiter.max-wait:2s}") Duration maxWait,
+            @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads,
+            ObjectMapper objectMapper,
+            MeterRegistry meterRegistry) {
+        if (virtualThreads && Runtime.version().feature() < 21) {
+            log.warn("spring.threads.virtual.enabled is set but Java {} has no virtual threads; "
+                    + "requests run on platform threads", Runtime.version().feature());
+        }
+        // Permits leave connections free for the ID block fetches of order creation (bounded on its
+        // own by OrderWriteLimiter) and for the background writers (intake, archive job), so requests
+        // do not keep those waiting for the pool.
+        int permits = configuredPermits != null ? configuredPermits : Math.max(1, poolSize - reservedConnections);
+        if (permits >= poolSize) {
+            log.warn("db.limiter.permits ({}) leaves no connection of the {} in the pool for ID allocation "
+                    + "and background writers", permits, poolSize);
+        }
+        log.info("Limiting concurrent database requests to {} of {} pooled connections (max wait {})",
+                permits, poolSize, maxWait);
+
+        FilterRegistrationBean<DbConcurrencyLimitFilter> registration = new FilterRegistrationBean<>(
+                new DbConcurrencyLimitFilter(permits, maxWait, objectMapper, meterRegistry));
+        // Every controller that reads or writes the database. /auth is left out: its requests spend
+        // most of their time waiting for the password-hashing pool, which bounds them already, and
+        // would hold permits without holding a connection.
+        registration.addUrlPatterns("/orders", "/orders/*", "/customers/*", "/analytics/*", "/data/*");
+        // After the Spring Security chain, so unauthenticated requests never take a permit.
+        registration.setOrder(0);
+        return registration;
+    }
+}
@@ -0,0 +1,62 @@
+package com.hotwax.config;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.hotwax.model.CacheRegions;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.JCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import javax.cache.spi.CachingProvider;
+import java.net.URI;
+import java.time.Duration;
+import java.util.OptionalLong;
+import java.util.UUID;
+
+/**
+ * Hibernate second-level cache for the reference entities (customer, contact mech, product),
+ * backed by size-bounded Caffeine caches through JCache. Regions are created here, before
+ * Hibernate starts, so every region has an explicit bound; Hibernate is set to fail on a region
+ * it does not find rather than create an unbounded one.
+ */
+@Configuration
+public class EntityCacheConfig {
+
+    private static final String CAFFEINE_PROVIDER = "com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider";
+
+    @Bean(destroyMethod = "close")
+    public CacheManager entityCacheManager(
+            @Value("${entity.cache.maximum-size:10000}") long maximumSize,
+            @Value("${entity.cache.ttl:1h}") Duration ttl,
+            MeterRegistry meterRegistry) {
+        // A manager of our own rather than the provider's shared default, so that a second
+        // application context in the same JVM (tests, benchmarks) gets its own regions.
+        CachingProvider provider = Caching.getCachingProvider(CAFFEINE_PROVIDER);
+        CacheManager cacheManager = provider.getCacheManager(
+                URI.create("entity-cache:" + UUID.randomUUID()), getClass().getClassLoader());
+        for (String region : CacheRegions.ALL) {
+            CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+            configuration.setMaximumSize(OptionalLong.of(maximumSize));
+            configuration.setExpireAfterWrite(OptionalLong.of(ttl.toNanos()));
+            // Hibernate's cache entries are immutable; copying them on every access buys nothing.
+            configuration.setStoreByValue(false);
+            configuration.setStatisticsEnabled(true);
+            JCacheMetrics.monitor(meterRegistry, cacheManager.createCache(region, configuration));
+        }
+        return cacheManager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer entityCacheCustomizer(CacheManager entityCacheManager) {
+        return properties -> {
+            properties.put("hibernate.cache.use_second_level_cache", true);
+            properties.put("hibernate.cache.region.factory_class", "jcache");
+            properties.put("hibernate.javax.cache.cache_manager", entityCacheManager);
+            properties.put("hibernate.javax.cache.missing_cache_strategy", "fail");
+        };
+    }
+}
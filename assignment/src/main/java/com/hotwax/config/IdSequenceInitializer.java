@@ -0,0 +1,69 @@
+package com.hotwax.config;
+
+import com.hotwax.model.IdSequences;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * Moves the pooled ID sequences past any IDs already present in the tables, so databases whose
+ * order tables were filled by AUTO_INCREMENT keep working after the switch to table generators.
+ * Runs after the schema update and before the application accepts requests; it only ever raises
+ * {@code next_val}, so it is safe to run on every startup and from several instances at once. When
+ * two instances both find a sequence missing, the one whose insert loses falls back to the raise.
+ */
+@Component
+@DependsOn("entityManagerFactory")
+@RequiredArgsConstructor
+public class IdSequenceInitializer implements InitializingBean {
+
+    private static final Logger log = LoggerFactory.getLogger(IdSequenceInitializer.class);
+
+    private static final Map<String, String> MAX_ID_QUERIES = Map.of(
+            IdSequences.ORDER_HEADER, "select coalesce(max(order_id), 0) from order_header",
+            IdSequences.ORDER_ITEM, "select coalesce(max(order_item_seq_id), 0) from order_item"
+    );
+
+    private static final String COUNT_SQL = "select count(*) from " + IdSequences.TABLE
+            + " where " + IdSequences.NAME_COLUMN + " = ?";
+    private static final String INSERT_SQL = "insert into " + IdSequences.TABLE
+            + " (" + IdSequences.NAME_COLUMN + ", " + IdSequences.VALUE_COLUMN + ") values (?, ?)";
+    private static final String RAISE_SQL = "update " + IdSequences.TABLE
+            + " set " + IdSequences.VALUE_COLUMN + " = ? where " + IdSequences.NAME_COLUMN + " = ? and "
+            + IdSequences.VALUE_COLUMN + " < ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void afterPropertiesSet() {
+        MAX_ID_QUERIES.forEach(this::alignSequence);
+    }
+
+    private void alignSequence(String sequenceName, String maxIdQuery) {
+        long maxId = jdbcTemplate.queryForObject(maxIdQuery, Long.class);
+        // The pooled optimizer hands out the block of allocationSize IDs that ends at next_val,
+        // so this floor guarantees the first generated ID is above every existing one.
+        long floor = maxId + IdSequences.ALLOCATION_SIZE;
+
+        Integer rows = jdbcTemplate.queryForObject(COUNT_SQL, Integer.class, sequenceName);
+        if (rows == null || rows == 0) {
+            try {
+                jdbcTemplate.update(INSERT_SQL, sequenceName, floor);
+                log.info("Initialized ID sequence {} at {} (max existing ID {})", sequenceName, floor, maxId);
+                return;
+            } catch (DuplicateKeyException e) {
+                // Another instance inserted it in the meantime.
+            }
+        }
+        if (jdbcTemplate.update(RAISE_SQL, floor, sequenceName, floor) > 0) {
+            log.info("Raised ID sequence {} to {} (max existing ID {})", sequenceName, floor, maxId);
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.hotwax.config;
+
+import com.hotwax.service.OrderRollupService;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.stereotype.Component;
+
+/**
+ * Started with {@code --backfill-order-rollups}, recomputes the daily order rollups from the order
+ * tables and exits. The backfill is never started on its own: it rewrites whole days and would
+ * race with order writes from other instances, so a normal start only warns when there are orders
+ * but no rollups yet.
+ */
+@Component
+@RequiredArgsConstructor
+public class OrderRollupInitializer implements ApplicationRunner {
+
+    static final String BACKFILL_OPTION = "backfill-order-rollups";
+
+    private static final Logger log = LoggerFactory.getLogger(OrderRollupInitializer.class);
+
+    private final OrderRollupService orderRollupService;
+    private final ConfigurableApplicationContext context;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (args.containsOption(BACKFILL_OPTION)) {
+            long days = orderRollupService.backfill();
+            log.info("Backfilled order rollups for {} days", days);
+            System.exit(SpringApplication.exit(context, () -> 0));
+        } else if (orderRollupService.needsBackfill()) {
+            log.warn("There are orders but no order rollups, so /analytics reports nothing for them. "
+                    + "Run once with --{} while nothing else writes orders", BACKFILL_OPTION);
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.hotwax.config;
+
+import com.hotwax.service.CustomerStatsService;
+import com.hotwax.service.OrderSummaryService;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.stereotype.Component;
+
+/**
+ * Fills in the order summary read model and the customer stats on request. Started with
+ * {@code --backfill-order-summary}, it builds the summaries of orders that have none and the stats
+ * of customers that have none (for example, data written before they existed) and exits; with
+ * {@code --rebuild-order-summary}, it regenerates both from the normalized tables and exits.
+ * Neither runs on its own: both scan whole tables and would race with writes from other
+ * instances, so a normal start only warns when there are orders but no summaries or no stats.
+ */
+@Component
+@RequiredArgsConstructor
+public class OrderSummaryInitializer implements ApplicationRunner {
+
+    static final String BACKFILL_OPTION = "backfill-order-summary";
+
+    static final String REBUILD_OPTION = "rebuild-order-summary";
+
+    private static final Logger log = LoggerFactory.getLogger(OrderSummaryInitializer.class);
+
+    private final OrderSummaryService orderSummaryService;
+    private final CustomerStatsService customerStatsService;
+    private final ConfigurableApplicationContext context;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (args.containsOption(REBUILD_OPTION)) {
+            int rebuilt = orderSummaryService.rebuildAll();
+            log.info("Rebuilt all {} order summaries", rebuilt);
+            int customers = customerStatsService.rebuildAll();
+            log.info("Rebuilt all {} customer stats", customers);
+            System.exit(SpringApplication.exit(context, () -> 0));
+        } else if (args.containsOption(BACKFILL_OPTION)) {
+            int rebuilt = orderSummaryService.rebuildMissing();
+            log.info("Built {} missing order summaries", rebuilt);
+            int customers = customerStatsService.rebuildMissing();
+            log.info("Built {} missing customer stats", customers);
+            System.exit(SpringApplication.exit(context, () -> 0));
+        } else {
+            if (orderSummaryService.needsBackfill()) {
+                log.warn("There are orders but no order summaries, so GET /orders finds none of them. "
+                        + "Run once with --{} while nothing else writes orders", BACKFILL_OPTION);
+            }
+            if (customerStatsService.needsBackfill()) {
+                log.warn("There are orders but no customer stats, so customers count only orders written from now on. "
+                        + "Run once with --{} while nothing else writes orders", BACKFILL_OPTION);
+            }
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.hotwax.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Per-user limits applied by {@link com.hotwax.filter.UserRateLimitFilter}, keyed by role
+ * ({@code rate-limit.roles.USER.*}, {@code rate-limit.roles.ADMIN.*}, ...). Roles without an entry
+ * get the {@code USER} limits.
+ */
+@Data
+@ConfigurationProperties("rate-limit")
+public class RateLimitProperties {
+
+    private boolean enabled;
+
+    /** Users tracked at once; the least recently seen are dropped beyond this. */
+    private long maximumUsers = 1_000_000;
+
+    /** A user's state is dropped after this long without requests. */
+    private Duration idleTimeout = Duration.ofMinutes(10);
+
+    private Map<String, Limit> roles = new LinkedHashMap<>();
+
+    @Data
+    public static class Limit {
+
+        /** Sustained request rate; 0 for no rate limit. */
+        private double requestsPerSecond;
+
+        /** Requests that may be made at once after an idle period. */
+        private int burst = 1;
+
+        /** Requests in progress at once; 0 for no concurrency limit. */
+        private int maxConcurrent;
+    }
+}
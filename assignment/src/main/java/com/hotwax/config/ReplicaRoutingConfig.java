@@ -0,0 +1,80 @@
+package com.hotwax.config;
+
+import com.hotwax.routing.ReplicaRoutingDataSource;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Replaces the auto-configured pool with a {@link ReplicaRoutingDataSource} when
+ * {@code db.replicas.enabled} is set: the primary pool is configured from
+ * {@code spring.datasource.*} as before, and one pool per URL in {@code db.replicas.urls} serves
+ * read-only transactions.
+ */
+@Configuration
+@ConditionalOnProperty(name = "db.replicas.enabled", havingValue = "true")
+public class ReplicaRoutingConfig {
+
+    private static final Logger log = LoggerFactory.getLogger(ReplicaRoutingConfig.class);
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariConfig primaryPoolConfig(DataSourceProperties properties) {
+        HikariConfig config = new HikariConfig();
+        config.setJdbcUrl(properties.determineUrl());
+        config.setUsername(properties.determineUsername());
+        config.setPassword(properties.determinePassword());
+        config.setDriverClassName(properties.determineDriverClassName());
+        config.setPoolName("primary");
+        return config;
+    }
+
+    @Bean
+    public DataSource dataSource(HikariConfig primaryPoolConfig,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${db.replicas.urls:}") List<String> urls,
+                                 @Value("${db.replicas.username:${spring.datasource.username:}}") String username,
+                                 @Value("${db.replicas.password:${spring.datasource.password:}}") String password,
+                                 @Value("${db.replicas.pool-size:${spring.datasource.hikari.maximum-pool-size:10}}") int poolSize,
+                                 @Value("${db.replicas.connection-timeout:1s}") Duration connectionTimeout,
+                                 @Value("${db.replicas.health-check-interval:5s}") Duration healthCheckInterval,
+                                 @Value("${db.replicas.read-your-writes-window:5s}") Duration readYourWritesWindow) {
+        primaryPoolConfig.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+        HikariDataSource primary = new HikariDataSource(primaryPoolConfig);
+
+        List<HikariDataSource> replicas = new ArrayList<>();
+        for (String url : urls) {
+            HikariConfig config = new HikariConfig();
+            primaryPoolConfig.copyStateTo(config);
+            config.setJdbcUrl(url.trim());
+            config.setUsername(username);
+            config.setPassword(password);
+            config.setMaximumPoolSize(poolSize);
+            config.setConnectionTimeout(connectionTimeout.toMillis());
+            // A replica that is down must not keep the application from starting.
+            config.setInitializationFailTimeout(-1);
+            config.setPoolName("replica-" + (replicas.size() + 1));
+            replicas.add(new HikariDataSource(config));
+        }
+        if (replicas.isEmpty()) {
+            log.warn("db.replicas.enabled is set but db.replicas.urls is empty; all reads go to the primary");
+        } else {
+            log.info("Routing read-only transactions to {} replicas (read-your-writes window {})", replicas.size(), readYourWritesWindow);
+        }
+        return new ReplicaRoutingDataSource(primary, replicas, readYourWritesWindow, healthCheckInterval, meterRegistry);
+    }
+}
@@ -0,0 +1,59 @@
+package com.hotwax.config;
+
+import com.hotwax.monitoring.OrderServiceSqlAspect;
+import com.hotwax.monitoring.SqlStatisticsDataSource;
+import com.hotwax.monitoring.SqlStatisticsFilter;
+import com.hotwax.monitoring.SqlStatisticsReporter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import javax.sql.DataSource;
+import java.util.Locale;
+
+@Configuration
+@ConditionalOnProperty(name = "sql.stats.enabled", havingValue = "true")
+public class SqlStatisticsConfig {
+
+    @Bean
+    public static BeanPostProcessor sqlStatisticsDataSourcePostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                return bean instanceof DataSource dataSource && !(bean instanceof SqlStatisticsDataSource)
+                        ? new SqlStatisticsDataSource(dataSource)
+                        : bean;
+            }
+        };
+    }
+
+    @Bean
+    public SqlStatisticsReporter sqlStatisticsReporter(
+            MeterRegistry meterRegistry,
+            @Value("${sql.stats.repeat-threshold:10}") int repeatThreshold,
+            @Value("${sql.stats.repeat-action:log}") String repeatAction) {
+        return new SqlStatisticsReporter(meterRegistry, repeatThreshold,
+                SqlStatisticsReporter.RepeatAction.valueOf(repeatAction.trim().toUpperCase(Locale.ROOT)));
+    }
+
+    @Bean
+    public FilterRegistrationBean<SqlStatisticsFilter> sqlStatisticsFilter(
+            SqlStatisticsReporter reporter,
+            @Value("${sql.stats.response-header:false}") boolean responseHeader) {
+        FilterRegistrationBean<SqlStatisticsFilter> registration =
+                new FilterRegistrationBean<>(new SqlStatisticsFilter(reporter, responseHeader));
+        // Outermost, so statements run by the security chain (login) are counted too.
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return registration;
+    }
+
+    @Bean
+    public OrderServiceSqlAspect orderServiceSqlAspect(SqlStatisticsReporter reporter) {
+        return new OrderServiceSqlAspect(reporter);
+    }
+}
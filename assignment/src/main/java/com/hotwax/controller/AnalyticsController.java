@@ -0,0 +1,37 @@
+package com.hotwax.controller;
+
+import com.hotwax.dto.DailyItemCountDTO;
+import com.hotwax.dto.DailyOrderCountDTO;
+import com.hotwax.service.OrderRollupService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@RestController
+@RequestMapping("/analytics")
+@RequiredArgsConstructor
+@CrossOrigin(origins = "*")
+public class AnalyticsController {
+    
+    private final OrderRollupService orderRollupService;
+    
+    @GetMapping("/orders/daily")
+    public ResponseEntity<List<DailyOrderCountDTO>> getDailyOrders(
+            @RequestParam("from") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam("to") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        return ResponseEntity.ok(orderRollupService.getDailyOrders(from, to));
+    }
+    
+    @GetMapping("/items/daily")
+    public ResponseEntity<List<DailyItemCountDTO>> getDailyItems(
+            @RequestParam("from") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam("to") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(value = "productId", required = false) Integer productId,
+            @RequestParam(value = "status", required = false) String status) {
+        return ResponseEntity.ok(orderRollupService.getDailyItems(from, to, productId, status));
+    }
+}
@@ -0,0 +1,25 @@
+package com.hotwax.controller;
+
+import com.hotwax.dto.CustomerOrdersDTO;
+import com.hotwax.service.CustomerService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/customers")
+@RequiredArgsConstructor
+@CrossOrigin(origins = "*")
+public class CustomerController {
+    
+    private final CustomerService customerService;
+    
+    @GetMapping("/{customer_id}/orders")
+    public ResponseEntity<CustomerOrdersDTO> getCustomerOrders(
+            @PathVariable("customer_id") Integer customerId,
+            @RequestParam(value = "after", required = false) String after,
+            @RequestParam(value = "limit", defaultValue = "50") int limit) {
+        CustomerOrdersDTO response = customerService.getOrders(customerId, after, limit);
+        return ResponseEntity.ok(response);
+    }
+}
@@ -1,16 +1,18 @@
 package com.hotwax.controller;
 
-import com.hotwax.model.ContactMech;
-import com.hotwax.model.Customer;
-import com.hotwax.model.Product;
+import com.hotwax.cache.ProductSearchIndex;
+import com.hotwax.cache.ReferenceDataCache;
+import com.hotwax.dto.ProductSuggestionDTO;
 import com.hotwax.repository.ContactMechRepository;
 import com.hotwax.repository.CustomerRepository;
 import com.hotwax.repository.ProductRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import java.util.List;
@@ -24,19 +26,41 @@ public class DataController {
     private final CustomerRepository customerRepository;
     private final ProductRepository productRepository;
     private final ContactMechRepository contactMechRepository;
+    private final ReferenceDataCache referenceDataCache;
+    private final ProductSearchIndex productSearchIndex;
+
+    private static final int MAX_SUGGESTIONS = 50;
 
     @GetMapping("/customers")
-    public ResponseEntity<List<Customer>> getAllCustomers() {
-        return ResponseEntity.ok(customerRepository.findAll());
+    public ResponseEntity<byte[]> getAllCustomers() {
+        return toResponse(referenceDataCache.get(ReferenceDataCache.CUSTOMERS, customerRepository::findAll));
     }
 
     @GetMapping("/products")
-    public ResponseEntity<List<Product>> getAllProducts() {
-        return ResponseEntity.ok(productRepository.findAll());
+    public ResponseEntity<byte[]> getAllProducts() {
+        return toResponse(referenceDataCache.get(ReferenceDataCache.PRODUCTS, productRepository::findAll));
+    }
+
+    @GetMapping("/products/search")
+    public ResponseEntity<List<ProductSuggestionDTO>> searchProducts(
+            @RequestParam("q") String query,
+            @RequestParam(value = "limit", defaultValue = "10") int limit) {
+        if (limit < 1) {
+            throw new IllegalStateException("Limit must be positive");
+        }
+        return ResponseEntity.ok(productSearchIndex.search(query, Math.min(limit, MAX_SUGGESTIONS)));
     }
 
     @GetMapping("/contacts")
-    public ResponseEntity<List<ContactMech>> getAllContacts() {
-        return ResponseEntity.ok(contactMechRepository.findAll());
+    public ResponseEntity<byte[]> getAllContacts() {
+        return toResponse(referenceDataCache.get(ReferenceDataCache.CONTACTS, contactMechRepository::findAll));
+    }
+
+    // The ETag lets Spring answer a matching If-None-Match with 304 before the body is written.
+    private ResponseEntity<byte[]> toResponse(ReferenceDataCache.Payload payload) {
+        return ResponseEntity.ok()
+                .eTag(payload.etag())
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(payload.body());
     }
 }
@@ -0,0 +1,38 @@
+package com.hotwax.controller;
+
+import com.hotwax.dto.ArchiveJobDTO;
+import com.hotwax.dto.ArchiveRequestDTO;
+import com.hotwax.service.OrderArchiveService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.net.URI;
+
+@RestController
+@RequestMapping("/orders/archive")
+@RequiredArgsConstructor
+@CrossOrigin(origins = "*")
+public class OrderArchiveController {
+    
+    private final OrderArchiveService orderArchiveService;
+    
+    @PostMapping
+    public ResponseEntity<ArchiveJobDTO> startArchive(@Valid @RequestBody ArchiveRequestDTO request) {
+        ArchiveJobDTO job = orderArchiveService.start(request.getBefore(), request.isPurge());
+        return ResponseEntity.accepted()
+                .location(URI.create("/orders/archive/" + job.getJobId()))
+                .body(job);
+    }
+    
+    @GetMapping("/{job_id}")
+    public ResponseEntity<ArchiveJobDTO> getArchiveJob(@PathVariable("job_id") String jobId) {
+        return ResponseEntity.ok(orderArchiveService.get(jobId));
+    }
+    
+    @DeleteMapping("/{job_id}")
+    public ResponseEntity<ArchiveJobDTO> cancelArchiveJob(@PathVariable("job_id") String jobId) {
+        return ResponseEntity.accepted().body(orderArchiveService.cancel(jobId));
+    }
+}
@@ -1,14 +1,30 @@
 package com.hotwax.controller;
 
 import com.hotwax.dto.*;
+import com.hotwax.service.OrderBatchService;
+import com.hotwax.service.OrderExportService;
+import com.hotwax.service.OrderItemStatusService;
+import com.hotwax.service.OrderSearchService;
 import com.hotwax.service.OrderService;
+import com.hotwax.service.OrderWriteLimiter;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.time.LocalDate;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 @RestController
 @RequestMapping("/orders")
@@ -17,36 +33,95 @@ import java.util.List;
 public class OrderController {
     
     private final OrderService orderService;
+    private final OrderExportService orderExportService;
+    private final OrderBatchService orderBatchService;
+    private final OrderItemStatusService orderItemStatusService;
+    private final OrderSearchService orderSearchService;
+    private final OrderWriteLimiter orderWriteLimiter;
+    
+    // One member of an If-Match list: an entity tag, optionally weak, followed by a comma or the end.
+    private static final Pattern ENTITY_TAG = Pattern.compile("[\\s,]*(W/)?\"([\\x21\\x23-\\x7E\\x80-\\xFF]*)\"\\s*(?:,|$)");
+    private static final Pattern VERSION = Pattern.compile("0|[1-9]\\d{0,17}");
     
     @GetMapping
-    public ResponseEntity<List<OrderResponseDTO>> getAllOrders() {
-        List<OrderResponseDTO> orders = orderService.getAllOrders();
-        return ResponseEntity.ok(orders);
+    public ResponseEntity<OrderPageDTO> getAllOrders(
+            @RequestParam(value = "after", required = false) Integer after,
+            @RequestParam(value = "limit", defaultValue = "50") int limit) {
+        OrderPageDTO page = orderService.getAllOrders(after, limit);
+        return ResponseEntity.ok(page);
+    }
+    
+    @GetMapping("/search")
+    public ResponseEntity<OrderSearchPageDTO> searchOrders(
+            @RequestParam(value = "customerId", required = false) Integer customerId,
+            @RequestParam(value = "from", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(value = "to", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(value = "status", required = false) String status,
+            @RequestParam(value = "productId", required = false) Integer productId,
+            @RequestParam(value = "after", required = false) String after,
+            @RequestParam(value = "limit", defaultValue = "50") int limit) {
+        OrderSearchCriteria criteria = new OrderSearchCriteria();
+        criteria.setCustomerId(customerId);
+        criteria.setFrom(from);
+        criteria.setTo(to);
+        criteria.setStatus(status);
+        criteria.setProductId(productId);
+        criteria.setAfter(after);
+        criteria.setLimit(limit);
+        return ResponseEntity.ok(orderSearchService.search(criteria));
+    }
+    
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportOrders(HttpServletRequest request) {
+        // Streaming starts after this returns, so the timeout still applies to this request alone.
+        WebAsyncUtils.getAsyncManager(request).getAsyncWebRequest().setTimeout(orderExportService.getTimeout().toMillis());
+        StreamingResponseBody body = orderExportService::exportOrders;
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
     }
     
     @PostMapping
     public ResponseEntity<OrderResponseDTO> createOrder(@Valid @RequestBody OrderRequestDTO request) {
-        OrderResponseDTO response = orderService.createOrder(request);
-        return new ResponseEntity<>(response, HttpStatus.CREATED);
+        OrderResponseDTO response = orderWriteLimiter.call(() -> orderService.createOrder(request));
+        return ResponseEntity.status(HttpStatus.CREATED).eTag(eTag(response.getVersion())).body(response);
+    }
+    
+    @PostMapping("/batch")
+    public ResponseEntity<OrderBatchResponseDTO> createOrders(@RequestBody List<OrderRequestDTO> requests) {
+        OrderBatchResponseDTO response = orderWriteLimiter.call(() -> orderBatchService.createOrders(requests));
+        HttpStatus status = response.getFailed() == 0 ? HttpStatus.CREATED : HttpStatus.MULTI_STATUS;
+        return new ResponseEntity<>(response, status);
+    }
+    
+    @PostMapping("/items/status")
+    public ResponseEntity<ItemStatusTransitionResultDTO> transitionItemStatus(
+            @Valid @RequestBody ItemStatusTransitionDTO request) {
+        ItemStatusTransitionResultDTO response = orderItemStatusService.transition(request);
+        return ResponseEntity.ok(response);
     }
     
     @GetMapping("/{order_id}")
     public ResponseEntity<OrderResponseDTO> getOrderById(@PathVariable("order_id") Integer orderId) {
         OrderResponseDTO response = orderService.getOrderById(orderId);
-        return ResponseEntity.ok(response);
+        // A matching If-None-Match is answered with 304 before the body is written.
+        return ResponseEntity.ok().eTag(eTag(response.getVersion())).body(response);
     }
     
     @PutMapping("/{order_id}")
     public ResponseEntity<OrderResponseDTO> updateOrder(
             @PathVariable("order_id") Integer orderId,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
             @Valid @RequestBody OrderUpdateDTO updateDTO) {
-        OrderResponseDTO response = orderService.updateOrder(orderId, updateDTO);
-        return ResponseEntity.ok(response);
+        OrderResponseDTO response = orderService.updateOrder(orderId, updateDTO, expectedVersions(ifMatch));
+        return ResponseEntity.ok().eTag(eTag(response.getVersion())).body(response);
     }
     
     @DeleteMapping("/{order_id}")
-    public ResponseEntity<Void> deleteOrder(@PathVariable("order_id") Integer orderId) {
-        orderService.deleteOrder(orderId);
+    public ResponseEntity<Void> deleteOrder(
+            @PathVariable("order_id") Integer orderId,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        orderService.deleteOrder(orderId, expectedVersions(ifMatch));
         return ResponseEntity.noContent().build();
     }
     
@@ -54,24 +129,59 @@ public class OrderController {
     public ResponseEntity<OrderItemResponseDTO> addOrderItem(
             @PathVariable("order_id") Integer orderId,
             @Valid @RequestBody OrderItemDTO itemDTO) {
-        OrderItemResponseDTO response = orderService.addOrderItem(orderId, itemDTO);
-        return new ResponseEntity<>(response, HttpStatus.CREATED);
+        VersionedDTO<OrderItemResponseDTO> response = orderWriteLimiter.call(() -> orderService.addOrderItem(orderId, itemDTO));
+        return ResponseEntity.status(HttpStatus.CREATED).eTag(eTag(response.version())).body(response.body());
     }
     
     @PutMapping("/{order_id}/items/{order_item_seq_id}")
     public ResponseEntity<OrderItemResponseDTO> updateOrderItem(
             @PathVariable("order_id") Integer orderId,
             @PathVariable("order_item_seq_id") Integer orderItemSeqId,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
             @Valid @RequestBody OrderItemUpdateDTO updateDTO) {
-        OrderItemResponseDTO response = orderService.updateOrderItem(orderId, orderItemSeqId, updateDTO);
-        return ResponseEntity.ok(response);
+        VersionedDTO<OrderItemResponseDTO> response =
+                orderService.updateOrderItem(orderId, orderItemSeqId, updateDTO, expectedVersions(ifMatch));
+        return ResponseEntity.ok().eTag(eTag(response.version())).body(response.body());
     }
     
     @DeleteMapping("/{order_id}/items/{order_item_seq_id}")
     public ResponseEntity<Void> deleteOrderItem(
             @PathVariable("order_id") Integer orderId,
-            @PathVariable("order_item_seq_id") Integer orderItemSeqId) {
-        orderService.deleteOrderItem(orderId, orderItemSeqId);
-        return ResponseEntity.noContent().build();
+            @PathVariable("order_item_seq_id") Integer orderItemSeqId,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        long version = orderService.deleteOrderItem(orderId, orderItemSeqId, expectedVersions(ifMatch));
+        return ResponseEntity.noContent().eTag(eTag(version)).build();
+    }
+    
+    // Items have no ETag of their own: an order's ETag is its version, which every change to the
+    // order or its items moves, and If-Match on an item is checked against it.
+    private static String eTag(long version) {
+        return "\"" + version + "\"";
+    }
+    
+    /**
+     * The order versions named by the strong ETags of an {@code If-Match} list, or null when the
+     * header is absent or {@code *}. Comparison is strong, so weak ETags and tags this API never
+     * issues are kept out and can only lead to 412; only a header that is not a list of entity
+     * tags is rejected as malformed.
+     */
+    private static Set<Long> expectedVersions(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        Set<Long> versions = new HashSet<>();
+        Matcher tag = ENTITY_TAG.matcher(ifMatch);
+        int position = 0;
+        while (!ifMatch.substring(position).replace(',', ' ').isBlank()) {
+            tag.region(position, ifMatch.length());
+            if (!tag.lookingAt()) {
+                throw new IllegalStateException("If-Match must be * or a list of ETags");
+            }
+            if (tag.group(1) == null && VERSION.matcher(tag.group(2)).matches()) {
+                versions.add(Long.parseLong(tag.group(2)));
+            }
+            position = tag.end();
+        }
+        return versions;
     }
 }
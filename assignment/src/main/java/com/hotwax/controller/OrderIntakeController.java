@@ -0,0 +1,43 @@
+package com.hotwax.controller;
+
+import com.hotwax.dto.OrderIntakeStatusDTO;
+import com.hotwax.dto.OrderRequestDTO;
+import com.hotwax.service.OrderIntakeService;
+import jakarta.persistence.EntityNotFoundException;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.net.URI;
+
+@RestController
+@RequestMapping("/orders/intake")
+@RequiredArgsConstructor
+@CrossOrigin(origins = "*")
+public class OrderIntakeController {
+    
+    private final ObjectProvider<OrderIntakeService> orderIntakeService;
+    
+    @PostMapping
+    public ResponseEntity<OrderIntakeStatusDTO> submitOrder(@Valid @RequestBody OrderRequestDTO request) {
+        OrderIntakeStatusDTO status = intake().submit(request);
+        return ResponseEntity.accepted()
+                .location(URI.create("/orders/intake/" + status.getTrackingId()))
+                .body(status);
+    }
+    
+    @GetMapping("/{tracking_id}")
+    public ResponseEntity<OrderIntakeStatusDTO> getIntakeStatus(@PathVariable("tracking_id") String trackingId) {
+        return ResponseEntity.ok(intake().get(trackingId));
+    }
+    
+    private OrderIntakeService intake() {
+        OrderIntakeService service = orderIntakeService.getIfAvailable();
+        if (service == null) {
+            throw new EntityNotFoundException("Asynchronous order intake is not enabled");
+        }
+        return service;
+    }
+}
@@ -0,0 +1,24 @@
+package com.hotwax.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.time.LocalDate;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ArchiveJobDTO {
+    private String jobId;
+    private LocalDate before;
+    private boolean purge;
+    private String state;
+    private long ordersProcessed;
+    private long itemsProcessed;
+    private int chunks;
+    private Instant startedAt;
+    private Instant finishedAt;
+    private String message;
+}
@@ -0,0 +1,17 @@
+package com.hotwax.dto;
+
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+
+import java.time.LocalDate;
+
+@Data
+public class ArchiveRequestDTO {
+    
+    /** Orders with an order date before this day are moved. */
+    @NotNull(message = "Cutoff date is required")
+    private LocalDate before;
+    
+    /** Delete without copying to the archive tables. */
+    private boolean purge;
+}
@@ -0,0 +1,20 @@
+package com.hotwax.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CustomerOrdersDTO {
+    private Integer customerId;
+    private long orderCount;
+    private long itemQuantity;
+    private LocalDate lastOrderDate;
+    private List<OrderResponseDTO> orders;
+    private String nextCursor;
+}
@@ -0,0 +1,18 @@
+package com.hotwax.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DailyItemCountDTO {
+    private LocalDate date;
+    private Integer productId;
+    private String status;
+    private Long itemCount;
+    private Long quantity;
+}
@@ -0,0 +1,15 @@
+package com.hotwax.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DailyOrderCountDTO {
+    private LocalDate date;
+    private Long orderCount;
+}
@@ -0,0 +1,29 @@
+package com.hotwax.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * Moves every order item matching all given filters to {@code toStatus}. At least one of
+ * {@code orderItemSeqIds}, {@code orderIds}, {@code fromStatus} or {@code productId} is required.
+ */
+@Data
+public class ItemStatusTransitionDTO {
+    
+    @Size(max = 10000, message = "At most 10000 item IDs per request")
+    private List<Integer> orderItemSeqIds;
+    
+    @Size(max = 10000, message = "At most 10000 order IDs per request")
+    private List<Integer> orderIds;
+    
+    private String fromStatus;
+    
+    private Integer productId;
+    
+    @NotBlank(message = "Target status is required")
+    @Size(max = 20, message = "Status must be at most 20 characters")
+    private String toStatus;
+}
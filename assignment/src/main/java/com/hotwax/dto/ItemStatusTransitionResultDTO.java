@@ -0,0 +1,14 @@
+package com.hotwax.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ItemStatusTransitionResultDTO {
+    private int itemsUpdated;
+    private int ordersUpdated;
+    private int chunks;
+}
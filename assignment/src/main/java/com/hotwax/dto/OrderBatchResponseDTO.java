@@ -0,0 +1,15 @@
+package com.hotwax.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderBatchResponseDTO {
+    private int created;
+    private int failed;
+    private List<OrderBatchResultDTO> results;
+}
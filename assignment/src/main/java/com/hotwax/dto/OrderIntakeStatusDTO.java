@@ -0,0 +1,16 @@
+package com.hotwax.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderIntakeStatusDTO {
+    private String trackingId;
+    /** ACCEPTED (durably logged, not yet written), CREATED or FAILED. */
+    private String state;
+    private Integer orderId;
+    private String message;
+}
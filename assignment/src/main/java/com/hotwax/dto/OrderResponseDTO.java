@@ -1,5 +1,6 @@
 package com.hotwax.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -17,4 +18,6 @@ public class OrderResponseDTO {
     private Integer shippingContactMechId;
     private Integer billingContactMechId;
     private List<OrderItemResponseDTO> orderItems;
+    @JsonIgnore
+    private Long version;
 }
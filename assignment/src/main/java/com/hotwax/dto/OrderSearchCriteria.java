@@ -0,0 +1,27 @@
+package com.hotwax.dto;
+
+import lombok.Data;
+
+import java.time.LocalDate;
+
+@Data
+public class OrderSearchCriteria {
+    private Integer customerId;
+    
+    /** First order date to include. */
+    private LocalDate from;
+    
+    /** Last order date to include. */
+    private LocalDate to;
+    
+    /** Orders with at least one item in this status. */
+    private String status;
+    
+    /** Orders with at least one item for this product; combined with status, the same item must match both. */
+    private Integer productId;
+    
+    /** {@code nextCursor} of the previous page. */
+    private String after;
+    
+    private int limit = 50;
+}
@@ -0,0 +1,14 @@
+package com.hotwax.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderSearchPageDTO {
+    private List<OrderResponseDTO> orders;
+    private String nextCursor;
+}
@@ -0,0 +1,4 @@
+package com.hotwax.dto;
+
+/** A response body together with the version of the order it belongs to, sent as the ETag. */
+public record VersionedDTO<T>(T body, long version) {}
@@ -0,0 +1,11 @@
+package com.hotwax.exception;
+
+/**
+ * An archive job was requested while another one is still running.
+ */
+public class ArchiveJobRunningException extends RuntimeException {
+
+    public ArchiveJobRunningException(String jobId) {
+        super("Archive job " + jobId + " is still running");
+    }
+}
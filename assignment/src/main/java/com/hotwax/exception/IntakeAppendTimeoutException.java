@@ -0,0 +1,20 @@
+package com.hotwax.exception;
+
+import lombok.Getter;
+
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * An intake submission was not on disk within the append timeout. The record may still be
+ * written, so the client is pointed at its tracking ID instead of submitting again.
+ */
+@Getter
+public class IntakeAppendTimeoutException extends RejectedExecutionException {
+
+    private final String trackingId;
+
+    public IntakeAppendTimeoutException(String trackingId) {
+        super("Order intake is busy; poll tracking ID " + trackingId + " before retrying, it may still be accepted");
+        this.trackingId = trackingId;
+    }
+}
@@ -0,0 +1,14 @@
+package com.hotwax.exception;
+
+import java.util.Collection;
+
+/**
+ * None of the versions a client sent in {@code If-Match} is the current version of the order.
+ */
+public class VersionMismatchException extends RuntimeException {
+
+    public VersionMismatchException(Integer orderId, Collection<Long> expected, long actual) {
+        super("Order " + orderId + " is at version " + actual + ", not "
+                + (expected.size() == 1 ? expected.iterator().next() : "any of " + expected));
+    }
+}
@@ -0,0 +1,127 @@
+package com.hotwax.filter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hotwax.exception.GlobalExceptionHandler;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Caps the number of requests that may work against the database at once to the size of the
+ * connection pool. Excess requests wait here, on a fair semaphore, instead of inside Hikari; a
+ * request that cannot get a permit within {@code maxWait} is answered with 503 rather than
+ * failing later with a connection timeout. With virtual threads this is what keeps thousands of
+ * cheap parked requests from turning into thousands of pool waiters.
+ * <p>
+ * An asynchronous request, such as a streamed export, keeps its permit until the async request
+ * completes, since it reads from the database after the filter chain has returned.
+ */
+public class DbConcurrencyLimitFilter extends OncePerRequestFilter {
+
+    private final Semaphore permits;
+    private final Duration maxWait;
+    private final ObjectMapper objectMapper;
+    private final Counter rejectedCounter;
+
+    public DbConcurrencyLimitFilter(int maxConcurrency, Duration maxWait, ObjectMapper objectMapper,
+                                    MeterRegistry meterRegistry) {
+        this.permits = new Semaphore(maxConcurrency, true);
+        this.maxWait = maxWait;
+        this.objectMapper = objectMapper;
+
+        Gauge.builder("db.limiter.available", permits, Semaphore::availablePermits)
+                .description("Database concurrency permits currently free")
+                .register(meterRegistry);
+        Gauge.builder("db.limiter.waiting", permits, Semaphore::getQueueLength)
+                .description("Requests waiting for a database concurrency permit")
+                .register(meterRegistry);
+        this.rejectedCounter = Counter.builder("db.limiter.rejected")
+                .description("Requests rejected because no database permit became free in time")
+                .register(meterRegistry);
+    }
+
+    // Intake submissions only append to the local intake log.
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return "POST".equals(request.getMethod()) && "/orders/intake".equals(request.getServletPath());
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        boolean acquired;
+        try {
+            acquired = permits.tryAcquire(maxWait.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            acquired = false;
+        }
+
+        if (!acquired) {
+            rejectedCounter.increment();
+            reject(response);
+            return;
+        }
+
+        boolean async = false;
+        try {
+            filterChain.doFilter(request, response);
+            if (request.isAsyncStarted()) {
+                request.getAsyncContext().addListener(new Release());
+                async = true;
+            }
+        } finally {
+            if (!async) {
+                permits.release();
+            }
+        }
+    }
+
+    private void reject(HttpServletResponse response) throws IOException {
+        response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), new GlobalExceptionHandler.ErrorResponse(
+                HttpStatus.SERVICE_UNAVAILABLE.value(),
+                "Too many concurrent requests, please retry",
+                LocalDateTime.now()
+        ));
+    }
+
+    private final class Release implements AsyncListener {
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            permits.release();
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            event.getAsyncContext().addListener(this);
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+        }
+    }
+}
@@ -0,0 +1,225 @@
+package com.hotwax.filter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.hotwax.config.RateLimitProperties;
+import com.hotwax.exception.GlobalExceptionHandler;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Limits each authenticated user's request rate and requests in progress, with limits chosen by
+ * the user's role, so one client cannot take the whole connection pool. Runs in the security chain
+ * right after {@code JwtFilter}; unauthenticated requests pass through to be refused there.
+ * <p>
+ * The rate is a token bucket kept as a single theoretical-arrival timestamp (GCRA) updated with
+ * compare-and-set, so admitting a request takes no lock. Buckets live in a Caffeine cache bounded
+ * by {@code rate-limit.maximum-users} and dropped after {@code rate-limit.idle-timeout} without
+ * requests. Requests in progress are counted in a map instead, whose entry is removed when the
+ * user's last request finishes, so a bucket evicted during a long request cannot reset the count.
+ * A rejected request gets 429 with {@code Retry-After} set to when the bucket next has a token.
+ */
+public class UserRateLimitFilter extends OncePerRequestFilter {
+
+    private static final String DEFAULT_ROLE = "USER";
+
+    private static final String ROLE_PREFIX = "ROLE_";
+
+    private static final long NANOS_PER_SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    private static final class UserState {
+        /** Theoretical arrival time of the next request, in nanoseconds since {@code origin}. */
+        final AtomicLong theoreticalArrival = new AtomicLong();
+    }
+
+    private static final class RoleLimit {
+        final long interval;
+        final long tolerance;
+        final int maxConcurrent;
+        final Counter admitted;
+        final Counter rateLimited;
+        final Counter concurrencyLimited;
+
+        RoleLimit(String role, RateLimitProperties.Limit limit, MeterRegistry meterRegistry) {
+            this.interval = limit.getRequestsPerSecond() > 0 ? (long) (NANOS_PER_SECOND / limit.getRequestsPerSecond()) : 0;
+            this.tolerance = interval * (Math.max(limit.getBurst(), 1) - 1);
+            this.maxConcurrent = limit.getMaxConcurrent();
+            this.admitted = counter(meterRegistry, role, "admitted");
+            this.rateLimited = counter(meterRegistry, role, "rate_limited");
+            this.concurrencyLimited = counter(meterRegistry, role, "concurrency_limited");
+        }
+
+        /** Takes a token and returns 0, or returns how long until one is available. */
+        long acquire(UserState user, long now) {
+            if (interval == 0) {
+                return 0;
+            }
+            while (true) {
+                long arrival = user.theoreticalArrival.get();
+                long start = Math.max(arrival, now);
+                long wait = start - now - tolerance;
+                if (wait > 0) {
+                    return wait;
+                }
+                if (user.theoreticalArrival.compareAndSet(arrival, start + interval)) {
+                    return 0;
+                }
+            }
+        }
+
+        private static Counter counter(MeterRegistry meterRegistry, String role, String outcome) {
+            return Counter.builder("rate.limit.requests")
+                    .description("Authenticated requests by role and rate limiter outcome")
+                    .tag("role", role)
+                    .tag("outcome", outcome)
+                    .register(meterRegistry);
+        }
+    }
+
+    private final Map<String, RoleLimit> limits = new HashMap<>();
+    private final RoleLimit defaultLimit;
+    private final Cache<String, UserState> users;
+    private final Map<String, Integer> inFlight = new ConcurrentHashMap<>();
+    private final ObjectMapper objectMapper;
+    private final long origin = System.nanoTime();
+
+    public UserRateLimitFilter(RateLimitProperties properties, ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        properties.getRoles().forEach((role, limit) -> {
+            String name = role.toUpperCase(Locale.ROOT);
+            limits.put(name, new RoleLimit(name, limit, meterRegistry));
+        });
+        this.defaultLimit = limits.computeIfAbsent(DEFAULT_ROLE,
+                role -> new RoleLimit(role, new RateLimitProperties.Limit(), meterRegistry));
+        this.users = Caffeine.newBuilder()
+                .maximumSize(properties.getMaximumUsers())
+                .expireAfterAccess(properties.getIdleTimeout())
+                .build();
+        this.objectMapper = objectMapper;
+
+        Gauge.builder("rate.limit.users", users, Cache::estimatedSize)
+                .description("Users whose request rate is currently tracked")
+                .register(meterRegistry);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !authentication.isAuthenticated()) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        RoleLimit limit = limitFor(authentication);
+        String username = authentication.getName();
+        UserState user = users.get(username, name -> new UserState());
+
+        int inProgress = inFlight.merge(username, 1, Integer::sum);
+        if (limit.maxConcurrent > 0 && inProgress > limit.maxConcurrent) {
+            release(username);
+            limit.concurrencyLimited.increment();
+            reject(response, NANOS_PER_SECOND, "Too many concurrent requests, please retry");
+            return;
+        }
+        long wait = limit.acquire(user, System.nanoTime() - origin);
+        if (wait > 0) {
+            release(username);
+            limit.rateLimited.increment();
+            reject(response, wait, "Rate limit exceeded, please retry");
+            return;
+        }
+
+        limit.admitted.increment();
+        boolean async = false;
+        try {
+            filterChain.doFilter(request, response);
+            if (request.isAsyncStarted()) {
+                // Streaming responses stay in progress until the async request completes.
+                request.getAsyncContext().addListener(new Release(username));
+                async = true;
+            }
+        } finally {
+            if (!async) {
+                release(username);
+            }
+        }
+    }
+
+    private void release(String username) {
+        inFlight.computeIfPresent(username, (name, count) -> count > 1 ? count - 1 : null);
+    }
+
+    private RoleLimit limitFor(Authentication authentication) {
+        for (GrantedAuthority authority : authentication.getAuthorities()) {
+            String name = authority.getAuthority();
+            if (name != null && name.startsWith(ROLE_PREFIX)) {
+                RoleLimit limit = limits.get(name.substring(ROLE_PREFIX.length()).toUpperCase(Locale.ROOT));
+                if (limit != null) {
+                    return limit;
+                }
+            }
+        }
+        return defaultLimit;
+    }
+
+    private void reject(HttpServletResponse response, long waitNanos, String message) throws IOException {
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(Math.max(1, (waitNanos + NANOS_PER_SECOND - 1) / NANOS_PER_SECOND)));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), new GlobalExceptionHandler.ErrorResponse(
+                HttpStatus.TOO_MANY_REQUESTS.value(),
+                message,
+                LocalDateTime.now()
+        ));
+    }
+
+    private final class Release implements AsyncListener {
+        private final String username;
+
+        Release(String username) {
+            this.username = username;
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            release(username);
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            event.getAsyncContext().addListener(this);
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+        }
+    }
+}
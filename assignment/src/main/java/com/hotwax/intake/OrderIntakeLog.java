@@ -0,0 +1,355 @@
+package com.hotwax.intake;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * Append-only log of accepted records in a local directory. Records are addressed by a global byte
+ * offset and stored in segment files named after the offset they start at. A single writer thread
+ * takes whatever appends are queued, writes them together and calls {@code fsync} once for all of
+ * them (group commit); an append completes only after its record is on disk. Every record carries
+ * its length and a CRC32C of its payload, so a record torn by a crash is cut off when the log is
+ * opened again. That record was never acknowledged.
+ * <p>
+ * Readers see records up to the last completed {@code fsync}. Segments entirely before an offset
+ * that has been processed are deleted with {@link #release(long)}.
+ */
+public class OrderIntakeLog implements Closeable {
+
+    private static final Logger log = LoggerFactory.getLogger(OrderIntakeLog.class);
+
+    private static final int HEADER_BYTES = 8;
+    private static final int MAX_RECORD_BYTES = 16 * 1024 * 1024;
+    private static final int MAX_GROUP = 1024;
+    private static final String SEGMENT_SUFFIX = ".log";
+
+    public record Entry(long offset, long nextOffset, byte[] payload) {}
+
+    private record Append(ByteBuffer record, CompletableFuture<Long> done) {}
+
+    private final Path directory;
+    private final String logId;
+    private final long segmentBytes;
+    private final ConcurrentSkipListMap<Long, Path> segments = new ConcurrentSkipListMap<>();
+    private final BlockingQueue<Append> queue;
+    private final Thread writer;
+    private final Object durableMonitor = new Object();
+
+    private FileChannel active;
+    private long activeBase;
+    private volatile long durableOffset;
+    private volatile IOException failure;
+    private volatile boolean closed;
+
+    public OrderIntakeLog(Path directory, long segmentBytes, int queueCapacity) throws IOException {
+        this.directory = directory;
+        this.segmentBytes = segmentBytes;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        Files.createDirectories(directory);
+        this.logId = readOrCreateLogId();
+        try (Stream<Path> files = Files.list(directory)) {
+            files.filter(file -> file.getFileName().toString().endsWith(SEGMENT_SUFFIX))
+                    .forEach(file -> segments.put(baseOffset(file), file));
+        }
+        if (segments.isEmpty()) {
+            segments.put(0L, segmentPath(0));
+        }
+        Map.Entry<Long, Path> last = segments.lastEntry();
+        activeBase = last.getKey();
+        active = FileChannel.open(last.getValue(), StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        long valid = recover(active);
+        if (valid < active.size()) {
+            log.warn("Intake log {}: cutting off {} bytes of an incomplete record at offset {}",
+                    last.getValue(), active.size() - valid, activeBase + valid);
+            active.truncate(valid);
+        }
+        active.position(valid);
+        active.force(true);
+        syncDirectory();
+        durableOffset = activeBase + valid;
+
+        writer = new Thread(this::writeLoop, "order-intake-log");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /** Identifies this log directory, so offsets recorded elsewhere can be tied to it. */
+    public String logId() {
+        return logId;
+    }
+
+    /** Offset of the oldest record still kept. */
+    public long startOffset() {
+        return segments.firstKey();
+    }
+
+    /** Offset just past the last record on disk. */
+    public long durableOffset() {
+        return durableOffset;
+    }
+
+    /**
+     * Queues the payload and returns a future that completes with the offset just past its record
+     * once the record is on disk. Fails at once with {@link RejectedExecutionException} when the
+     * queue is full or the log is closed.
+     */
+    public CompletableFuture<Long> append(byte[] payload) {
+        if (payload.length > MAX_RECORD_BYTES) {
+            throw new IllegalStateException("Record of " + payload.length + " bytes exceeds " + MAX_RECORD_BYTES);
+        }
+        if (failure != null) {
+            throw new UncheckedIOException("Intake log is unusable after a write failure", failure);
+        }
+        ByteBuffer record = ByteBuffer.allocate(HEADER_BYTES + payload.length);
+        record.putInt(payload.length).putInt(crc(payload, 0, payload.length)).put(payload).flip();
+        Append append = new Append(record, new CompletableFuture<>());
+        if (closed || !queue.offer(append)) {
+            throw new RejectedExecutionException("Order intake log is " + (closed ? "closed" : "full"));
+        }
+        return append.done();
+    }
+
+    /**
+     * Reads up to {@code max} records starting at {@code from}, waiting up to {@code timeout} for
+     * one to become durable if none is yet. Returns an empty list on timeout.
+     */
+    public List<Entry> read(long from, int max, long timeout, TimeUnit unit) throws IOException, InterruptedException {
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        synchronized (durableMonitor) {
+            long remaining;
+            while (durableOffset <= from && !closed && (remaining = deadline - System.nanoTime()) > 0) {
+                TimeUnit.NANOSECONDS.timedWait(durableMonitor, remaining);
+            }
+        }
+        long end = durableOffset;
+        List<Entry> entries = new ArrayList<>();
+        long offset = from;
+        while (offset < end && entries.size() < max) {
+            Map.Entry<Long, Path> segment = segments.floorEntry(offset);
+            if (segment == null) {
+                throw new IllegalStateException("Offset " + offset + " is before the start of the intake log");
+            }
+            Long nextBase = segments.higherKey(segment.getKey());
+            long segmentEnd = nextBase != null ? Math.min(nextBase, end) : end;
+            try (FileChannel channel = FileChannel.open(segment.getValue(), StandardOpenOption.READ)) {
+                while (offset < segmentEnd && entries.size() < max) {
+                    ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+                    readFully(channel, header, offset - segment.getKey());
+                    int length = header.getInt(0);
+                    ByteBuffer payload = ByteBuffer.allocate(length);
+                    readFully(channel, payload, offset - segment.getKey() + HEADER_BYTES);
+                    long next = offset + HEADER_BYTES + length;
+                    entries.add(new Entry(offset, next, payload.array()));
+                    offset = next;
+                }
+            }
+        }
+        return entries;
+    }
+
+    /** Deletes the segments whose records all lie before {@code offset}. */
+    public void release(long offset) throws IOException {
+        for (Map.Entry<Long, Path> segment : segments.headMap(offset, false).entrySet()) {
+            Long nextBase = segments.higherKey(segment.getKey());
+            if (nextBase == null || nextBase > offset) {
+                break;
+            }
+            segments.remove(segment.getKey());
+            Files.deleteIfExists(segment.getValue());
+            log.info("Intake log: released segment {}", segment.getValue().getFileName());
+        }
+    }
+
+    /** Writes what is queued, then stops the writer. Appends after this are rejected. */
+    @Override
+    public void close() throws IOException {
+        closed = true;
+        try {
+            writer.join(TimeUnit.SECONDS.toMillis(10));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        synchronized (durableMonitor) {
+            durableMonitor.notifyAll();
+        }
+        active.close();
+    }
+
+    private void writeLoop() {
+        List<Append> group = new ArrayList<>();
+        while (true) {
+            // Not interrupted on close: an interrupt would close the channel mid-write.
+            try {
+                Append first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    if (closed) {
+                        return;
+                    }
+                    continue;
+                }
+                group.add(first);
+                queue.drainTo(group, MAX_GROUP - 1);
+                writeGroup(group);
+            } catch (InterruptedException e) {
+                return;
+            } finally {
+                group.clear();
+            }
+        }
+    }
+
+    private void writeGroup(List<Append> group) {
+        if (failure != null) {
+            group.forEach(append -> append.done().completeExceptionally(failure));
+            return;
+        }
+        long start = durableOffset;
+        try {
+            ByteBuffer[] records = group.stream().map(Append::record).toArray(ByteBuffer[]::new);
+            while (records[records.length - 1].hasRemaining()) {
+                active.write(records);
+            }
+            active.force(false);
+        } catch (IOException e) {
+            rollBack(start, e);
+            group.forEach(append -> append.done().completeExceptionally(e));
+            return;
+        }
+        long end = start + group.stream().mapToLong(append -> append.record().limit()).sum();
+        // Published before acknowledging, so an appender reading right after sees its own record.
+        synchronized (durableMonitor) {
+            durableOffset = end;
+            durableMonitor.notifyAll();
+        }
+        long offset = start;
+        for (Append append : group) {
+            offset += append.record().limit();
+            append.done().complete(offset);
+        }
+        if (offset - activeBase >= segmentBytes) {
+            try {
+                roll(offset);
+            } catch (IOException e) {
+                log.error("Intake log: could not start a new segment at offset {}", offset, e);
+                failure = e;
+            }
+        }
+    }
+
+    // A failed write may have left part of the group in the file; cut it off so records appended
+    // later do not follow garbage. If even that fails, refuse all further appends.
+    private void rollBack(long durable, IOException cause) {
+        log.error("Intake log: write failed at offset {}", durable, cause);
+        try {
+            active.truncate(durable - activeBase);
+            active.position(durable - activeBase);
+            active.force(true);
+        } catch (IOException e) {
+            cause.addSuppressed(e);
+            failure = cause;
+        }
+    }
+
+    private void roll(long base) throws IOException {
+        Path path = segmentPath(base);
+        FileChannel next = FileChannel.open(path, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        syncDirectory();
+        active.close();
+        active = next;
+        activeBase = base;
+        segments.put(base, path);
+    }
+
+    private static long recover(FileChannel channel) throws IOException {
+        long size = channel.size();
+        long position = 0;
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+        while (position + HEADER_BYTES <= size) {
+            header.clear();
+            readFully(channel, header, position);
+            int length = header.getInt(0);
+            if (length < 0 || length > MAX_RECORD_BYTES || position + HEADER_BYTES + length > size) {
+                break;
+            }
+            ByteBuffer payload = ByteBuffer.allocate(length);
+            readFully(channel, payload, position + HEADER_BYTES);
+            if (crc(payload.array(), 0, length) != header.getInt(4)) {
+                break;
+            }
+            position += HEADER_BYTES + length;
+        }
+        return position;
+    }
+
+    private static void readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new IOException("Unexpected end of intake log segment");
+            }
+        }
+    }
+
+    private static int crc(byte[] bytes, int offset, int length) {
+        CRC32C crc = new CRC32C();
+        crc.update(bytes, offset, length);
+        return (int) crc.getValue();
+    }
+
+    private String readOrCreateLogId() throws IOException {
+        Path idFile = directory.resolve("log.id");
+        if (Files.exists(idFile)) {
+            return Files.readString(idFile, StandardCharsets.UTF_8).trim();
+        }
+        String id = UUID.randomUUID().toString();
+        Path temp = directory.resolve("log.id.tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            channel.write(ByteBuffer.wrap(id.getBytes(StandardCharsets.UTF_8)));
+            channel.force(true);
+        }
+        Files.move(temp, idFile, StandardCopyOption.ATOMIC_MOVE);
+        syncDirectory();
+        return id;
+    }
+
+    // Makes a newly created file's directory entry durable (Linux; a no-op where unsupported).
+    private void syncDirectory() {
+        try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (IOException e) {
+            log.debug("Intake log: cannot fsync directory {}", directory, e);
+        }
+    }
+
+    private Path segmentPath(long base) {
+        return directory.resolve(String.format("%020d%s", base, SEGMENT_SUFFIX));
+    }
+
+    private static long baseOffset(Path segment) {
+        String name = segment.getFileName().toString();
+        return Long.parseLong(name.substring(0, name.length() - SEGMENT_SUFFIX.length()));
+    }
+}
@@ -0,0 +1,15 @@
+package com.hotwax.model;
+
+import java.util.List;
+
+public final class CacheRegions {
+
+    public static final String CUSTOMER = "customer";
+    public static final String CONTACT_MECH = "contact_mech";
+    public static final String PRODUCT = "product";
+
+    public static final List<String> ALL = List.of(CUSTOMER, CONTACT_MECH, PRODUCT);
+
+    private CacheRegions() {
+    }
+}
@@ -2,10 +2,15 @@ package com.hotwax.model;
 
 import jakarta.persistence.*;
 import lombok.Data;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 @Entity
 @Data
 @Table(name = "contact_mech")
+@EntityListeners(ReferenceDataListener.class)
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = CacheRegions.CONTACT_MECH)
 public class ContactMech {
 
     @Id
@@ -2,11 +2,16 @@ package com.hotwax.model;
 
 import jakarta.persistence.*;
 import lombok.Data;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import java.util.List;
 
 @Entity
 @Data
 @Table(name = "customer")
+@EntityListeners(ReferenceDataListener.class)
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = CacheRegions.CUSTOMER)
 public class Customer {
 
     @Id
@@ -0,0 +1,30 @@
+package com.hotwax.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.time.LocalDate;
+
+/**
+ * Per-customer order aggregates, adjusted in place by every order write (see
+ * {@code CustomerStatsService}) so reading them never scans the customer's orders.
+ */
+@Entity
+@Data
+@Table(name = "customer_stats")
+public class CustomerStats {
+
+    @Id
+    @Column(name = "customer_id")
+    private Integer customerId;
+
+    @Column(name = "order_count", nullable = false)
+    private Long orderCount;
+
+    /** Sum of the quantities of all the customer's order items. */
+    @Column(name = "item_quantity", nullable = false)
+    private Long itemQuantity;
+
+    @Column(name = "last_order_date")
+    private LocalDate lastOrderDate;
+}
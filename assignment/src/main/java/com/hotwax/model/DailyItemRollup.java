@@ -0,0 +1,24 @@
+package com.hotwax.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+/**
+ * Order items per order date, product and status, live and archived orders alike. Adjusted by
+ * every order write in its own transaction (see {@code OrderRollupService}) and recomputed from the
+ * order tables by the backfill.
+ */
+@Entity
+@Data
+@Table(name = "daily_item_rollup")
+public class DailyItemRollup {
+
+    @EmbeddedId
+    private DailyItemRollupId id;
+
+    @Column(name = "item_count", nullable = false)
+    private Long itemCount;
+
+    @Column(nullable = false)
+    private Long quantity;
+}
@@ -0,0 +1,20 @@
+package com.hotwax.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.time.LocalDate;
+
+/** Orders per order date; maintained alongside {@link DailyItemRollup}. */
+@Entity
+@Data
+@Table(name = "daily_order_rollup")
+public class DailyOrderRollup {
+
+    @Id
+    @Column(name = "order_date")
+    private LocalDate orderDate;
+
+    @Column(name = "order_count", nullable = false)
+    private Long orderCount;
+}
@@ -0,0 +1,15 @@
+package com.hotwax.model;
+
+public final class IdSequences {
+
+    public static final String TABLE = "id_sequence";
+    public static final String NAME_COLUMN = "sequence_name";
+    public static final String VALUE_COLUMN = "next_val";
+    public static final int ALLOCATION_SIZE = 100;
+
+    public static final String ORDER_HEADER = "order_header";
+    public static final String ORDER_ITEM = "order_item";
+
+    private IdSequences() {
+    }
+}
@@ -2,17 +2,24 @@ package com.hotwax.model;
 
 import jakarta.persistence.*;
 import lombok.Data;
+import org.hibernate.annotations.ColumnDefault;
 import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.List;
 
 @Entity
 @Data
-@Table(name = "order_header")
+@Table(name = "order_header", indexes = {
+        @Index(name = "idx_order_header_customer_date", columnList = "customer_id, order_date"),
+        @Index(name = "idx_order_header_date", columnList = "order_date")
+})
 public class OrderHeader {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "order_header_id")
+    @TableGenerator(name = "order_header_id", table = IdSequences.TABLE,
+            pkColumnName = IdSequences.NAME_COLUMN, valueColumnName = IdSequences.VALUE_COLUMN,
+            pkColumnValue = IdSequences.ORDER_HEADER, allocationSize = IdSequences.ALLOCATION_SIZE)
     @Column(name = "order_id")
     private Integer orderId;
     
@@ -31,6 +38,12 @@ public class OrderHeader {
     @JoinColumn(name = "billing_contact_mech_id", nullable = false)
     private ContactMech billingContactMech;
     
+    /** Version of the whole order: item changes move it too, and it is the order's ETag. */
+    @Version
+    @ColumnDefault("0")
+    @Column(name = "version", nullable = false)
+    private Long version;
+    
     @OneToMany(mappedBy = "orderHeader", cascade = CascadeType.ALL, orphanRemoval = true)
     private List<OrderItem> orderItems = new ArrayList<>();
 }
@@ -0,0 +1,36 @@
+package com.hotwax.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/** An order header moved out of {@code order_header} by the archival job; references are plain IDs. */
+@Entity
+@Data
+@Table(name = "order_header_archive", indexes = @Index(name = "idx_order_header_archive_date", columnList = "order_date"))
+public class OrderHeaderArchive {
+
+    @Id
+    @Column(name = "order_id")
+    private Integer orderId;
+
+    @Column(name = "order_date", nullable = false)
+    private LocalDate orderDate;
+
+    @Column(name = "customer_id", nullable = false)
+    private Integer customerId;
+
+    @Column(name = "shipping_contact_mech_id", nullable = false)
+    private Integer shippingContactMechId;
+
+    @Column(name = "billing_contact_mech_id", nullable = false)
+    private Integer billingContactMechId;
+
+    @Column(name = "version", nullable = false)
+    private Long version;
+
+    @Column(name = "archived_at", nullable = false)
+    private LocalDateTime archivedAt;
+}
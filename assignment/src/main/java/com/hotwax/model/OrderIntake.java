@@ -0,0 +1,39 @@
+package com.hotwax.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * Outcome of an order accepted through the intake log, written in the same transaction as the order
+ * itself. {@code logOffset} is the log position just past the order's record, so the highest one
+ * for a log is where replay resumes after a restart.
+ */
+@Entity
+@Data
+@Table(name = "order_intake", indexes = @Index(name = "idx_order_intake_log_offset", columnList = "log_id, log_offset"))
+public class OrderIntake {
+
+    @Id
+    @Column(name = "tracking_id", length = 36)
+    private String trackingId;
+
+    @Column(name = "log_id", nullable = false, length = 36)
+    private String logId;
+
+    @Column(name = "log_offset", nullable = false)
+    private Long logOffset;
+
+    @Column(nullable = false, length = 20)
+    private String state;
+
+    @Column(name = "order_id")
+    private Integer orderId;
+
+    @Column(length = 1000)
+    private String message;
+
+    @Column(name = "processed_at", nullable = false)
+    private LocalDateTime processedAt;
+}
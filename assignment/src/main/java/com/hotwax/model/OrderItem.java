@@ -2,14 +2,22 @@ package com.hotwax.model;
 
 import jakarta.persistence.*;
 import lombok.Data;
+import org.hibernate.annotations.ColumnDefault;
 
 @Entity
 @Data
-@Table(name = "order_item")
+@Table(name = "order_item", indexes = {
+        @Index(name = "idx_order_item_order", columnList = "order_id"),
+        @Index(name = "idx_order_item_status_product", columnList = "status, product_id"),
+        @Index(name = "idx_order_item_product", columnList = "product_id")
+})
 public class OrderItem {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "order_item_id")
+    @TableGenerator(name = "order_item_id", table = IdSequences.TABLE,
+            pkColumnName = IdSequences.NAME_COLUMN, valueColumnName = IdSequences.VALUE_COLUMN,
+            pkColumnValue = IdSequences.ORDER_ITEM, allocationSize = IdSequences.ALLOCATION_SIZE)
     @Column(name = "order_item_seq_id")
     private Integer orderItemSeqId;
     
@@ -29,4 +37,9 @@ public class OrderItem {
     
     @Column(nullable = false, length = 20)
     private String status;
+    
+    @Version
+    @ColumnDefault("0")
+    @Column(name = "version", nullable = false)
+    private Long version;
 }
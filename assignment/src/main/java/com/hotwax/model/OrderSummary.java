@@ -0,0 +1,49 @@
+package com.hotwax.model;
+
+import com.hotwax.dto.OrderItemResponseDTO;
+import jakarta.persistence.*;
+import lombok.Data;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Denormalized read model: one row per order holding everything an order response needs, with
+ * the items as a JSON document. Written by the order services in the same transaction as the
+ * normalized tables and rebuilt from them by {@code OrderSummaryService}.
+ */
+@Entity
+@Data
+@Table(name = "order_summary")
+public class OrderSummary {
+
+    @Id
+    @Column(name = "order_id")
+    private Integer orderId;
+
+    @Column(name = "order_date", nullable = false)
+    private LocalDate orderDate;
+
+    @Column(name = "customer_id", nullable = false)
+    private Integer customerId;
+
+    @Column(name = "customer_name", nullable = false, length = 101)
+    private String customerName;
+
+    @Column(name = "shipping_contact_mech_id", nullable = false)
+    private Integer shippingContactMechId;
+
+    @Column(name = "billing_contact_mech_id", nullable = false)
+    private Integer billingContactMechId;
+
+    /** Copy of the order header's version. */
+    @Column(name = "version", nullable = false)
+    private Long version;
+
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(name = "order_items", nullable = false)
+    private List<OrderItemResponseDTO> orderItems = new ArrayList<>();
+}
@@ -0,0 +1,3 @@
+package com.hotwax.model;
+
+public record ReferenceDataChangedEvent(Object entity, boolean removed) {}
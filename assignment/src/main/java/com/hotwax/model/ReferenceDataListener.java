@@ -0,0 +1,26 @@
+package com.hotwax.model;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.context.ApplicationEventPublisher;
+
+public class ReferenceDataListener {
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    public ReferenceDataListener(ApplicationEventPublisher eventPublisher) {
+        this.eventPublisher = eventPublisher;
+    }
+
+    @PostPersist
+    @PostUpdate
+    public void onSave(Object entity) {
+        eventPublisher.publishEvent(new ReferenceDataChangedEvent(entity, false));
+    }
+
+    @PostRemove
+    public void onRemove(Object entity) {
+        eventPublisher.publishEvent(new ReferenceDataChangedEvent(entity, true));
+    }
+}
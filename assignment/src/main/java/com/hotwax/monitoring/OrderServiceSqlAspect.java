@@ -0,0 +1,33 @@
+package com.hotwax.monitoring;
+
+import io.micrometer.core.instrument.Tags;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+
+/**
+ * Reports SQL statistics per public {@code OrderService} method. Ordered outside the
+ * transaction interceptor so the flush at commit is counted against the method.
+ */
+@Aspect
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class OrderServiceSqlAspect {
+
+    private final SqlStatisticsReporter reporter;
+
+    public OrderServiceSqlAspect(SqlStatisticsReporter reporter) {
+        this.reporter = reporter;
+    }
+
+    @Around("execution(public * com.hotwax.service.OrderService.*(..))")
+    public Object measure(ProceedingJoinPoint joinPoint) throws Throwable {
+        String method = joinPoint.getSignature().getName();
+        try (SqlStatistics statistics = SqlStatistics.open("OrderService." + method)) {
+            Object result = joinPoint.proceed();
+            reporter.report(statistics, "method", Tags.of("method", method));
+            return result;
+        }
+    }
+}
@@ -0,0 +1,8 @@
+package com.hotwax.monitoring;
+
+public class RepeatedStatementException extends RuntimeException {
+
+    public RepeatedStatementException(String message) {
+        super(message);
+    }
+}
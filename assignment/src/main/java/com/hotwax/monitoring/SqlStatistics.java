@@ -0,0 +1,127 @@
+package com.hotwax.monitoring;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * SQL statements, rows and JDBC time recorded on the current thread while a scope is open.
+ * Scopes nest (an HTTP request, the service methods it calls); every statement counts towards all
+ * scopes open on the thread. Work handed to other threads is not attributed.
+ */
+public final class SqlStatistics implements AutoCloseable {
+
+    private static final ThreadLocal<Deque<SqlStatistics>> OPEN = new ThreadLocal<>();
+
+    private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^']|'')*'");
+    private static final Pattern NUMBER_LITERAL = Pattern.compile("\\b\\d+\\b");
+    private static final Pattern PARAMETER_LIST = Pattern.compile("\\(\\s*\\?(?:\\s*,\\s*\\?)+\\s*\\)");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private final String name;
+    private final Map<String, Integer> statementsByShape = new HashMap<>();
+    private int statements;
+    private long rows;
+    private long jdbcNanos;
+
+    private SqlStatistics(String name) {
+        this.name = name;
+    }
+
+    public static SqlStatistics open(String name) {
+        SqlStatistics statistics = new SqlStatistics(name);
+        Deque<SqlStatistics> open = OPEN.get();
+        if (open == null) {
+            open = new ArrayDeque<>();
+            OPEN.set(open);
+        }
+        open.push(statistics);
+        return statistics;
+    }
+
+    static void recordStatement(String sql, long nanos) {
+        Deque<SqlStatistics> open = OPEN.get();
+        if (open == null) {
+            return;
+        }
+        String shape = shape(sql);
+        for (SqlStatistics statistics : open) {
+            statistics.statements++;
+            statistics.jdbcNanos += nanos;
+            statistics.statementsByShape.merge(shape, 1, Integer::sum);
+        }
+    }
+
+    static void recordFetch(boolean row, long nanos) {
+        Deque<SqlStatistics> open = OPEN.get();
+        if (open == null) {
+            return;
+        }
+        for (SqlStatistics statistics : open) {
+            if (row) {
+                statistics.rows++;
+            }
+            statistics.jdbcNanos += nanos;
+        }
+    }
+
+    /** Reduces a statement to its shape: literals and IN-lists collapsed, whitespace normalized. */
+    static String shape(String sql) {
+        if (sql == null) {
+            return "<batch>";
+        }
+        String shape = STRING_LITERAL.matcher(sql).replaceAll("?");
+        shape = NUMBER_LITERAL.matcher(shape).replaceAll("?");
+        shape = PARAMETER_LIST.matcher(shape).replaceAll("(?...)");
+        return WHITESPACE.matcher(shape).replaceAll(" ").trim();
+    }
+
+    public String name() {
+        return name;
+    }
+
+    public int statements() {
+        return statements;
+    }
+
+    public long rows() {
+        return rows;
+    }
+
+    public Duration jdbcTime() {
+        return Duration.ofNanos(jdbcNanos);
+    }
+
+    public Map<String, Integer> statementsByShape() {
+        return Collections.unmodifiableMap(statementsByShape);
+    }
+
+    /** Statement shapes executed more than {@code threshold} times in this scope. */
+    public Map<String, Integer> repeatedStatements(int threshold) {
+        Map<String, Integer> repeated = new LinkedHashMap<>();
+        statementsByShape.forEach((shape, count) -> {
+            if (count > threshold) {
+                repeated.put(shape, count);
+            }
+        });
+        return repeated;
+    }
+
+    @Override
+    public void close() {
+        Deque<SqlStatistics> open = OPEN.get();
+        if (open != null && open.remove(this) && open.isEmpty()) {
+            OPEN.remove();
+        }
+    }
+
+    @Override
+    public String toString() {
+        return name + ": " + statements + " statements, " + rows + " rows, " + jdbcTime().toMillis() + " ms in JDBC";
+    }
+}
@@ -0,0 +1,67 @@
+package com.hotwax.monitoring;
+
+import io.micrometer.core.instrument.Tags;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.security.web.util.OnCommittedResponseWrapper;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+/**
+ * Opens a {@link SqlStatistics} scope around each request and reports it tagged with the matched
+ * route. With {@code responseHeader} the counts are also sent as X-SQL-* headers, written when
+ * the response commits (or at the end for bodiless responses).
+ */
+public class SqlStatisticsFilter extends OncePerRequestFilter {
+
+    private final SqlStatisticsReporter reporter;
+    private final boolean responseHeader;
+
+    public SqlStatisticsFilter(SqlStatisticsReporter reporter, boolean responseHeader) {
+        this.reporter = reporter;
+        this.responseHeader = responseHeader;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        SqlStatistics statistics = SqlStatistics.open(request.getMethod() + " " + request.getRequestURI());
+        try {
+            filterChain.doFilter(request, responseHeader ? new HeaderWritingResponse(response, statistics) : response);
+        } finally {
+            statistics.close();
+            if (responseHeader && !response.isCommitted()) {
+                writeHeaders(response, statistics);
+            }
+        }
+        Object route = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        reporter.report(statistics, "request", Tags.of(
+                "method", request.getMethod(),
+                "uri", route != null ? route.toString() : "UNKNOWN"));
+    }
+
+    private static void writeHeaders(HttpServletResponse response, SqlStatistics statistics) {
+        response.setHeader("X-SQL-Statements", String.valueOf(statistics.statements()));
+        response.setHeader("X-SQL-Rows", String.valueOf(statistics.rows()));
+        response.setHeader("X-SQL-Time-Ms", String.valueOf(statistics.jdbcTime().toMillis()));
+    }
+
+    private static final class HeaderWritingResponse extends OnCommittedResponseWrapper {
+
+        private final SqlStatistics statistics;
+
+        HeaderWritingResponse(HttpServletResponse response, SqlStatistics statistics) {
+            super(response);
+            this.statistics = statistics;
+        }
+
+        @Override
+        protected void onResponseCommitted() {
+            writeHeaders((HttpServletResponse) getResponse(), statistics);
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.hotwax.monitoring;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Map;
+
+/**
+ * Publishes a closed {@link SqlStatistics} scope as metrics and runs the N+1 check: a scope that
+ * executed one statement shape more than {@code repeatThreshold} times is logged, or fails with
+ * {@link RepeatedStatementException} when the action is {@link RepeatAction#FAIL} (used in tests).
+ */
+public class SqlStatisticsReporter {
+
+    private static final Logger log = LoggerFactory.getLogger(SqlStatisticsReporter.class);
+
+    public enum RepeatAction { LOG, FAIL }
+
+    private final MeterRegistry meterRegistry;
+    private final int repeatThreshold;
+    private final RepeatAction repeatAction;
+
+    public SqlStatisticsReporter(MeterRegistry meterRegistry, int repeatThreshold, RepeatAction repeatAction) {
+        this.meterRegistry = meterRegistry;
+        this.repeatThreshold = repeatThreshold;
+        this.repeatAction = repeatAction;
+    }
+
+    public void report(SqlStatistics statistics, String scope, Tags tags) {
+        DistributionSummary.builder("sql." + scope + ".statements")
+                .description("SQL statements executed per " + scope)
+                .tags(tags)
+                .register(meterRegistry)
+                .record(statistics.statements());
+        DistributionSummary.builder("sql." + scope + ".rows")
+                .description("Result-set rows fetched per " + scope)
+                .tags(tags)
+                .register(meterRegistry)
+                .record(statistics.rows());
+        Timer.builder("sql." + scope + ".jdbc.time")
+                .description("Time spent in JDBC calls per " + scope)
+                .tags(tags)
+                .register(meterRegistry)
+                .record(statistics.jdbcTime());
+
+        Map<String, Integer> repeated = statistics.repeatedStatements(repeatThreshold);
+        if (repeated.isEmpty()) {
+            return;
+        }
+        Counter.builder("sql.repeated.statements")
+                .description("Scopes that ran one statement shape more often than the repeat threshold")
+                .tags(tags.and("scope", scope))
+                .register(meterRegistry)
+                .increment();
+        String message = "Possible N+1 in " + statistics.name() + ": statements repeated more than "
+                + repeatThreshold + " times " + repeated;
+        if (repeatAction == RepeatAction.FAIL) {
+            throw new RepeatedStatementException(message);
+        }
+        log.warn(message);
+    }
+}
@@ -2,8 +2,16 @@ package com.hotwax.repository;
 
 import com.hotwax.model.ContactMech;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
+
 @Repository
 public interface ContactMechRepository extends JpaRepository<ContactMech, Integer> {
+
+    @Query("select c.contactMechId from ContactMech c where c.contactMechId in :ids")
+    List<Integer> findExistingIds(@Param("ids") Collection<Integer> ids);
 }
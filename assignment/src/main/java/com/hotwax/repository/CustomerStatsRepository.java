@@ -0,0 +1,87 @@
+package com.hotwax.repository;
+
+import com.hotwax.model.CustomerStats;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface CustomerStatsRepository extends JpaRepository<CustomerStats, Integer> {
+
+    @Modifying
+    @Query("""
+            update CustomerStats s
+            set s.orderCount = s.orderCount + :orders, s.itemQuantity = s.itemQuantity + :quantity,
+                s.lastOrderDate = case when s.lastOrderDate is null or s.lastOrderDate < :orderDate
+                                       then :orderDate else s.lastOrderDate end
+            where s.customerId = :customerId
+            """)
+    int addOrders(@Param("customerId") Integer customerId, @Param("orders") long orders,
+                  @Param("quantity") long quantity, @Param("orderDate") LocalDate orderDate);
+
+    /** Run after the orders' headers are deleted, so the last order date is taken from what is left. */
+    @Modifying
+    @Query("""
+            update CustomerStats s
+            set s.orderCount = s.orderCount - :orders, s.itemQuantity = s.itemQuantity - :quantity,
+                s.lastOrderDate = (select max(o.orderDate) from OrderHeader o where o.customer.customerId = :customerId)
+            where s.customerId = :customerId
+            """)
+    int removeOrders(@Param("customerId") Integer customerId, @Param("orders") long orders,
+                     @Param("quantity") long quantity);
+
+    @Modifying
+    @Query("update CustomerStats s set s.itemQuantity = s.itemQuantity + :quantity where s.customerId = :customerId")
+    int addQuantity(@Param("customerId") Integer customerId, @Param("quantity") long quantity);
+
+    @Modifying
+    @Query("""
+            insert into CustomerStats (customerId, orderCount, itemQuantity)
+            values (:customerId, 0, 0)
+            on conflict do nothing
+            """)
+    int insertEmpty(@Param("customerId") Integer customerId);
+
+    @Modifying
+    @Query("""
+            insert into CustomerStats (customerId, orderCount, itemQuantity, lastOrderDate)
+            select c.customerId, count(distinct o.orderId), coalesce(sum(i.quantity), 0), max(o.orderDate)
+            from Customer c
+            left join OrderHeader o on o.customer = c
+            left join OrderItem i on i.orderId = o.orderId
+            where c.customerId in :customerIds
+            group by c.customerId
+            """)
+    int insertComputed(@Param("customerIds") Collection<Integer> customerIds);
+
+    @Query("select s.customerId from CustomerStats s order by s.customerId")
+    List<Integer> findCustomerIdsWithStats(Limit limit);
+
+    @Query("select o.orderId from OrderHeader o order by o.orderId")
+    List<Integer> findOrderIds(Limit limit);
+
+    @Query("select c.customerId from Customer c where c.customerId > :after order by c.customerId")
+    List<Integer> findCustomerIdsAfter(@Param("after") Integer after, Limit limit);
+
+    @Query("""
+            select c.customerId from Customer c
+            where c.customerId > :after and not exists (select s.customerId from CustomerStats s where s.customerId = c.customerId)
+            order by c.customerId
+            """)
+    List<Integer> findCustomerIdsWithoutStatsAfter(@Param("after") Integer after, Limit limit);
+
+    @Modifying
+    @Query("delete from CustomerStats s where s.customerId > :after and s.customerId <= :upTo")
+    int deleteRange(@Param("after") Integer after, @Param("upTo") Integer upTo);
+
+    @Modifying
+    @Query("delete from CustomerStats s where s.customerId > :after")
+    int deleteAfter(@Param("after") Integer after);
+}
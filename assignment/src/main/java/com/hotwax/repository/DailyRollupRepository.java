@@ -0,0 +1,35 @@
+package com.hotwax.repository;
+
+import com.hotwax.dto.DailyItemCountDTO;
+import com.hotwax.dto.DailyOrderCountDTO;
+import com.hotwax.model.DailyOrderRollup;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface DailyRollupRepository extends JpaRepository<DailyOrderRollup, LocalDate> {
+
+    @Query("""
+            select new com.hotwax.dto.DailyOrderCountDTO(r.orderDate, r.orderCount)
+            from DailyOrderRollup r
+            where r.orderDate between :from and :to and r.orderCount <> 0
+            order by r.orderDate
+            """)
+    List<DailyOrderCountDTO> findOrderCounts(@Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    @Query("""
+            select new com.hotwax.dto.DailyItemCountDTO(r.id.orderDate, r.id.productId, r.id.status, r.itemCount, r.quantity)
+            from DailyItemRollup r
+            where r.id.orderDate between :from and :to and r.itemCount <> 0
+              and (:productId is null or r.id.productId = :productId)
+              and (:status is null or r.id.status = :status)
+            order by r.id.orderDate, r.id.productId, r.id.status
+            """)
+    List<DailyItemCountDTO> findItemCounts(@Param("from") LocalDate from, @Param("to") LocalDate to,
+                                           @Param("productId") Integer productId, @Param("status") String status);
+}
@@ -0,0 +1,36 @@
+package com.hotwax.repository;
+
+import com.hotwax.model.OrderHeaderArchive;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+
+/** Set-based copies of live orders into the archive tables. */
+@Repository
+public interface OrderArchiveRepository extends JpaRepository<OrderHeaderArchive, Integer> {
+
+    @Modifying
+    @Query("""
+            insert into OrderHeaderArchive (orderId, orderDate, customerId, shippingContactMechId, billingContactMechId,
+                                            version, archivedAt)
+            select o.orderId, o.orderDate, o.customer.customerId, o.shippingContactMech.contactMechId,
+                   o.billingContactMech.contactMechId, o.version, :archivedAt
+            from OrderHeader o
+            where o.orderId in :orderIds
+            """)
+    int archiveHeaders(@Param("orderIds") Collection<Integer> orderIds, @Param("archivedAt") LocalDateTime archivedAt);
+
+    @Modifying
+    @Query("""
+            insert into OrderItemArchive (orderItemSeqId, orderId, productId, quantity, status, version, archivedAt)
+            select i.orderItemSeqId, i.orderId, i.product.productId, i.quantity, i.status, i.version, :archivedAt
+            from OrderItem i
+            where i.orderId in :orderIds
+            """)
+    int archiveItems(@Param("orderIds") Collection<Integer> orderIds, @Param("archivedAt") LocalDateTime archivedAt);
+}
@@ -1,9 +1,95 @@
 package com.hotwax.repository;
 
+import com.hotwax.model.ContactMech;
 import com.hotwax.model.OrderHeader;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
 @Repository
 public interface OrderHeaderRepository extends JpaRepository<OrderHeader, Integer> {
+
+    /** Flat order rows, one per item, for building response DTOs without loading entities. */
+    String ORDER_ROWS = """
+            select o.orderId, o.orderDate, c.customerId, c.firstName, c.lastName,
+                   o.shippingContactMech.contactMechId, o.billingContactMech.contactMechId,
+                   i.orderItemSeqId, p.productId, p.productName, i.quantity, i.status, o.version
+            from OrderHeader o
+            join o.customer c
+            left join OrderItem i on i.orderId = o.orderId
+            left join i.product p
+            """;
+
+    @Query("select o.orderId from OrderHeader o where o.orderId > :after order by o.orderId")
+    List<Integer> findIdsAfter(@Param("after") Integer after, Limit limit);
+
+    @Query("""
+            select o.orderId from OrderHeader o
+            where o.orderId > :after and not exists (select s.orderId from OrderSummary s where s.orderId = o.orderId)
+            order by o.orderId
+            """)
+    List<Integer> findIdsWithoutSummaryAfter(@Param("after") Integer after, Limit limit);
+
+    @Query("select o.orderId from OrderHeader o where o.customer.customerId = :customerId and o.orderId > :after order by o.orderId")
+    List<Integer> findIdsByCustomerAfter(@Param("customerId") Integer customerId, @Param("after") Integer after, Limit limit);
+
+    /** {@code (orderId, orderDate)} of the customer's orders, newest first. */
+    @Query("""
+            select o.orderId, o.orderDate from OrderHeader o
+            where o.customer.customerId = :customerId
+            order by o.orderDate desc, o.orderId desc
+            """)
+    List<Object[]> findKeysByCustomer(@Param("customerId") Integer customerId, Limit limit);
+
+    @Query("""
+            select o.orderId, o.orderDate from OrderHeader o
+            where o.customer.customerId = :customerId
+              and o.orderDate <= :orderDate and (o.orderDate < :orderDate or o.orderId < :orderId)
+            order by o.orderDate desc, o.orderId desc
+            """)
+    List<Object[]> findKeysByCustomerBefore(@Param("customerId") Integer customerId, @Param("orderDate") LocalDate orderDate,
+                                            @Param("orderId") Integer orderId, Limit limit);
+
+    @Query("select o.orderId from OrderHeader o where o.orderDate < :before and o.orderId > :after order by o.orderId")
+    List<Integer> findIdsOrderedBefore(@Param("before") LocalDate before, @Param("after") Integer after, Limit limit);
+
+    @Query(ORDER_ROWS + "where o.orderId = :orderId order by i.orderItemSeqId")
+    List<Object[]> findRowsByOrderId(@Param("orderId") Integer orderId);
+
+    @Query(ORDER_ROWS + "where o.orderId in :orderIds order by o.orderId, i.orderItemSeqId")
+    List<Object[]> findRowsByOrderIdIn(@Param("orderIds") Collection<Integer> orderIds);
+
+    @Modifying
+    @Query("""
+            update OrderHeader o
+            set o.shippingContactMech = :shippingContactMech, o.billingContactMech = :billingContactMech,
+                o.version = o.version + 1
+            where o.orderId = :orderId and o.version = :version
+            """)
+    int updateContactMechs(@Param("orderId") Integer orderId, @Param("version") Long version,
+                           @Param("shippingContactMech") ContactMech shippingContactMech,
+                           @Param("billingContactMech") ContactMech billingContactMech);
+
+    @Modifying
+    @Query("update OrderHeader o set o.version = o.version + 1 where o.orderId = :orderId and o.version = :version")
+    int incrementVersion(@Param("orderId") Integer orderId, @Param("version") Long version);
+
+    @Modifying
+    @Query("update OrderHeader o set o.version = o.version + 1 where o.orderId in :orderIds")
+    int incrementVersions(@Param("orderIds") Collection<Integer> orderIds);
+
+    @Modifying
+    @Query("delete from OrderHeader o where o.orderId = :orderId")
+    int deleteByIdInBulk(@Param("orderId") Integer orderId);
+
+    @Modifying
+    @Query("delete from OrderHeader o where o.orderId in :orderIds")
+    int deleteByOrderIdIn(@Param("orderIds") Collection<Integer> orderIds);
 }
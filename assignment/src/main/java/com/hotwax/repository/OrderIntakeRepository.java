@@ -0,0 +1,16 @@
+package com.hotwax.repository;
+
+import com.hotwax.model.OrderIntake;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface OrderIntakeRepository extends JpaRepository<OrderIntake, String> {
+
+    @Query("select max(i.logOffset) from OrderIntake i where i.logId = :logId")
+    Optional<Long> findCommittedOffset(@Param("logId") String logId);
+}
@@ -1,14 +1,43 @@
 package com.hotwax.repository;
 
 import com.hotwax.model.OrderItem;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface OrderItemRepository extends JpaRepository<OrderItem, Integer> {
-    List<OrderItem> findByOrderId(Integer orderId);
-    Optional<OrderItem> findByOrderItemSeqIdAndOrderId(Integer orderItemSeqId, Integer orderId);
-    void deleteByOrderItemSeqIdAndOrderId(Integer orderItemSeqId, Integer orderId);
+    @Query("select i from OrderItem i join fetch i.product where i.orderItemSeqId = :orderItemSeqId and i.orderId = :orderId")
+    Optional<OrderItem> findByOrderItemSeqIdAndOrderId(@Param("orderItemSeqId") Integer orderItemSeqId, @Param("orderId") Integer orderId);
+
+    @Query("select distinct i.orderId from OrderItem i where i.product.productId = :productId and i.orderId > :after order by i.orderId")
+    List<Integer> findOrderIdsByProductIdAfter(@Param("productId") Integer productId, @Param("after") Integer after, Limit limit);
+
+    @Modifying
+    @Query("""
+            update OrderItem i
+            set i.quantity = coalesce(:quantity, i.quantity), i.status = coalesce(:status, i.status),
+                i.version = i.version + 1
+            where i.orderItemSeqId = :orderItemSeqId and i.orderId = :orderId
+            """)
+    int updateInBulk(@Param("orderItemSeqId") Integer orderItemSeqId, @Param("orderId") Integer orderId,
+                     @Param("quantity") Integer quantity, @Param("status") String status);
+
+    @Modifying
+    @Query("delete from OrderItem i where i.orderItemSeqId = :orderItemSeqId and i.orderId = :orderId")
+    int deleteByOrderItemSeqIdAndOrderId(@Param("orderItemSeqId") Integer orderItemSeqId, @Param("orderId") Integer orderId);
+
+    @Modifying
+    @Query("delete from OrderItem i where i.orderId = :orderId")
+    int deleteByOrderId(@Param("orderId") Integer orderId);
+
+    @Modifying
+    @Query("delete from OrderItem i where i.orderId in :orderIds")
+    int deleteByOrderIdIn(@Param("orderIds") Collection<Integer> orderIds);
 }
@@ -0,0 +1,77 @@
+package com.hotwax.repository;
+
+import com.hotwax.dto.OrderResponseDTO;
+import com.hotwax.model.OrderSummary;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+@Repository
+public interface OrderSummaryRepository extends JpaRepository<OrderSummary, Integer> {
+
+    String ORDER_RESPONSE = """
+            select new com.hotwax.dto.OrderResponseDTO(s.orderId, s.orderDate, s.customerId, s.customerName,
+                   s.shippingContactMechId, s.billingContactMechId, s.orderItems, s.version)
+            from OrderSummary s
+            """;
+
+    @Query(ORDER_RESPONSE + "where s.orderId = :orderId")
+    Optional<OrderResponseDTO> findResponseById(@Param("orderId") Integer orderId);
+
+    @Query(ORDER_RESPONSE + "where s.orderId in :orderIds")
+    List<OrderResponseDTO> findResponsesByIdIn(@Param("orderIds") Collection<Integer> orderIds);
+
+    /** The responses of the given orders, in the order of the IDs. */
+    default List<OrderResponseDTO> findResponsesInOrder(List<Integer> orderIds) {
+        if (orderIds.isEmpty()) {
+            return List.of();
+        }
+        Map<Integer, Integer> position = new HashMap<>();
+        orderIds.forEach(orderId -> position.put(orderId, position.size()));
+        return findResponsesByIdIn(orderIds).stream()
+                .sorted(Comparator.comparing(order -> position.get(order.getOrderId())))
+                .toList();
+    }
+
+    @Query(ORDER_RESPONSE + "where s.orderId > :after order by s.orderId")
+    List<OrderResponseDTO> findResponsesAfter(@Param("after") Integer after, Limit limit);
+
+    @Query("select s.orderId from OrderSummary s order by s.orderId")
+    List<Integer> findIds(Limit limit);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select s from OrderSummary s where s.orderId = :orderId")
+    Optional<OrderSummary> findForUpdate(@Param("orderId") Integer orderId);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select s from OrderSummary s where s.orderId in :orderIds order by s.orderId")
+    List<OrderSummary> findAllForUpdate(@Param("orderIds") Collection<Integer> orderIds);
+
+    @Modifying
+    @Query("delete from OrderSummary s where s.orderId = :orderId")
+    int deleteByIdInBulk(@Param("orderId") Integer orderId);
+
+    @Modifying
+    @Query("delete from OrderSummary s where s.orderId in :orderIds")
+    int deleteByOrderIdIn(@Param("orderIds") Collection<Integer> orderIds);
+
+    @Modifying
+    @Query("delete from OrderSummary s where s.orderId > :after and s.orderId <= :upTo")
+    int deleteRange(@Param("after") Integer after, @Param("upTo") Integer upTo);
+
+    @Modifying
+    @Query("delete from OrderSummary s where s.orderId > :after")
+    int deleteAfter(@Param("after") Integer after);
+}
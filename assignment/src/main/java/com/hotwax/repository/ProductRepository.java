@@ -2,8 +2,16 @@ package com.hotwax.repository;
 
 import com.hotwax.model.Product;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
+
 @Repository
-public interface ProductRepository extends JpaRepository<Product, Integer> {
+public interface ProductRepository extends JpaRepository<Product, Integer>, ProductRepositoryCustom {
+
+    @Query("select p.productId from Product p where p.productId in :ids")
+    List<Integer> findExistingIds(@Param("ids") Collection<Integer> ids);
 }
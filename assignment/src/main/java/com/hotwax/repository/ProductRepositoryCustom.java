@@ -0,0 +1,15 @@
+package com.hotwax.repository;
+
+import com.hotwax.model.Product;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface ProductRepositoryCustom {
+
+    /**
+     * Loads the products with the given IDs, serving what it can from the persistence context and
+     * the second-level cache and fetching only the rest in one query. Unknown IDs are skipped.
+     */
+    List<Product> multiLoad(Collection<Integer> ids);
+}
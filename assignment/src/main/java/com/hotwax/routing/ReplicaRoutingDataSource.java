@@ -0,0 +1,188 @@
+package com.hotwax.routing;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Sends read-only transactions to replicas and everything else to the primary. Connections are
+ * fetched lazily, on first use, by which time the transaction manager has marked a read-only
+ * transaction's connection read-only; those come from the replica side.
+ * <p>
+ * Replicas take turns. A replica whose connection fails is ejected at once, and a background check
+ * every {@code healthCheckInterval} ejects unresponsive replicas and re-admits recovered ones. With
+ * no healthy replica, reads go to the primary. After an authenticated user's write transaction,
+ * that user's reads go to the primary for {@code readYourWritesWindow}, so a client re-reading what
+ * it just changed never sees a replica that has not caught up yet. The window is kept per
+ * application instance.
+ */
+public class ReplicaRoutingDataSource extends LazyConnectionDataSourceProxy implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(ReplicaRoutingDataSource.class);
+
+    private static final int VALIDATION_TIMEOUT_SECONDS = 2;
+
+    private static final class Replica {
+        final HikariDataSource dataSource;
+        final Counter reads;
+        volatile boolean healthy = true;
+
+        Replica(HikariDataSource dataSource, Counter reads) {
+            this.dataSource = dataSource;
+            this.reads = reads;
+        }
+    }
+
+    private final HikariDataSource primary;
+    private final List<Replica> replicas;
+    private final Cache<String, Boolean> recentWriters;
+    private final Counter primaryReads;
+    private final AtomicInteger next = new AtomicInteger();
+    private final ScheduledExecutorService healthCheck =
+            Executors.newSingleThreadScheduledExecutor(new CustomizableThreadFactory("replica-health-"));
+
+    public ReplicaRoutingDataSource(HikariDataSource primary, List<HikariDataSource> replicas,
+                                    Duration readYourWritesWindow, Duration healthCheckInterval,
+                                    MeterRegistry meterRegistry) {
+        this.primary = primary;
+        this.replicas = replicas.stream()
+                .map(replica -> new Replica(replica, readCounter(meterRegistry, replica.getPoolName())))
+                .toList();
+        this.recentWriters = Caffeine.newBuilder().expireAfterWrite(readYourWritesWindow).build();
+        this.primaryReads = readCounter(meterRegistry, "primary");
+        Gauge.builder("db.replicas.healthy", this.replicas, list -> list.stream().filter(replica -> replica.healthy).count())
+                .description("Read replicas currently receiving reads")
+                .register(meterRegistry);
+
+        setTargetDataSource(new PrimaryDataSource());
+        setReadOnlyDataSource(new ReplicaDataSource());
+        healthCheck.scheduleWithFixedDelay(this::checkReplicas, 0, healthCheckInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void close() {
+        healthCheck.shutdownNow();
+        replicas.forEach(replica -> replica.dataSource.close());
+        primary.close();
+    }
+
+    private void checkReplicas() {
+        for (Replica replica : replicas) {
+            boolean healthy;
+            try (Connection connection = replica.dataSource.getConnection()) {
+                healthy = connection.isValid(VALIDATION_TIMEOUT_SECONDS);
+            } catch (SQLException e) {
+                healthy = false;
+            }
+            if (healthy && !replica.healthy) {
+                log.info("Replica {} is healthy again and receives reads", replica.dataSource.getPoolName());
+            }
+            if (healthy) {
+                replica.healthy = true;
+            } else {
+                eject(replica, null);
+            }
+        }
+    }
+
+    private void eject(Replica replica, SQLException cause) {
+        if (replica.healthy) {
+            replica.healthy = false;
+            log.warn("Replica {} ejected; its reads go elsewhere until it passes a health check",
+                    replica.dataSource.getPoolName(), cause);
+        }
+    }
+
+    private static Counter readCounter(MeterRegistry meterRegistry, String target) {
+        return Counter.builder("db.routing.reads")
+                .description("Read-only connections handed out, by the database serving them")
+                .tag("target", target)
+                .register(meterRegistry);
+    }
+
+    private static String currentUser() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication != null && authentication.isAuthenticated() && !(authentication instanceof AnonymousAuthenticationToken)
+                ? authentication.getName()
+                : null;
+    }
+
+    /** Connections for everything but read-only transactions; remembers who is writing. */
+    private final class PrimaryDataSource extends AbstractDataSource {
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            String user = currentUser();
+            if (user != null && TransactionSynchronizationManager.isActualTransactionActive()) {
+                recentWriters.put(user, Boolean.TRUE);
+                if (TransactionSynchronizationManager.isSynchronizationActive()) {
+                    // The window runs from the commit, however long the transaction took.
+                    TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                        @Override
+                        public void afterCommit() {
+                            recentWriters.put(user, Boolean.TRUE);
+                        }
+                    });
+                }
+            }
+            return primary.getConnection();
+        }
+
+        @Override
+        public Connection getConnection(String username, String password) throws SQLException {
+            return primary.getConnection(username, password);
+        }
+    }
+
+    private final class ReplicaDataSource extends AbstractDataSource {
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            String user = currentUser();
+            if (user == null || recentWriters.getIfPresent(user) == null) {
+                int start = next.getAndIncrement();
+                for (int i = 0; i < replicas.size(); i++) {
+                    Replica replica = replicas.get(Math.floorMod(start + i, replicas.size()));
+                    if (replica.healthy) {
+                        try {
+                            Connection connection = replica.dataSource.getConnection();
+                            replica.reads.increment();
+                            return connection;
+                        } catch (SQLException e) {
+                            eject(replica, e);
+                        }
+                    }
+                }
+            }
+            primaryReads.increment();
+            return primary.getConnection();
+        }
+
+        @Override
+        public Connection getConnection(String username, String password) throws SQLException {
+            throw new SQLException("Replica connections use the configured credentials");
+        }
+    }
+}
@@ -29,22 +29,19 @@ public class JwtFilter extends OncePerRequestFilter {
         
         String authorizationHeader = request.getHeader("Authorization");
 
-        String username = null;
-        String jwt = null;
-
-        if (authorizationHeader != null && authorizationHeader.startsWith("Bearer ")) {
-            jwt = authorizationHeader.substring(7);
+        if (authorizationHeader != null && authorizationHeader.startsWith("Bearer ")
+                && SecurityContextHolder.getContext().getAuthentication() == null) {
+            JwtUtil.VerifiedToken verified = null;
             try {
-                username = jwtUtil.extractUsername(jwt);
+                verified = jwtUtil.verify(authorizationHeader.substring(7));
             } catch (Exception e) {
-                logger.error("JWT extraction failed: " + e.getMessage());
+                logger.error("JWT verification failed: " + e.getMessage());
             }
-        }
 
-        if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            if (jwtUtil.validateToken(jwt, username)) {
+            if (verified != null && verified.username() != null) {
                 UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
-                        username, null, Collections.singletonList(new SimpleGrantedAuthority("ROLE_USER")));
+                        verified.username(), null,
+                        Collections.singletonList(new SimpleGrantedAuthority("ROLE_" + verified.role())));
                 authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
                 SecurityContextHolder.getContext().setAuthentication(authToken);
             }
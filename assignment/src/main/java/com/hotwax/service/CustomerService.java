@@ -0,0 +1,92 @@
+package com.hotwax.service;
+
+import com.hotwax.dto.CustomerOrdersDTO;
+import com.hotwax.dto.OrderResponseDTO;
+import com.hotwax.model.CustomerStats;
+import com.hotwax.repository.CustomerRepository;
+import com.hotwax.repository.CustomerStatsRepository;
+import com.hotwax.repository.OrderHeaderRepository;
+import com.hotwax.repository.OrderSummaryRepository;
+import jakarta.persistence.EntityNotFoundException;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+@Service
+@RequiredArgsConstructor
+public class CustomerService {
+    
+    private static final int MAX_PAGE_SIZE = 500;
+    
+    private final CustomerRepository customerRepository;
+    private final CustomerStatsRepository customerStatsRepository;
+    private final OrderHeaderRepository orderHeaderRepository;
+    private final OrderSummaryRepository orderSummaryRepository;
+    
+    /**
+     * The customer's aggregates and one page of their orders, newest first. Order keys come from the
+     * {@code (customer_id, order_date)} index on {@code order_header}, which also gives the next
+     * cursor; the orders are read from their summaries.
+     */
+    @Transactional(readOnly = true)
+    public CustomerOrdersDTO getOrders(Integer customerId, String after, int limit) {
+        if (limit < 1) {
+            throw new IllegalStateException("Limit must be positive");
+        }
+        int pageSize = Math.min(limit, MAX_PAGE_SIZE);
+        CustomerStats stats = customerStatsRepository.findById(customerId).orElseGet(() -> emptyStats(customerId));
+        
+        List<Object[]> keys;
+        if (after == null) {
+            keys = orderHeaderRepository.findKeysByCustomer(customerId, Limit.of(pageSize + 1));
+        } else {
+            OrderCursor cursor = OrderCursor.parse(after);
+            keys = orderHeaderRepository.findKeysByCustomerBefore(customerId, cursor.orderDate(), cursor.orderId(),
+                    Limit.of(pageSize + 1));
+        }
+        boolean hasMore = keys.size() > pageSize;
+        if (hasMore) {
+            keys = keys.subList(0, pageSize);
+        }
+        List<OrderResponseDTO> orders = readOrders(keys.stream().map(key -> (Integer) key[0]).toList());
+        String nextCursor = null;
+        if (hasMore) {
+            Object[] last = keys.get(keys.size() - 1);
+            nextCursor = new OrderCursor((LocalDate) last[1], (Integer) last[0]).toString();
+        }
+        return new CustomerOrdersDTO(customerId, stats.getOrderCount(), stats.getItemQuantity(), stats.getLastOrderDate(),
+                orders, nextCursor);
+    }
+    
+    // An order whose summary is missing (not yet backfilled) is built from the normalized tables.
+    private List<OrderResponseDTO> readOrders(List<Integer> orderIds) {
+        List<OrderResponseDTO> orders = orderSummaryRepository.findResponsesInOrder(orderIds);
+        if (orders.size() == orderIds.size()) {
+            return orders;
+        }
+        Map<Integer, OrderResponseDTO> byId = new HashMap<>();
+        orders.forEach(order -> byId.put(order.getOrderId(), order));
+        List<Integer> missing = orderIds.stream().filter(orderId -> !byId.containsKey(orderId)).toList();
+        OrderRows.group(orderHeaderRepository.findRowsByOrderIdIn(missing)).forEach(order -> byId.put(order.getOrderId(), order));
+        return orderIds.stream().map(byId::get).filter(Objects::nonNull).toList();
+    }
+    
+    // Customers have no stats row until their first order, or until the backfill for older orders.
+    private CustomerStats emptyStats(Integer customerId) {
+        if (customerRepository.findById(customerId).isEmpty()) {
+            throw new EntityNotFoundException("Customer not found with ID: " + customerId);
+        }
+        CustomerStats stats = new CustomerStats();
+        stats.setCustomerId(customerId);
+        stats.setOrderCount(0L);
+        stats.setItemQuantity(0L);
+        return stats;
+    }
+}
@@ -0,0 +1,115 @@
+package com.hotwax.service;
+
+import com.hotwax.repository.CustomerStatsRepository;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.function.IntSupplier;
+
+/**
+ * Maintains {@link com.hotwax.model.CustomerStats}. Order writes report what they changed and the
+ * customer's row is adjusted with one relative UPDATE in the same transaction, so concurrent writes
+ * for the same customer add up instead of overwriting each other. Callers touching several
+ * customers in one transaction report them in customer ID order, keeping the row locks ordered.
+ * A customer gets a row on its first write, or from {@link #rebuildMissing()} for customers with
+ * orders from before the stats existed; until then it reads as no orders.
+ */
+@Service
+@RequiredArgsConstructor
+public class CustomerStatsService {
+
+    private static final Logger log = LoggerFactory.getLogger(CustomerStatsService.class);
+
+    private final CustomerStatsRepository customerStatsRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${customers.stats.chunk-size:1000}")
+    private int chunkSize;
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void ordersAdded(Integer customerId, int orders, long quantity, LocalDate lastOrderDate) {
+        apply(customerId, () -> customerStatsRepository.addOrders(customerId, orders, quantity, lastOrderDate));
+    }
+
+    /** Call after the orders are deleted. */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void ordersRemoved(Integer customerId, int orders, long quantity) {
+        apply(customerId, () -> customerStatsRepository.removeOrders(customerId, orders, quantity));
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void quantityChanged(Integer customerId, long delta) {
+        if (delta != 0) {
+            apply(customerId, () -> customerStatsRepository.addQuantity(customerId, delta));
+        }
+    }
+
+    private void apply(Integer customerId, IntSupplier update) {
+        if (update.getAsInt() == 0) {
+            customerStatsRepository.insertEmpty(customerId);
+            update.getAsInt();
+        }
+    }
+
+    /** Recomputes every customer's row from the order tables, one transaction per chunk of customers. */
+    public int rebuildAll() {
+        int rebuilt = 0;
+        int after = 0;
+        while (true) {
+            int from = after;
+            List<Integer> customerIds = transactionTemplate.execute(status -> {
+                List<Integer> chunk = customerStatsRepository.findCustomerIdsAfter(from, Limit.of(chunkSize));
+                if (chunk.isEmpty()) {
+                    customerStatsRepository.deleteAfter(from);
+                } else {
+                    customerStatsRepository.deleteRange(from, chunk.get(chunk.size() - 1));
+                    customerStatsRepository.insertComputed(chunk);
+                }
+                return chunk;
+            });
+            if (customerIds.isEmpty()) {
+                return rebuilt;
+            }
+            rebuilt += customerIds.size();
+            after = customerIds.get(customerIds.size() - 1);
+            log.info("Rebuilt {} customer stats (up to customer {})", rebuilt, after);
+        }
+    }
+
+    /** Whether there are orders but no rows, e.g. before the first backfill. */
+    @Transactional(readOnly = true)
+    public boolean needsBackfill() {
+        return customerStatsRepository.findCustomerIdsWithStats(Limit.of(1)).isEmpty()
+                && !customerStatsRepository.findOrderIds(Limit.of(1)).isEmpty();
+    }
+
+    /** Computes the rows of customers that have none, e.g. customers from before the stats existed. */
+    public int rebuildMissing() {
+        int rebuilt = 0;
+        int after = 0;
+        while (true) {
+            int from = after;
+            List<Integer> customerIds = transactionTemplate.execute(status -> {
+                List<Integer> chunk = customerStatsRepository.findCustomerIdsWithoutStatsAfter(from, Limit.of(chunkSize));
+                if (!chunk.isEmpty()) {
+                    customerStatsRepository.insertComputed(chunk);
+                }
+                return chunk;
+            });
+            if (customerIds.isEmpty()) {
+                return rebuilt;
+            }
+            rebuilt += customerIds.size();
+            after = customerIds.get(customerIds.size() - 1);
+        }
+    }
+}
@@ -0,0 +1,213 @@
+package com.hotwax.service;
+
+import com.hotwax.dto.ArchiveJobDTO;
+import com.hotwax.exception.ArchiveJobRunningException;
+import com.hotwax.model.OrderSummary;
+import com.hotwax.repository.OrderArchiveRepository;
+import com.hotwax.repository.OrderHeaderRepository;
+import com.hotwax.repository.OrderItemRepository;
+import com.hotwax.repository.OrderSummaryRepository;
+import jakarta.persistence.EntityNotFoundException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Moves orders older than a cutoff date into {@code order_header_archive}/{@code order_item_archive}
+ * (or just deletes them) on a background thread. Work is done in chunks of
+ * {@code orders.archive.chunk-size} orders, each committed on its own, with
+ * {@code orders.archive.pause} between chunks, so row locks are held only briefly and only on the
+ * orders being moved and live traffic keeps its share of the connection pool. One job runs at a
+ * time; progress is kept in memory for the most recent jobs.
+ */
+@Service
+public class OrderArchiveService implements DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(OrderArchiveService.class);
+
+    private static final int RETAINED_JOBS = 20;
+
+    private final TransactionTemplate transactionTemplate;
+    private final OrderHeaderRepository orderHeaderRepository;
+    private final OrderItemRepository orderItemRepository;
+    private final OrderSummaryRepository orderSummaryRepository;
+    private final OrderArchiveRepository orderArchiveRepository;
+    private final OrderSummaryService orderSummaryService;
+    private final CustomerStatsService customerStatsService;
+    private final OrderRollupService orderRollupService;
+    private final int chunkSize;
+    private final Duration pause;
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(new CustomizableThreadFactory("order-archive-"));
+    private final Map<String, Job> jobs = new LinkedHashMap<>() {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Job> eldest) {
+            return size() > RETAINED_JOBS;
+        }
+    };
+    private Job running;
+
+    public OrderArchiveService(TransactionTemplate transactionTemplate,
+                               OrderHeaderRepository orderHeaderRepository,
+                               OrderItemRepository orderItemRepository,
+                               OrderSummaryRepository orderSummaryRepository,
+                               OrderArchiveRepository orderArchiveRepository,
+                               OrderSummaryService orderSummaryService,
+                               CustomerStatsService customerStatsService,
+                               OrderRollupService orderRollupService,
+                               @Value("${orders.archive.chunk-size:500}") int chunkSize,
+                               @Value("${orders.archive.pause:200ms}") Duration pause) {
+        this.transactionTemplate = transactionTemplate;
+        this.orderHeaderRepository = orderHeaderRepository;
+        this.orderItemRepository = orderItemRepository;
+        this.orderSummaryRepository = orderSummaryRepository;
+        this.orderArchiveRepository = orderArchiveRepository;
+        this.orderSummaryService = orderSummaryService;
+        this.customerStatsService = customerStatsService;
+        this.orderRollupService = orderRollupService;
+        this.chunkSize = chunkSize;
+        this.pause = pause;
+    }
+
+    private static final class Job {
+        final String id = UUID.randomUUID().toString();
+        final LocalDate before;
+        final boolean purge;
+        final Instant startedAt = Instant.now();
+        volatile String state = "RUNNING";
+        volatile long orders;
+        volatile long items;
+        volatile int chunks;
+        volatile Instant finishedAt;
+        volatile String message;
+        volatile boolean cancelled;
+
+        Job(LocalDate before, boolean purge) {
+            this.before = before;
+            this.purge = purge;
+        }
+
+        ArchiveJobDTO toDTO() {
+            return new ArchiveJobDTO(id, before, purge, state, orders, items, chunks, startedAt, finishedAt, message);
+        }
+    }
+
+    private record Chunk(int lastOrderId, int orders, int items) {}
+
+    public synchronized ArchiveJobDTO start(LocalDate before, boolean purge) {
+        if (running != null) {
+            throw new ArchiveJobRunningException(running.id);
+        }
+        Job job = new Job(before, purge);
+        jobs.put(job.id, job);
+        running = job;
+        executor.execute(() -> run(job));
+        return job.toDTO();
+    }
+
+    public synchronized ArchiveJobDTO get(String jobId) {
+        return find(jobId).toDTO();
+    }
+
+    /** Stops the job after the chunk in progress; chunks already committed stay moved. */
+    public synchronized ArchiveJobDTO cancel(String jobId) {
+        Job job = find(jobId);
+        job.cancelled = true;
+        return job.toDTO();
+    }
+
+    private Job find(String jobId) {
+        Job job = jobs.get(jobId);
+        if (job == null) {
+            throw new EntityNotFoundException("Archive job not found with ID: " + jobId);
+        }
+        return job;
+    }
+
+    private void run(Job job) {
+        log.info("Archive job {} started: orders before {} ({})", job.id, job.before, job.purge ? "purge" : "archive");
+        int after = 0;
+        try {
+            while (!job.cancelled) {
+                int from = after;
+                Chunk chunk = transactionTemplate.execute(status -> moveChunk(job, from));
+                if (chunk == null) {
+                    break;
+                }
+                job.orders += chunk.orders();
+                job.items += chunk.items();
+                job.chunks++;
+                after = chunk.lastOrderId();
+                log.info("Archive job {}: {} orders, {} items moved", job.id, job.orders, job.items);
+                TimeUnit.NANOSECONDS.sleep(pause.toNanos());
+            }
+            finish(job, job.cancelled ? "CANCELLED" : "COMPLETED", null);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            finish(job, "CANCELLED", "Interrupted");
+        } catch (RuntimeException e) {
+            log.error("Archive job {} failed after {} orders", job.id, job.orders, e);
+            finish(job, "FAILED", e.getMessage());
+        }
+    }
+
+    private synchronized void finish(Job job, String state, String message) {
+        job.message = message;
+        job.finishedAt = Instant.now();
+        job.state = state;
+        running = null;
+        log.info("Archive job {} {}: {} orders, {} items in {} chunks", job.id, state.toLowerCase(), job.orders, job.items, job.chunks);
+    }
+
+    private Chunk moveChunk(Job job, int after) {
+        List<Integer> orderIds = orderHeaderRepository.findIdsOrderedBefore(job.before, after, Limit.of(chunkSize));
+        if (orderIds.isEmpty()) {
+            return null;
+        }
+        // Summary locks first, in order ID order, as every other order write takes them.
+        List<OrderSummary> summaries = orderSummaryService.lockAll(orderIds);
+        if (!job.purge) {
+            LocalDateTime archivedAt = LocalDateTime.now();
+            orderArchiveRepository.archiveHeaders(orderIds, archivedAt);
+            orderArchiveRepository.archiveItems(orderIds, archivedAt);
+        }
+        int items = orderItemRepository.deleteByOrderIdIn(orderIds);
+        orderSummaryRepository.deleteByOrderIdIn(orderIds);
+        int orders = orderHeaderRepository.deleteByOrderIdIn(orderIds);
+        summaries.stream()
+                .collect(Collectors.groupingBy(OrderSummary::getCustomerId, TreeMap::new, Collectors.toList()))
+                .forEach((customerId, customerOrders) -> customerStatsService.ordersRemoved(customerId, customerOrders.size(),
+                        customerOrders.stream().mapToLong(summary -> OrderService.totalQuantity(summary.getOrderItems())).sum()));
+        if (job.purge) {
+            // Archived orders stay in the rollups; purged ones leave the history.
+            OrderRollupService.Delta delta = new OrderRollupService.Delta();
+            summaries.forEach(summary -> delta.orderRemoved(summary.getOrderDate(), summary.getOrderItems()));
+            orderRollupService.apply(delta);
+        }
+        return new Chunk(orderIds.get(orderIds.size() - 1), orders, items);
+    }
+
+    @Override
+    public synchronized void destroy() {
+        jobs.values().forEach(job -> job.cancelled = true);
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,223 @@
+package com.hotwax.service;
+
+import com.hotwax.dto.OrderBatchResponseDTO;
+import com.hotwax.dto.OrderBatchResultDTO;
+import com.hotwax.dto.OrderItemDTO;
+import com.hotwax.dto.OrderRequestDTO;
+import com.hotwax.model.OrderHeader;
+import com.hotwax.model.OrderItem;
+import com.hotwax.repository.ContactMechRepository;
+import com.hotwax.repository.CustomerRepository;
+import com.hotwax.repository.ProductRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.id.IdentifierGenerator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Date;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+@Service
+@RequiredArgsConstructor
+public class OrderBatchService {
+
+    private static final int MAX_BATCH_SIZE = 5000;
+
+    private static final String INSERT_HEADER_SQL =
+            "insert into order_header (order_id, order_date, customer_id, shipping_contact_mech_id, billing_contact_mech_id, version) values (?, ?, ?, ?, ?, 0)";
+    private static final String INSERT_ITEM_SQL =
+            "insert into order_item (order_item_seq_id, order_id, product_id, quantity, status, version) values (?, ?, ?, ?, ?, 0)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final EntityManager entityManager;
+    private final Validator validator;
+    private final CustomerRepository customerRepository;
+    private final ContactMechRepository contactMechRepository;
+    private final ProductRepository productRepository;
+    private final OrderSummaryService orderSummaryService;
+    private final CustomerStatsService customerStatsService;
+    private final OrderRollupService orderRollupService;
+
+    @Value("${orders.batch.jdbc-batch-size:500}")
+    private int jdbcBatchSize;
+
+    @Transactional
+    public OrderBatchResponseDTO createOrders(List<OrderRequestDTO> requests) {
+        if (requests == null || requests.isEmpty()) {
+            throw new IllegalStateException("Batch must contain at least one order");
+        }
+        if (requests.size() > MAX_BATCH_SIZE) {
+            throw new IllegalStateException("Batch must not contain more than " + MAX_BATCH_SIZE + " orders");
+        }
+
+        OrderBatchResultDTO[] results = new OrderBatchResultDTO[requests.size()];
+        List<Integer> validIndexes = new ArrayList<>();
+        for (int i = 0; i < requests.size(); i++) {
+            String violations = validate(requests.get(i));
+            if (violations != null) {
+                results[i] = failed(i, violations);
+            } else {
+                validIndexes.add(i);
+            }
+        }
+
+        Set<Integer> customerIds = new HashSet<>();
+        Set<Integer> contactMechIds = new HashSet<>();
+        Set<Integer> productIds = new HashSet<>();
+        for (int i : validIndexes) {
+            OrderRequestDTO request = requests.get(i);
+            customerIds.add(request.getCustomerId());
+            contactMechIds.add(request.getShippingContactMechId());
+            contactMechIds.add(request.getBillingContactMechId());
+            request.getOrderItems().forEach(item -> productIds.add(item.getProductId()));
+        }
+        Set<Integer> existingCustomers = existingIds(customerIds, customerRepository::findExistingIds);
+        Set<Integer> existingContactMechs = existingIds(contactMechIds, contactMechRepository::findExistingIds);
+        Set<Integer> existingProducts = existingIds(productIds, productRepository::findExistingIds);
+
+        List<Integer> acceptedIndexes = new ArrayList<>();
+        for (int i : validIndexes) {
+            String missing = findMissingReference(requests.get(i), existingCustomers, existingContactMechs, existingProducts);
+            if (missing != null) {
+                results[i] = failed(i, missing);
+            } else {
+                acceptedIndexes.add(i);
+            }
+        }
+
+        List<OrderRequestDTO> accepted = acceptedIndexes.stream().map(requests::get).collect(Collectors.toList());
+        IdentifierGenerator orderIdGenerator = identifierGenerator(OrderHeader.class);
+        List<Integer> orderIds = new ArrayList<>(accepted.size());
+        for (int n = 0; n < accepted.size(); n++) {
+            orderIds.add(nextId(orderIdGenerator));
+        }
+        insertHeaders(accepted, orderIds);
+        insertItems(accepted, orderIds);
+        orderSummaryService.insert(orderIds);
+        updateCustomerStats(accepted);
+        updateRollups(accepted);
+
+        for (int n = 0; n < acceptedIndexes.size(); n++) {
+            int i = acceptedIndexes.get(n);
+            results[i] = new OrderBatchResultDTO(i, orderIds.get(n), "CREATED", null);
+        }
+        return new OrderBatchResponseDTO(acceptedIndexes.size(), requests.size() - acceptedIndexes.size(), Arrays.asList(results));
+    }
+
+    private String validate(OrderRequestDTO request) {
+        if (request == null) {
+            return "Order is required";
+        }
+        Set<ConstraintViolation<OrderRequestDTO>> violations = validator.validate(request);
+        if (violations.isEmpty()) {
+            return null;
+        }
+        return violations.stream()
+                .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                .sorted()
+                .collect(Collectors.joining("; "));
+    }
+
+    private Set<Integer> existingIds(Set<Integer> ids, Function<Set<Integer>, List<Integer>> finder) {
+        return ids.isEmpty() ? Set.of() : new HashSet<>(finder.apply(ids));
+    }
+
+    private String findMissingReference(OrderRequestDTO request, Set<Integer> customers,
+                                        Set<Integer> contactMechs, Set<Integer> products) {
+        if (!customers.contains(request.getCustomerId())) {
+            return "Customer not found with ID: " + request.getCustomerId();
+        }
+        if (!contactMechs.contains(request.getShippingContactMechId())) {
+            return "Shipping contact not found with ID: " + request.getShippingContactMechId();
+        }
+        if (!contactMechs.contains(request.getBillingContactMechId())) {
+            return "Billing contact not found with ID: " + request.getBillingContactMechId();
+        }
+        for (OrderItemDTO item : request.getOrderItems()) {
+            if (!products.contains(item.getProductId())) {
+                return "Product not found with ID: " + item.getProductId();
+            }
+        }
+        return null;
+    }
+
+    private IdentifierGenerator identifierGenerator(Class<?> entityType) {
+        SharedSessionContractImplementor session = entityManager.unwrap(SharedSessionContractImplementor.class);
+        return (IdentifierGenerator) session.getFactory().getMappingMetamodel()
+                .getEntityDescriptor(entityType)
+                .getGenerator();
+    }
+
+    private Integer nextId(IdentifierGenerator generator) {
+        return (Integer) generator.generate(entityManager.unwrap(SharedSessionContractImplementor.class), null);
+    }
+
+    private void insertHeaders(List<OrderRequestDTO> orders, List<Integer> orderIds) {
+        List<Integer> indexes = IntStream.range(0, orders.size()).boxed().collect(Collectors.toList());
+        jdbcTemplate.batchUpdate(INSERT_HEADER_SQL, indexes, jdbcBatchSize, (ps, n) -> {
+            OrderRequestDTO order = orders.get(n);
+            ps.setInt(1, orderIds.get(n));
+            ps.setDate(2, Date.valueOf(order.getOrderDate()));
+            ps.setInt(3, order.getCustomerId());
+            ps.setInt(4, order.getShippingContactMechId());
+            ps.setInt(5, order.getBillingContactMechId());
+        });
+    }
+
+    private void insertItems(List<OrderRequestDTO> orders, List<Integer> orderIds) {
+        IdentifierGenerator itemIdGenerator = identifierGenerator(OrderItem.class);
+        List<Object[]> rows = new ArrayList<>();
+        for (int n = 0; n < orders.size(); n++) {
+            for (OrderItemDTO item : orders.get(n).getOrderItems()) {
+                rows.add(new Object[]{nextId(itemIdGenerator), orderIds.get(n), item.getProductId(), item.getQuantity(), item.getStatus()});
+            }
+        }
+        jdbcTemplate.batchUpdate(INSERT_ITEM_SQL, rows, jdbcBatchSize, (ps, row) -> {
+            ps.setInt(1, (Integer) row[0]);
+            ps.setInt(2, (Integer) row[1]);
+            ps.setInt(3, (Integer) row[2]);
+            ps.setInt(4, (Integer) row[3]);
+            ps.setString(5, (String) row[4]);
+        });
+    }
+
+    private void updateCustomerStats(List<OrderRequestDTO> orders) {
+        Map<Integer, List<OrderRequestDTO>> byCustomer = orders.stream()
+                .collect(Collectors.groupingBy(OrderRequestDTO::getCustomerId, TreeMap::new, Collectors.toList()));
+        byCustomer.forEach((customerId, customerOrders) -> customerStatsService.ordersAdded(
+                customerId,
+                customerOrders.size(),
+                customerOrders.stream().flatMap(order -> order.getOrderItems().stream()).mapToLong(OrderItemDTO::getQuantity).sum(),
+                customerOrders.stream().map(OrderRequestDTO::getOrderDate).max(Comparator.naturalOrder()).orElseThrow()));
+    }
+
+    private void updateRollups(List<OrderRequestDTO> orders) {
+        OrderRollupService.Delta delta = new OrderRollupService.Delta();
+        for (OrderRequestDTO order : orders) {
+            delta.orders(order.getOrderDate(), 1);
+            order.getOrderItems().forEach(item ->
+                    delta.item(order.getOrderDate(), item.getProductId(), item.getStatus(), 1, item.getQuantity()));
+        }
+        orderRollupService.apply(delta);
+    }
+
+    private OrderBatchResultDTO failed(int index, String message) {
+        return new OrderBatchResultDTO(index, null, "FAILED", message);
+    }
+}
@@ -0,0 +1,22 @@
+package com.hotwax.service;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+
+/** Keyset position {@code (order_date, order_id)}, passed to clients as {@code "2025-01-31:1234"}. */
+record OrderCursor(LocalDate orderDate, int orderId) {
+
+    static OrderCursor parse(String cursor) {
+        String[] parts = cursor.split(":", 2);
+        try {
+            return new OrderCursor(LocalDate.parse(parts[0]), Integer.parseInt(parts[1]));
+        } catch (DateTimeParseException | ArrayIndexOutOfBoundsException | NumberFormatException e) {
+            throw new IllegalStateException("Invalid cursor: " + cursor);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return orderDate + ":" + orderId;
+    }
+}
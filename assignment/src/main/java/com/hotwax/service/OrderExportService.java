@@ -0,0 +1,82 @@
+package com.hotwax.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.hotwax.dto.OrderResponseDTO;
+import com.hotwax.repository.OrderHeaderRepository;
+import jakarta.persistence.EntityManager;
+import org.hibernate.CacheMode;
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
+import org.hibernate.Session;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.Duration;
+
+@Service
+public class OrderExportService {
+
+    private static final String EXPORT_QUERY = OrderHeaderRepository.ORDER_ROWS + "order by o.orderId, i.orderItemSeqId";
+
+    private final EntityManager entityManager;
+    private final ObjectWriter orderWriter;
+    private final int fetchSize;
+    private final Duration timeout;
+
+    public OrderExportService(EntityManager entityManager, ObjectMapper objectMapper,
+                              @Value("${orders.export.fetch-size:1000}") int fetchSize,
+                              @Value("${orders.export.timeout:1h}") Duration timeout) {
+        this.entityManager = entityManager;
+        this.orderWriter = objectMapper.writerFor(OrderResponseDTO.class)
+                .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        this.fetchSize = fetchSize;
+        this.timeout = timeout;
+    }
+
+    /** How long a streamed export may run; other async requests keep the server's default. */
+    public Duration getTimeout() {
+        return timeout;
+    }
+
+    @Transactional(readOnly = true)
+    public void exportOrders(OutputStream out) throws IOException {
+        Session session = entityManager.unwrap(Session.class);
+        try (ScrollableResults<Object[]> rows = session.createSelectionQuery(EXPORT_QUERY, Object[].class)
+                .setFetchSize(fetchSize)
+                .setReadOnly(true)
+                .setCacheMode(CacheMode.IGNORE)
+                .scroll(ScrollMode.FORWARD_ONLY)) {
+
+            OrderResponseDTO current = null;
+            long rowCount = 0;
+            while (rows.next()) {
+                Object[] row = rows.get();
+                if (!OrderRows.belongsTo(current, row)) {
+                    if (current != null) {
+                        writeLine(out, current);
+                    }
+                    current = OrderRows.newOrder(row);
+                }
+                OrderRows.addItem(current, row);
+                if (++rowCount % fetchSize == 0) {
+                    session.clear();
+                    out.flush();
+                }
+            }
+            if (current != null) {
+                writeLine(out, current);
+            }
+        }
+        out.flush();
+    }
+
+    private void writeLine(OutputStream out, OrderResponseDTO order) throws IOException {
+        orderWriter.writeValue(out, order);
+        out.write('\n');
+    }
+}
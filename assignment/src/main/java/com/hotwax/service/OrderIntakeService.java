@@ -0,0 +1,320 @@
+package com.hotwax.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hotwax.dto.OrderBatchResultDTO;
+import com.hotwax.dto.OrderIntakeStatusDTO;
+import com.hotwax.dto.OrderRequestDTO;
+import com.hotwax.exception.IntakeAppendTimeoutException;
+import com.hotwax.intake.OrderIntakeLog;
+import com.hotwax.repository.OrderIntakeRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityNotFoundException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.RecoverableDataAccessException;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Asynchronous order intake, enabled with {@code orders.intake.enabled}. {@link #submit} appends the
+ * validated order to the local {@link OrderIntakeLog} and returns once it is on disk, without
+ * touching the database, or answers 503 with the tracking ID to poll if that takes longer than
+ * {@code orders.intake.append-timeout}. A background thread reads the log in order, up to
+ * {@code orders.intake.batch-size} orders at a time, and writes each batch through
+ * {@link OrderBatchService} together with an {@code order_intake} row per order in one transaction.
+ * Those rows hold each order's outcome for status polling and the log offset reached. After a
+ * restart, reading resumes just past the highest committed offset, so every accepted order is
+ * written exactly once. While the database is unreachable the batch is retried every
+ * {@code orders.intake.retry-backoff}; a batch that fails otherwise is retried one order at a time
+ * and the orders that still fail are recorded as FAILED.
+ */
+@Service
+@ConditionalOnProperty(name = "orders.intake.enabled", havingValue = "true")
+public class OrderIntakeService implements InitializingBean, DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(OrderIntakeService.class);
+
+    private static final String INSERT_OUTCOME_SQL = "insert into order_intake "
+            + "(tracking_id, log_id, log_offset, state, order_id, message, processed_at) values (?, ?, ?, ?, ?, ?, ?)";
+
+    private static final int MAX_MESSAGE_LENGTH = 1000;
+
+    record IntakeRecord(String trackingId, OrderRequestDTO order) {}
+
+    private record Accepted(long nextOffset, String trackingId, OrderRequestDTO order, String error) {}
+
+    private final OrderBatchService orderBatchService;
+    private final OrderWriteLimiter orderWriteLimiter;
+    private final OrderIntakeRepository orderIntakeRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+    private final Path directory;
+    private final DataSize segmentSize;
+    private final int queueCapacity;
+    private final int batchSize;
+    private final Duration retryBackoff;
+    private final Duration appendTimeout;
+    private final Set<String> pending = ConcurrentHashMap.newKeySet();
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(new CustomizableThreadFactory("order-intake-"));
+
+    private OrderIntakeLog intakeLog;
+    private volatile boolean stopping;
+
+    public OrderIntakeService(OrderBatchService orderBatchService,
+                              OrderWriteLimiter orderWriteLimiter,
+                              OrderIntakeRepository orderIntakeRepository,
+                              JdbcTemplate jdbcTemplate,
+                              TransactionTemplate transactionTemplate,
+                              ObjectMapper objectMapper,
+                              MeterRegistry meterRegistry,
+                              @Value("${orders.intake.dir:data/intake}") Path directory,
+                              @Value("${orders.intake.segment-size:64MB}") DataSize segmentSize,
+                              @Value("${orders.intake.queue-capacity:10000}") int queueCapacity,
+                              @Value("${orders.intake.batch-size:500}") int batchSize,
+                              @Value("${orders.intake.retry-backoff:1s}") Duration retryBackoff,
+                              @Value("${orders.intake.append-timeout:5s}") Duration appendTimeout) {
+        this.orderBatchService = orderBatchService;
+        this.orderWriteLimiter = orderWriteLimiter;
+        this.orderIntakeRepository = orderIntakeRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        this.queueCapacity = queueCapacity;
+        this.batchSize = batchSize;
+        this.retryBackoff = retryBackoff;
+        this.appendTimeout = appendTimeout;
+    }
+
+    @Override
+    public void afterPropertiesSet() throws IOException, InterruptedException {
+        intakeLog = openLog();
+        long committed = Math.max(orderIntakeRepository.findCommittedOffset(intakeLog.logId()).orElse(0L), intakeLog.startOffset());
+        for (List<OrderIntakeLog.Entry> entries = intakeLog.read(committed, batchSize, 0, TimeUnit.MILLISECONDS);
+             !entries.isEmpty();
+             entries = intakeLog.read(entries.get(entries.size() - 1).nextOffset(), batchSize, 0, TimeUnit.MILLISECONDS)) {
+            entries.forEach(entry -> pending.add(decode(entry).trackingId()));
+        }
+        if (!pending.isEmpty()) {
+            log.info("Order intake: replaying {} accepted orders from {} (offset {})", pending.size(), directory, committed);
+        }
+        Gauge.builder("orders.intake.pending", pending, Set::size)
+                .description("Orders accepted into the intake log and not yet written to the database")
+                .register(meterRegistry);
+        executor.execute(() -> drain(committed));
+    }
+
+    /** Durably accepts the order for writing; the returned tracking ID can be polled with {@link #get}. */
+    public OrderIntakeStatusDTO submit(OrderRequestDTO order) {
+        String trackingId = UUID.randomUUID().toString();
+        byte[] payload;
+        try {
+            payload = objectMapper.writeValueAsBytes(new IntakeRecord(trackingId, order));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Order cannot be serialized: " + e.getOriginalMessage());
+        }
+        // Registered before the append, so the writer cannot finish the order before it is pending.
+        pending.add(trackingId);
+        CompletableFuture<Long> appended;
+        try {
+            appended = intakeLog.append(payload);
+        } catch (RuntimeException e) {
+            pending.remove(trackingId);
+            throw e;
+        }
+        try {
+            appended.get(appendTimeout.toNanos(), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            // The record may still reach the log and be written, so the order stays pending until the
+            // append settles; the client is told which tracking ID to poll before submitting again.
+            forgetIfNotAppended(trackingId, appended);
+            throw new IntakeAppendTimeoutException(trackingId);
+        } catch (InterruptedException e) {
+            forgetIfNotAppended(trackingId, appended);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while appending to the intake log", e);
+        } catch (ExecutionException e) {
+            pending.remove(trackingId);
+            if (e.getCause() instanceof IOException cause) {
+                throw new UncheckedIOException("Order could not be written to the intake log", cause);
+            }
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException("Order could not be written to the intake log", e.getCause());
+        }
+        return new OrderIntakeStatusDTO(trackingId, "ACCEPTED", null, null);
+    }
+
+    OrderIntakeLog openLog() throws IOException {
+        return new OrderIntakeLog(directory, segmentSize.toBytes(), queueCapacity);
+    }
+
+    private void forgetIfNotAppended(String trackingId, CompletableFuture<Long> appended) {
+        appended.whenComplete((offset, failure) -> {
+            if (failure != null) {
+                pending.remove(trackingId);
+            }
+        });
+    }
+
+    public OrderIntakeStatusDTO get(String trackingId) {
+        if (pending.contains(trackingId)) {
+            return new OrderIntakeStatusDTO(trackingId, "ACCEPTED", null, null);
+        }
+        return orderIntakeRepository.findById(trackingId)
+                .map(intake -> new OrderIntakeStatusDTO(trackingId, intake.getState(), intake.getOrderId(), intake.getMessage()))
+                .orElseThrow(() -> new EntityNotFoundException("Accepted order not found with tracking ID: " + trackingId));
+    }
+
+    private void drain(long from) {
+        long committed = from;
+        while (!stopping) {
+            try {
+                List<OrderIntakeLog.Entry> entries = intakeLog.read(committed, batchSize, 1, TimeUnit.SECONDS);
+                if (entries.isEmpty()) {
+                    continue;
+                }
+                List<Accepted> batch = entries.stream().map(this::decode).toList();
+                write(batch);
+                batch.forEach(accepted -> pending.remove(accepted.trackingId()));
+                committed = entries.get(entries.size() - 1).nextOffset();
+                intakeLog.release(committed);
+            } catch (InterruptedException e) {
+                return;
+            } catch (IOException | RuntimeException e) {
+                log.error("Order intake: reading the log at offset {} failed", committed, e);
+                if (!pause()) {
+                    return;
+                }
+            }
+        }
+    }
+
+    private void write(List<Accepted> batch) throws InterruptedException {
+        while (true) {
+            try {
+                orderWriteLimiter.runWaiting(() ->
+                        transactionTemplate.executeWithoutResult(status -> insertOrders(batch)));
+                return;
+            } catch (RuntimeException e) {
+                if (isUnavailable(e)) {
+                    log.warn("Order intake: database unavailable, retrying in {}: {}", retryBackoff, e.getMessage());
+                    if (!pause()) {
+                        throw new InterruptedException();
+                    }
+                } else if (batch.size() > 1) {
+                    log.warn("Order intake: batch of {} failed, writing its orders one at a time", batch.size(), e);
+                    for (Accepted accepted : batch) {
+                        write(List.of(accepted));
+                    }
+                    return;
+                } else if (batch.get(0).order() != null) {
+                    log.error("Order intake: order {} failed", batch.get(0).trackingId(), e);
+                    Accepted accepted = batch.get(0);
+                    write(List.of(new Accepted(accepted.nextOffset(), accepted.trackingId(), null, String.valueOf(e.getMessage()))));
+                    return;
+                } else {
+                    throw e;
+                }
+            }
+        }
+    }
+
+    private void insertOrders(List<Accepted> batch) {
+        List<Accepted> orders = batch.stream().filter(accepted -> accepted.order() != null).toList();
+        List<OrderBatchResultDTO> results = orders.isEmpty() ? List.of()
+                : orderBatchService.createOrders(orders.stream().map(Accepted::order).toList()).getResults();
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> outcomes = new ArrayList<>(batch.size());
+        for (int n = 0; n < orders.size(); n++) {
+            Accepted accepted = orders.get(n);
+            OrderBatchResultDTO result = results.get(n);
+            outcomes.add(new Object[]{accepted.trackingId(), intakeLog.logId(), accepted.nextOffset(),
+                    result.getStatus(), result.getOrderId(), truncate(result.getMessage()), now});
+        }
+        batch.stream().filter(accepted -> accepted.order() == null).forEach(accepted ->
+                outcomes.add(new Object[]{accepted.trackingId(), intakeLog.logId(), accepted.nextOffset(),
+                        "FAILED", null, truncate(accepted.error()), now}));
+        jdbcTemplate.batchUpdate(INSERT_OUTCOME_SQL, outcomes);
+    }
+
+    private Accepted decode(OrderIntakeLog.Entry entry) {
+        try {
+            IntakeRecord record = objectMapper.readValue(entry.payload(), IntakeRecord.class);
+            return new Accepted(entry.nextOffset(), record.trackingId(), record.order(), null);
+        } catch (IOException e) {
+            log.error("Order intake: unreadable record at offset {}", entry.offset(), e);
+            return new Accepted(entry.nextOffset(), "offset-" + entry.offset(), null, "Unreadable intake record");
+        }
+    }
+
+    private static String truncate(String message) {
+        return message != null && message.length() > MAX_MESSAGE_LENGTH ? message.substring(0, MAX_MESSAGE_LENGTH) : message;
+    }
+
+    private static boolean isUnavailable(RuntimeException e) {
+        return e instanceof TransientDataAccessException
+                || e instanceof RecoverableDataAccessException
+                || e instanceof DataAccessResourceFailureException
+                || e instanceof CannotCreateTransactionException;
+    }
+
+    private boolean pause() {
+        try {
+            TimeUnit.NANOSECONDS.sleep(retryBackoff.toNanos());
+            return !stopping;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    /**
+     * Stops accepting and lets the writer finish the batch in progress. Orders accepted but not yet
+     * written stay in the log for the next start.
+     */
+    @Override
+    public void destroy() throws IOException, InterruptedException {
+        stopping = true;
+        intakeLog.close();
+        executor.shutdown();
+        if (!executor.awaitTermination(30, TimeUnit.SECONDS)) {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,164 @@
+package com.hotwax.service;
+
+import com.hotwax.dto.ItemStatusTransitionDTO;
+import com.hotwax.dto.ItemStatusTransitionResultDTO;
+import com.hotwax.dto.OrderItemResponseDTO;
+import com.hotwax.model.OrderSummary;
+import com.hotwax.repository.OrderHeaderRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Query;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Bulk status transitions for order items. Matching items are processed in chunks of
+ * {@code orders.status.chunk-size} in item ID order, one transaction per chunk: the chunk's order
+ * summaries are locked (the same lock single-order writes take), the items are changed with one
+ * set-based UPDATE, the affected orders move to their next version with another, and the locked
+ * summaries are patched to match.
+ */
+@Service
+@RequiredArgsConstructor
+public class OrderItemStatusService {
+
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final OrderSummaryService orderSummaryService;
+    private final OrderHeaderRepository orderHeaderRepository;
+    private final OrderRollupService orderRollupService;
+
+    @Value("${orders.status.chunk-size:1000}")
+    private int chunkSize;
+
+    private record Chunk(int lastItemId, int itemsUpdated, int ordersUpdated) {}
+
+    public ItemStatusTransitionResultDTO transition(ItemStatusTransitionDTO request) {
+        if (isEmpty(request.getOrderItemSeqIds()) && isEmpty(request.getOrderIds())
+                && request.getFromStatus() == null && request.getProductId() == null) {
+            throw new IllegalStateException("At least one of orderItemSeqIds, orderIds, fromStatus or productId is required");
+        }
+
+        int itemsUpdated = 0;
+        int ordersUpdated = 0;
+        int chunks = 0;
+        int after = 0;
+        while (true) {
+            int from = after;
+            Chunk chunk = transactionTemplate.execute(status -> applyChunk(request, from));
+            if (chunk == null) {
+                return new ItemStatusTransitionResultDTO(itemsUpdated, ordersUpdated, chunks);
+            }
+            itemsUpdated += chunk.itemsUpdated();
+            ordersUpdated += chunk.ordersUpdated();
+            chunks++;
+            after = chunk.lastItemId();
+        }
+    }
+
+    private Chunk applyChunk(ItemStatusTransitionDTO request, int after) {
+        Query select = entityManager.createQuery("select i.orderItemSeqId, i.orderId from OrderItem i where "
+                + filter(request) + " and i.orderItemSeqId > :after order by i.orderItemSeqId");
+        bind(select, request).setParameter("after", after).setMaxResults(chunkSize);
+        @SuppressWarnings("unchecked")
+        List<Object[]> candidates = select.getResultList();
+        if (candidates.isEmpty()) {
+            return null;
+        }
+        Set<Integer> itemIds = new HashSet<>();
+        Set<Integer> orderIds = new TreeSet<>();
+        for (Object[] candidate : candidates) {
+            itemIds.add((Integer) candidate[0]);
+            orderIds.add((Integer) candidate[1]);
+        }
+        int lastItemId = (Integer) candidates.get(candidates.size() - 1)[0];
+
+        // Once the summaries are locked no other write can touch these orders' items, so the
+        // UPDATE below and the summary patch see the same item states.
+        List<OrderSummary> summaries = orderSummaryService.lockAll(orderIds);
+        Query update = entityManager.createQuery("update OrderItem i set i.status = :toStatus, i.version = i.version + 1 "
+                + "where i.orderItemSeqId in :chunkItemIds and " + filter(request));
+        int itemsUpdated = bind(update, request).setParameter("chunkItemIds", itemIds).executeUpdate();
+
+        Set<Integer> changedOrders = new HashSet<>();
+        OrderRollupService.Delta rollups = new OrderRollupService.Delta();
+        int itemsPatched = 0;
+        for (OrderSummary summary : summaries) {
+            List<OrderItemResponseDTO> items = summary.getOrderItems();
+            for (int n = 0; n < items.size(); n++) {
+                OrderItemResponseDTO item = items.get(n);
+                if (itemIds.contains(item.getOrderItemSeqId()) && matches(item, request)) {
+                    OrderItemResponseDTO changed = new OrderItemResponseDTO(item.getOrderItemSeqId(), item.getProductId(),
+                            item.getProductName(), item.getQuantity(), request.getToStatus());
+                    items.set(n, changed);
+                    rollups.itemRemoved(summary.getOrderDate(), item).itemAdded(summary.getOrderDate(), changed);
+                    changedOrders.add(summary.getOrderId());
+                    itemsPatched++;
+                }
+            }
+        }
+        if (itemsPatched != itemsUpdated) {
+            throw new OptimisticLockingFailureException("Order items changed outside their summaries; rebuild the order summaries");
+        }
+        if (!changedOrders.isEmpty()) {
+            orderHeaderRepository.incrementVersions(changedOrders);
+            summaries.stream()
+                    .filter(summary -> changedOrders.contains(summary.getOrderId()))
+                    .forEach(summary -> summary.setVersion(summary.getVersion() + 1));
+            orderRollupService.apply(rollups);
+        }
+        return new Chunk(lastItemId, itemsUpdated, changedOrders.size());
+    }
+
+    private static String filter(ItemStatusTransitionDTO request) {
+        StringBuilder filter = new StringBuilder("i.status <> :toStatus");
+        if (!isEmpty(request.getOrderItemSeqIds())) {
+            filter.append(" and i.orderItemSeqId in :orderItemSeqIds");
+        }
+        if (!isEmpty(request.getOrderIds())) {
+            filter.append(" and i.orderId in :orderIds");
+        }
+        if (request.getFromStatus() != null) {
+            filter.append(" and i.status = :fromStatus");
+        }
+        if (request.getProductId() != null) {
+            filter.append(" and i.product.productId = :productId");
+        }
+        return filter.toString();
+    }
+
+    private static Query bind(Query query, ItemStatusTransitionDTO request) {
+        query.setParameter("toStatus", request.getToStatus());
+        if (!isEmpty(request.getOrderItemSeqIds())) {
+            query.setParameter("orderItemSeqIds", request.getOrderItemSeqIds());
+        }
+        if (!isEmpty(request.getOrderIds())) {
+            query.setParameter("orderIds", request.getOrderIds());
+        }
+        if (request.getFromStatus() != null) {
+            query.setParameter("fromStatus", request.getFromStatus());
+        }
+        if (request.getProductId() != null) {
+            query.setParameter("productId", request.getProductId());
+        }
+        return query;
+    }
+
+    private static boolean matches(OrderItemResponseDTO item, ItemStatusTransitionDTO request) {
+        return !item.getStatus().equals(request.getToStatus())
+                && (request.getFromStatus() == null || request.getFromStatus().equals(item.getStatus()))
+                && (request.getProductId() == null || request.getProductId().equals(item.getProductId()));
+    }
+
+    private static boolean isEmpty(Collection<?> values) {
+        return values == null || values.isEmpty();
+    }
+}
@@ -0,0 +1,208 @@
+package com.hotwax.service;
+
+import com.hotwax.dto.DailyItemCountDTO;
+import com.hotwax.dto.DailyOrderCountDTO;
+import com.hotwax.dto.OrderItemResponseDTO;
+import com.hotwax.repository.DailyRollupRepository;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Maintains {@link com.hotwax.model.DailyOrderRollup} and {@link com.hotwax.model.DailyItemRollup}
+ * and answers the analytics queries from them. Order writes collect what they changed in a
+ * {@link Delta} and apply it in their own transaction with one batched upsert per table, each row
+ * adjusted relative to its current value. Rows are written in key order, so concurrent writers
+ * lock them in the same order. Archived orders stay counted; only deletes and purges subtract.
+ * {@link #backfill()} recomputes the rows from the live and archived order tables.
+ */
+@Service
+@RequiredArgsConstructor
+public class OrderRollupService {
+
+    static final int MAX_RANGE_DAYS = 366;
+
+    private static final String UPSERT_ORDERS_SQL = "insert into daily_order_rollup (order_date, order_count) values (?, ?) "
+            + "on duplicate key update order_count = order_count + values(order_count)";
+    private static final String UPSERT_ITEMS_SQL = "insert into daily_item_rollup (order_date, product_id, status, item_count, quantity) "
+            + "values (?, ?, ?, ?, ?) on duplicate key update item_count = item_count + values(item_count), "
+            + "quantity = quantity + values(quantity)";
+
+    private static final String ORDERS_BY_DAY_SQL = """
+            insert into daily_order_rollup (order_date, order_count)
+            select order_date, count(*) from (
+                select h.order_date from order_header h where h.order_date between ? and ?
+                union all
+                select a.order_date from order_header_archive a where a.order_date between ? and ?
+            ) o group by order_date
+            """;
+    private static final String ITEMS_BY_DAY_SQL = """
+            insert into daily_item_rollup (order_date, product_id, status, item_count, quantity)
+            select order_date, product_id, status, count(*), sum(quantity) from (
+                select h.order_date, i.product_id, i.status, i.quantity
+                from order_header h join order_item i on i.order_id = h.order_id
+                where h.order_date between ? and ?
+                union all
+                select a.order_date, ai.product_id, ai.status, ai.quantity
+                from order_header_archive a join order_item_archive ai on ai.order_id = a.order_id
+                where a.order_date between ? and ?
+            ) o group by order_date, product_id, status
+            """;
+    private static final String ORDERS_EXIST_SQL =
+            "select exists (select 1 from order_header) or exists (select 1 from order_header_archive)";
+
+    private static final String DATE_RANGE_SQL = """
+            select min(d), max(d) from (
+                select min(order_date) d from order_header union all select max(order_date) from order_header
+                union all select min(order_date) from order_header_archive union all select max(order_date) from order_header_archive
+                union all select min(order_date) from daily_order_rollup union all select max(order_date) from daily_order_rollup
+                union all select min(order_date) from daily_item_rollup union all select max(order_date) from daily_item_rollup
+            ) dates
+            """;
+
+    private static final Logger log = LoggerFactory.getLogger(OrderRollupService.class);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final DailyRollupRepository dailyRollupRepository;
+
+    @Value("${orders.rollup.backfill-days:31}")
+    private int backfillDays;
+
+    private record ItemKey(LocalDate date, int productId, String status) {
+        static final Comparator<ItemKey> ORDER = Comparator.comparing(ItemKey::date)
+                .thenComparingInt(ItemKey::productId)
+                .thenComparing(ItemKey::status);
+    }
+
+    /** Changes to the rollups, accumulated per row. */
+    public static final class Delta {
+        private final Map<LocalDate, Long> orders = new TreeMap<>();
+        private final Map<ItemKey, long[]> items = new TreeMap<>(ItemKey.ORDER);
+
+        public Delta orders(LocalDate date, long orderCount) {
+            orders.merge(date, orderCount, Long::sum);
+            return this;
+        }
+
+        public Delta item(LocalDate date, Integer productId, String status, long itemCount, long quantity) {
+            long[] counts = items.computeIfAbsent(new ItemKey(date, productId, status), key -> new long[2]);
+            counts[0] += itemCount;
+            counts[1] += quantity;
+            return this;
+        }
+
+        public Delta itemAdded(LocalDate date, OrderItemResponseDTO item) {
+            return item(date, item.getProductId(), item.getStatus(), 1, item.getQuantity());
+        }
+
+        public Delta itemRemoved(LocalDate date, OrderItemResponseDTO item) {
+            return item(date, item.getProductId(), item.getStatus(), -1, -item.getQuantity());
+        }
+
+        public Delta orderAdded(LocalDate date, List<OrderItemResponseDTO> orderItems) {
+            orders(date, 1);
+            orderItems.forEach(item -> itemAdded(date, item));
+            return this;
+        }
+
+        public Delta orderRemoved(LocalDate date, List<OrderItemResponseDTO> orderItems) {
+            orders(date, -1);
+            orderItems.forEach(item -> itemRemoved(date, item));
+            return this;
+        }
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void apply(Delta delta) {
+        List<Object[]> orders = new ArrayList<>();
+        delta.orders.forEach((date, count) -> {
+            if (count != 0) {
+                orders.add(new Object[]{Date.valueOf(date), count});
+            }
+        });
+        List<Object[]> items = new ArrayList<>();
+        delta.items.forEach((key, counts) -> {
+            if (counts[0] != 0 || counts[1] != 0) {
+                items.add(new Object[]{Date.valueOf(key.date()), key.productId(), key.status(), counts[0], counts[1]});
+            }
+        });
+        if (!orders.isEmpty()) {
+            jdbcTemplate.batchUpdate(UPSERT_ORDERS_SQL, orders);
+        }
+        if (!items.isEmpty()) {
+            jdbcTemplate.batchUpdate(UPSERT_ITEMS_SQL, items);
+        }
+    }
+
+    /**
+     * Recomputes the rollups of every order date from the order tables, {@code orders.rollup.backfill-days}
+     * days per transaction, and returns the number of days covered. Like the summary rebuild it is
+     * meant to run while nothing else writes orders.
+     */
+    public long backfill() {
+        List<LocalDate> range = jdbcTemplate.queryForObject(DATE_RANGE_SQL,
+                (rs, rowNum) -> rs.getDate(1) == null ? null : List.of(rs.getDate(1).toLocalDate(), rs.getDate(2).toLocalDate()));
+        if (range == null) {
+            return 0;
+        }
+        LocalDate first = range.get(0);
+        LocalDate last = range.get(1);
+        for (LocalDate start = first; !start.isAfter(last); start = start.plusDays(backfillDays)) {
+            Date from = Date.valueOf(start);
+            LocalDate to = start.plusDays(backfillDays - 1L).isAfter(last) ? last : start.plusDays(backfillDays - 1L);
+            transactionTemplate.executeWithoutResult(status -> backfillWindow(from, Date.valueOf(to)));
+            log.info("Backfilled order rollups up to {} (last {})", to, last);
+        }
+        return ChronoUnit.DAYS.between(first, last) + 1;
+    }
+
+    private void backfillWindow(Date from, Date to) {
+        jdbcTemplate.update("delete from daily_order_rollup where order_date between ? and ?", from, to);
+        jdbcTemplate.update("delete from daily_item_rollup where order_date between ? and ?", from, to);
+        jdbcTemplate.update(ORDERS_BY_DAY_SQL, from, to, from, to);
+        jdbcTemplate.update(ITEMS_BY_DAY_SQL, from, to, from, to);
+    }
+
+    /** Whether there are orders, live or archived, but no rollups, e.g. before the first backfill. */
+    public boolean needsBackfill() {
+        return dailyRollupRepository.count() == 0
+                && jdbcTemplate.queryForObject(ORDERS_EXIST_SQL, Boolean.class);
+    }
+
+    @Transactional(readOnly = true)
+    public List<DailyOrderCountDTO> getDailyOrders(LocalDate from, LocalDate to) {
+        checkRange(from, to);
+        return dailyRollupRepository.findOrderCounts(from, to);
+    }
+
+    @Transactional(readOnly = true)
+    public List<DailyItemCountDTO> getDailyItems(LocalDate from, LocalDate to, Integer productId, String status) {
+        checkRange(from, to);
+        return dailyRollupRepository.findItemCounts(from, to, productId, status);
+    }
+
+    private static void checkRange(LocalDate from, LocalDate to) {
+        if (from.isAfter(to)) {
+            throw new IllegalStateException("from must not be after to");
+        }
+        if (ChronoUnit.DAYS.between(from, to) >= MAX_RANGE_DAYS) {
+            throw new IllegalStateException("Date range must not exceed " + MAX_RANGE_DAYS + " days");
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.hotwax.service;
+
+import com.hotwax.dto.OrderItemResponseDTO;
+import com.hotwax.dto.OrderResponseDTO;
+import com.hotwax.repository.OrderHeaderRepository;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Builds order DTOs from the flat rows of {@link OrderHeaderRepository#ORDER_ROWS}: one row per
+ * order item (or a single row with null item columns for an order without items), ordered by
+ * order ID. No entities are involved, so nothing is snapshotted for dirty checking.
+ */
+final class OrderRows {
+
+    private OrderRows() {
+    }
+
+    static List<OrderResponseDTO> group(List<Object[]> rows) {
+        List<OrderResponseDTO> orders = new ArrayList<>();
+        OrderResponseDTO current = null;
+        for (Object[] row : rows) {
+            if (!belongsTo(current, row)) {
+                current = newOrder(row);
+                orders.add(current);
+            }
+            addItem(current, row);
+        }
+        return orders;
+    }
+
+    static boolean belongsTo(OrderResponseDTO order, Object[] row) {
+        return order != null && order.getOrderId().equals(row[0]);
+    }
+
+    static OrderResponseDTO newOrder(Object[] row) {
+        return new OrderResponseDTO(
+                (Integer) row[0],
+                (LocalDate) row[1],
+                (Integer) row[2],
+                row[3] + " " + row[4],
+                (Integer) row[5],
+                (Integer) row[6],
+                new ArrayList<>(),
+                (Long) row[12]
+        );
+    }
+
+    static void addItem(OrderResponseDTO order, Object[] row) {
+        if (row[7] != null) {
+            order.getOrderItems().add(new OrderItemResponseDTO(
+                    (Integer) row[7],
+                    (Integer) row[8],
+                    (String) row[9],
+                    (Integer) row[10],
+                    (String) row[11]
+            ));
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.hotwax.service;
+
+import com.hotwax.dto.OrderSearchCriteria;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The ID query behind order search. Orders are read by index range scans in page order, on
+ * {@code idx_order_header_customer_date} or {@code idx_order_header_date}, so the scan stops once
+ * the page is full. Item filters are an {@code EXISTS} probe of each order's items on
+ * {@code idx_order_item_order}: a page costs one probe per order passed over until it fills, which
+ * is why the service only accepts item filters within a customer or a short date range. Pages are
+ * keyed on {@code (order_date, order_id)}.
+ */
+record OrderSearchQuery(String sql, List<Object> args) {
+
+    static OrderSearchQuery of(OrderSearchCriteria criteria, LocalDate afterDate, Integer afterId, int limit) {
+        StringBuilder sql = new StringBuilder("select o.order_id, o.order_date from order_header o where 1 = 1");
+        List<Object> args = new ArrayList<>();
+        if (criteria.getCustomerId() != null) {
+            sql.append(" and o.customer_id = ?");
+            args.add(criteria.getCustomerId());
+        }
+        if (criteria.getFrom() != null) {
+            sql.append(" and o.order_date >= ?");
+            args.add(criteria.getFrom());
+        }
+        if (criteria.getTo() != null) {
+            sql.append(" and o.order_date <= ?");
+            args.add(criteria.getTo());
+        }
+        if (criteria.getStatus() != null || criteria.getProductId() != null) {
+            sql.append(" and exists (select 1 from order_item i where i.order_id = o.order_id");
+            if (criteria.getStatus() != null) {
+                sql.append(" and i.status = ?");
+                args.add(criteria.getStatus());
+            }
+            if (criteria.getProductId() != null) {
+                sql.append(" and i.product_id = ?");
+                args.add(criteria.getProductId());
+            }
+            sql.append(")");
+        }
+        if (afterDate != null) {
+            // The leading >= keeps the cursor usable as a range bound on the date index.
+            sql.append(" and o.order_date >= ? and (o.order_date > ? or o.order_id > ?)");
+            args.add(afterDate);
+            args.add(afterDate);
+            args.add(afterId);
+        }
+        sql.append(" order by o.order_date, o.order_id limit ?");
+        args.add(limit);
+        return new OrderSearchQuery(sql.toString(), args);
+    }
+}
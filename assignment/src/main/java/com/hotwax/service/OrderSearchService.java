@@ -0,0 +1,73 @@
+package com.hotwax.service;
+
+import com.hotwax.dto.OrderResponseDTO;
+import com.hotwax.dto.OrderSearchCriteria;
+import com.hotwax.dto.OrderSearchPageDTO;
+import com.hotwax.repository.OrderSummaryRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+/**
+ * Order search by customer, order date range, item status and product. Matching order IDs come
+ * from the normalized tables through their indexes (see {@link OrderSearchQuery}); the page itself
+ * is read from the order summaries by primary key.
+ */
+@Service
+@RequiredArgsConstructor
+public class OrderSearchService {
+    
+    private static final int MAX_PAGE_SIZE = 500;
+    
+    static final int MAX_ITEM_FILTER_DAYS = 31;
+    
+    private final JdbcTemplate jdbcTemplate;
+    private final OrderSummaryRepository orderSummaryRepository;
+    
+    @Transactional(readOnly = true)
+    public OrderSearchPageDTO search(OrderSearchCriteria criteria) {
+        OrderSearchQuery query = query(criteria);
+        int pageSize = Math.min(criteria.getLimit(), MAX_PAGE_SIZE);
+        List<OrderCursor> matches = jdbcTemplate.query(query.sql(),
+                (rs, n) -> new OrderCursor(rs.getObject(2, LocalDate.class), rs.getInt(1)), query.args().toArray());
+        boolean hasMore = matches.size() > pageSize;
+        if (hasMore) {
+            matches = matches.subList(0, pageSize);
+        }
+        List<OrderResponseDTO> orders = orderSummaryRepository.findResponsesInOrder(
+                matches.stream().map(OrderCursor::orderId).toList());
+        return new OrderSearchPageDTO(orders, hasMore ? matches.get(matches.size() - 1).toString() : null);
+    }
+    
+    /** Validates the criteria and builds the ID query for one page plus a look-ahead row. */
+    OrderSearchQuery query(OrderSearchCriteria criteria) {
+        if (criteria.getCustomerId() == null && criteria.getFrom() == null && criteria.getTo() == null
+                && criteria.getStatus() == null && criteria.getProductId() == null) {
+            throw new IllegalStateException("At least one of customerId, from, to, status or productId is required");
+        }
+        if (criteria.getLimit() < 1) {
+            throw new IllegalStateException("Limit must be positive");
+        }
+        if (criteria.getFrom() != null && criteria.getTo() != null && criteria.getFrom().isAfter(criteria.getTo())) {
+            throw new IllegalStateException("from must not be after to");
+        }
+        // Item filters are checked order by order, so the orders walked must be bounded.
+        if ((criteria.getStatus() != null || criteria.getProductId() != null) && criteria.getCustomerId() == null
+                && (criteria.getFrom() == null || criteria.getTo() == null
+                    || ChronoUnit.DAYS.between(criteria.getFrom(), criteria.getTo()) >= MAX_ITEM_FILTER_DAYS)) {
+            throw new IllegalStateException("status and productId need a customerId, or from and to less than "
+                    + MAX_ITEM_FILTER_DAYS + " days apart");
+        }
+        int pageSize = Math.min(criteria.getLimit(), MAX_PAGE_SIZE);
+        if (criteria.getAfter() == null) {
+            return OrderSearchQuery.of(criteria, null, null, pageSize + 1);
+        }
+        OrderCursor after = OrderCursor.parse(criteria.getAfter());
+        return OrderSearchQuery.of(criteria, after.orderDate(), after.orderId(), pageSize + 1);
+    }
+}
@@ -1,14 +1,22 @@
 package com.hotwax.service;
 
 import com.hotwax.dto.*;
+import com.hotwax.exception.VersionMismatchException;
 import com.hotwax.model.*;
 import com.hotwax.repository.*;
+import jakarta.persistence.EntityManager;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
@@ -20,14 +28,28 @@ public class OrderService {
     private final CustomerRepository customerRepository;
     private final ContactMechRepository contactMechRepository;
     private final ProductRepository productRepository;
+    private final OrderSummaryRepository orderSummaryRepository;
+    private final OrderSummaryService orderSummaryService;
+    private final CustomerStatsService customerStatsService;
+    private final OrderRollupService orderRollupService;
+    private final EntityManager entityManager;
+    
+    private static final int MAX_PAGE_SIZE = 500;
     
     @Transactional(readOnly = true)
-    public List<OrderResponseDTO> getAllOrders() {
-        List<OrderHeader> orders = orderHeaderRepository.findAll();
-        return orders.stream().map(order -> {
-            List<OrderItem> items = orderItemRepository.findByOrderId(order.getOrderId());
-            return buildOrderResponseDTO(order, items);
-        }).collect(Collectors.toList());
+    public OrderPageDTO getAllOrders(Integer after, int limit) {
+        if (limit < 1) {
+            throw new IllegalStateException("Limit must be positive");
+        }
+        int pageSize = Math.min(limit, MAX_PAGE_SIZE);
+        
+        List<OrderResponseDTO> page = orderSummaryRepository.findResponsesAfter(after != null ? after : 0, Limit.of(pageSize + 1));
+        boolean hasMore = page.size() > pageSize;
+        if (hasMore) {
+            page = page.subList(0, pageSize);
+        }
+        Integer nextCursor = hasMore ? page.get(page.size() - 1).getOrderId() : null;
+        return new OrderPageDTO(page, nextCursor);
     }
     
     @Transactional
@@ -47,69 +69,99 @@ public class OrderService {
         orderHeader.setShippingContactMech(shippingContact);
         orderHeader.setBillingContactMech(billingContact);
         
+        Set<Integer> productIds = request.getOrderItems().stream()
+                .map(OrderItemDTO::getProductId)
+                .collect(Collectors.toSet());
+        Map<Integer, Product> products = productRepository.multiLoad(productIds).stream()
+                .collect(Collectors.toMap(Product::getProductId, product -> product));
+        
         OrderHeader savedOrder = orderHeaderRepository.save(orderHeader);
         
+        List<OrderItem> orderItems = new ArrayList<>();
+        List<OrderItemResponseDTO> itemResponses = new ArrayList<>();
         for (OrderItemDTO itemDTO : request.getOrderItems()) {
-            Product product = productRepository.findById(itemDTO.getProductId())
-                    .orElseThrow(() -> new EntityNotFoundException("Product not found with ID: " + itemDTO.getProductId()));
+            Product product = products.get(itemDTO.getProductId());
+            if (product == null) {
+                throw new EntityNotFoundException("Product not found with ID: " + itemDTO.getProductId());
+            }
             
             OrderItem orderItem = new OrderItem();
             orderItem.setOrderId(savedOrder.getOrderId());
             orderItem.setProduct(product);
             orderItem.setQuantity(itemDTO.getQuantity());
             orderItem.setStatus(itemDTO.getStatus());
-            
-            orderItemRepository.save(orderItem);
+            orderItems.add(orderItem);
+        }
+        for (OrderItem savedItem : orderItemRepository.saveAll(orderItems)) {
+            itemResponses.add(toItemResponse(savedItem));
         }
         
-        return getOrderById(savedOrder.getOrderId());
+        OrderResponseDTO response = new OrderResponseDTO(
+                savedOrder.getOrderId(),
+                savedOrder.getOrderDate(),
+                customer.getCustomerId(),
+                customer.getFirstName() + " " + customer.getLastName(),
+                shippingContact.getContactMechId(),
+                billingContact.getContactMechId(),
+                itemResponses,
+                savedOrder.getVersion()
+        );
+        orderSummaryService.insert(response);
+        customerStatsService.ordersAdded(customer.getCustomerId(), 1, totalQuantity(itemResponses), savedOrder.getOrderDate());
+        orderRollupService.apply(new OrderRollupService.Delta().orderAdded(savedOrder.getOrderDate(), itemResponses));
+        return response;
     }
     
     @Transactional(readOnly = true)
     public OrderResponseDTO getOrderById(Integer orderId) {
-        OrderHeader orderHeader = orderHeaderRepository.findById(orderId)
+        return orderSummaryRepository.findResponseById(orderId)
                 .orElseThrow(() -> new EntityNotFoundException("Order not found with ID: " + orderId));
-        
-        List<OrderItem> items = orderItemRepository.findByOrderId(orderId);
-        
-        return buildOrderResponseDTO(orderHeader, items);
     }
     
+    /**
+     * Changes the order's contacts with one version-checked UPDATE, without loading the header. The
+     * response is the locked summary with the change applied; {@code expectedVersions} (from
+     * {@code If-Match}, or null) must include the order's current version.
+     */
     @Transactional
-    public OrderResponseDTO updateOrder(Integer orderId, OrderUpdateDTO updateDTO) {
-        OrderHeader orderHeader = orderHeaderRepository.findById(orderId)
-                .orElseThrow(() -> new EntityNotFoundException("Order not found with ID: " + orderId));
+    public OrderResponseDTO updateOrder(Integer orderId, OrderUpdateDTO updateDTO, Set<Long> expectedVersions) {
+        OrderSummary summary = lockForWrite(orderId, expectedVersions);
         
         if (updateDTO.getShippingContactMechId() != null) {
             ContactMech shippingContact = contactMechRepository.findById(updateDTO.getShippingContactMechId())
                     .orElseThrow(() -> new EntityNotFoundException("Shipping contact not found with ID: " + updateDTO.getShippingContactMechId()));
-            orderHeader.setShippingContactMech(shippingContact);
+            summary.setShippingContactMechId(shippingContact.getContactMechId());
         }
         
         if (updateDTO.getBillingContactMechId() != null) {
             ContactMech billingContact = contactMechRepository.findById(updateDTO.getBillingContactMechId())
                     .orElseThrow(() -> new EntityNotFoundException("Billing contact not found with ID: " + updateDTO.getBillingContactMechId()));
-            orderHeader.setBillingContactMech(billingContact);
+            summary.setBillingContactMechId(billingContact.getContactMechId());
         }
         
-        orderHeaderRepository.save(orderHeader);
+        int updated = orderHeaderRepository.updateContactMechs(orderId, summary.getVersion(),
+                entityManager.getReference(ContactMech.class, summary.getShippingContactMechId()),
+                entityManager.getReference(ContactMech.class, summary.getBillingContactMechId()));
+        advanceVersion(summary, updated);
         
-        return getOrderById(orderId);
+        return orderSummaryService.toResponse(summary);
     }
     
     @Transactional
-    public void deleteOrder(Integer orderId) {
-        if (!orderHeaderRepository.existsById(orderId)) {
+    public void deleteOrder(Integer orderId, Set<Long> expectedVersions) {
+        OrderSummary summary = lockForWrite(orderId, expectedVersions);
+        orderSummaryService.delete(orderId);
+        orderItemRepository.deleteByOrderId(orderId);
+        if (orderHeaderRepository.deleteByIdInBulk(orderId) == 0) {
             throw new EntityNotFoundException("Order not found with ID: " + orderId);
         }
-        orderHeaderRepository.deleteById(orderId);
+        customerStatsService.ordersRemoved(summary.getCustomerId(), 1, totalQuantity(summary.getOrderItems()));
+        orderRollupService.apply(new OrderRollupService.Delta().orderRemoved(summary.getOrderDate(), summary.getOrderItems()));
     }
     
     @Transactional
-    public OrderItemResponseDTO addOrderItem(Integer orderId, OrderItemDTO itemDTO) {
-        if (!orderHeaderRepository.existsById(orderId)) {
-            throw new EntityNotFoundException("Order not found with ID: " + orderId);
-        }
+    public VersionedDTO<OrderItemResponseDTO> addOrderItem(Integer orderId, OrderItemDTO itemDTO) {
+        OrderSummary summary = lockForWrite(orderId, null);
         
         Product product = productRepository.findById(itemDTO.getProductId())
                 .orElseThrow(() -> new EntityNotFoundException("Product not found with ID: " + itemDTO.getProductId()));
@@ -120,70 +172,101 @@ public class OrderService {
         orderItem.setQuantity(itemDTO.getQuantity());
         orderItem.setStatus(itemDTO.getStatus());
         
-        OrderItem savedItem = orderItemRepository.save(orderItem);
+        OrderItemResponseDTO response = toItemResponse(orderItemRepository.save(orderItem));
+        advanceVersion(summary, orderHeaderRepository.incrementVersion(orderId, summary.getVersion()));
+        customerStatsService.quantityChanged(summary.getCustomerId(), response.getQuantity());
+        orderRollupService.apply(new OrderRollupService.Delta().itemAdded(summary.getOrderDate(), response));
         
-        return new OrderItemResponseDTO(
-                savedItem.getOrderItemSeqId(),
-                product.getProductId(),
-                product.getProductName(),
-                savedItem.getQuantity(),
-                savedItem.getStatus()
-        );
+        summary.getOrderItems().add(response);
+        summary.getOrderItems().sort(Comparator.comparing(OrderItemResponseDTO::getOrderItemSeqId));
+        return new VersionedDTO<>(response, summary.getVersion());
     }
     
+    /**
+     * Applies the change with one UPDATE of the item row; product and unchanged fields for the
+     * response come from the locked summary.
+     */
     @Transactional
-    public OrderItemResponseDTO updateOrderItem(Integer orderId, Integer orderItemSeqId, OrderItemUpdateDTO updateDTO) {
-        OrderItem orderItem = orderItemRepository.findByOrderItemSeqIdAndOrderId(orderItemSeqId, orderId)
-                .orElseThrow(() -> new EntityNotFoundException("Order item not found with ID: " + orderItemSeqId + " for order: " + orderId));
+    public VersionedDTO<OrderItemResponseDTO> updateOrderItem(Integer orderId, Integer orderItemSeqId,
+                                                              OrderItemUpdateDTO updateDTO, Set<Long> expectedVersions) {
+        OrderSummary summary = lockForWrite(orderId, expectedVersions);
+        OrderItemResponseDTO current = summary.getOrderItems().stream()
+                .filter(item -> item.getOrderItemSeqId().equals(orderItemSeqId))
+                .findFirst()
+                .orElseThrow(() -> itemNotFound(orderId, orderItemSeqId));
         
-        if (updateDTO.getQuantity() != null) {
-            orderItem.setQuantity(updateDTO.getQuantity());
+        if (orderItemRepository.updateInBulk(orderItemSeqId, orderId, updateDTO.getQuantity(), updateDTO.getStatus()) == 0) {
+            throw itemNotFound(orderId, orderItemSeqId);
         }
+        advanceVersion(summary, orderHeaderRepository.incrementVersion(orderId, summary.getVersion()));
         
-        if (updateDTO.getStatus() != null) {
-            orderItem.setStatus(updateDTO.getStatus());
-        }
-        
-        OrderItem updatedItem = orderItemRepository.save(orderItem);
-        
-        return new OrderItemResponseDTO(
-                updatedItem.getOrderItemSeqId(),
-                updatedItem.getProduct().getProductId(),
-                updatedItem.getProduct().getProductName(),
-                updatedItem.getQuantity(),
-                updatedItem.getStatus()
+        OrderItemResponseDTO response = new OrderItemResponseDTO(
+                orderItemSeqId,
+                current.getProductId(),
+                current.getProductName(),
+                updateDTO.getQuantity() != null ? updateDTO.getQuantity() : current.getQuantity(),
+                updateDTO.getStatus() != null ? updateDTO.getStatus() : current.getStatus()
         );
+        customerStatsService.quantityChanged(summary.getCustomerId(), response.getQuantity() - current.getQuantity());
+        orderRollupService.apply(new OrderRollupService.Delta()
+                .itemRemoved(summary.getOrderDate(), current)
+                .itemAdded(summary.getOrderDate(), response));
+        summary.getOrderItems().replaceAll(item -> item.getOrderItemSeqId().equals(orderItemSeqId) ? response : item);
+        return new VersionedDTO<>(response, summary.getVersion());
     }
     
     @Transactional
-    public void deleteOrderItem(Integer orderId, Integer orderItemSeqId) {
-        if (!orderItemRepository.findByOrderItemSeqIdAndOrderId(orderItemSeqId, orderId).isPresent()) {
-            throw new EntityNotFoundException("Order item not found with ID: " + orderItemSeqId + " for order: " + orderId);
+    public long deleteOrderItem(Integer orderId, Integer orderItemSeqId, Set<Long> expectedVersions) {
+        OrderSummary summary = lockForWrite(orderId, expectedVersions);
+        OrderItemResponseDTO removed = summary.getOrderItems().stream()
+                .filter(item -> item.getOrderItemSeqId().equals(orderItemSeqId))
+                .findFirst()
+                .orElseThrow(() -> itemNotFound(orderId, orderItemSeqId));
+        if (orderItemRepository.deleteByOrderItemSeqIdAndOrderId(orderItemSeqId, orderId) == 0) {
+            throw itemNotFound(orderId, orderItemSeqId);
+        }
+        advanceVersion(summary, orderHeaderRepository.incrementVersion(orderId, summary.getVersion()));
+        customerStatsService.quantityChanged(summary.getCustomerId(), -removed.getQuantity());
+        orderRollupService.apply(new OrderRollupService.Delta().itemRemoved(summary.getOrderDate(), removed));
+        
+        summary.getOrderItems().remove(removed);
+        return summary.getVersion();
+    }
+    
+    /** Serializes writes to the order on its summary row and checks the client's expected versions. */
+    private OrderSummary lockForWrite(Integer orderId, Set<Long> expectedVersions) {
+        OrderSummary summary = orderSummaryService.lock(orderId);
+        if (expectedVersions != null && !expectedVersions.contains(summary.getVersion())) {
+            throw new VersionMismatchException(orderId, expectedVersions, summary.getVersion());
         }
-        orderItemRepository.deleteByOrderItemSeqIdAndOrderId(orderItemSeqId, orderId);
+        return summary;
     }
     
-    private OrderResponseDTO buildOrderResponseDTO(OrderHeader orderHeader, List<OrderItem> items) {
-        List<OrderItemResponseDTO> itemDTOs = items.stream()
-                .map(item -> new OrderItemResponseDTO(
-                        item.getOrderItemSeqId(),
-                        item.getProduct().getProductId(),
-                        item.getProduct().getProductName(),
-                        item.getQuantity(),
-                        item.getStatus()
-                ))
-                .collect(Collectors.toList());
-        
-        String customerName = orderHeader.getCustomer().getFirstName() + " " + orderHeader.getCustomer().getLastName();
-        
-        return new OrderResponseDTO(
-                orderHeader.getOrderId(),
-                orderHeader.getOrderDate(),
-                orderHeader.getCustomer().getCustomerId(),
-                customerName,
-                orderHeader.getShippingContactMech().getContactMechId(),
-                orderHeader.getBillingContactMech().getContactMechId(),
-                itemDTOs
+    // The header UPDATE is conditional on the version the summary holds; missing it means the
+    // normalized tables were changed behind the summary's back.
+    private void advanceVersion(OrderSummary summary, int updatedHeaders) {
+        if (updatedHeaders == 0) {
+            throw new OptimisticLockingFailureException("Order " + summary.getOrderId()
+                    + " changed outside its summary; rebuild the order summaries");
+        }
+        summary.setVersion(summary.getVersion() + 1);
+    }
+    
+    private static EntityNotFoundException itemNotFound(Integer orderId, Integer orderItemSeqId) {
+        return new EntityNotFoundException("Order item not found with ID: " + orderItemSeqId + " for order: " + orderId);
+    }
+    
+    static long totalQuantity(List<OrderItemResponseDTO> items) {
+        return items.stream().mapToLong(OrderItemResponseDTO::getQuantity).sum();
+    }
+    
+    private static OrderItemResponseDTO toItemResponse(OrderItem orderItem) {
+        return new OrderItemResponseDTO(
+                orderItem.getOrderItemSeqId(),
+                orderItem.getProduct().getProductId(),
+                orderItem.getProduct().getProductName(),
+                orderItem.getQuantity(),
+                orderItem.getStatus()
         );
     }
 }
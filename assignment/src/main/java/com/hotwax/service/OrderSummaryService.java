@@ -0,0 +1,279 @@
+package com.hotwax.service;
+
+import com.hotwax.dto.OrderItemResponseDTO;
+import com.hotwax.dto.OrderResponseDTO;
+import com.hotwax.model.Customer;
+import com.hotwax.model.OrderSummary;
+import com.hotwax.model.Product;
+import com.hotwax.model.ReferenceDataChangedEvent;
+import com.hotwax.repository.OrderHeaderRepository;
+import com.hotwax.repository.OrderItemRepository;
+import com.hotwax.repository.OrderSummaryRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityNotFoundException;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.IntFunction;
+import java.util.function.Predicate;
+
+/**
+ * Maintains the {@link OrderSummary} read model. Mutations of an order go through
+ * {@link #lock(Integer)} first, so writes to the same order are serialized on its summary row and
+ * each one patches the latest committed summary. The rebuild methods regenerate summaries from the
+ * normalized tables in chunks of {@code orders.summary.chunk-size} orders, one query per chunk.
+ * Customer and product renames are copied into the summaries once they commit, moving the version
+ * of every order whose response changes so that its ETag changes too.
+ */
+@Service
+@RequiredArgsConstructor
+public class OrderSummaryService {
+
+    private static final Logger log = LoggerFactory.getLogger(OrderSummaryService.class);
+
+    private final OrderSummaryRepository orderSummaryRepository;
+    private final OrderHeaderRepository orderHeaderRepository;
+    private final OrderItemRepository orderItemRepository;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${orders.summary.chunk-size:1000}")
+    private int chunkSize;
+
+    /** Stores the summary of an order created in the current transaction. */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void insert(OrderResponseDTO order) {
+        entityManager.persist(toSummary(order));
+    }
+
+    /** Builds and stores the summaries of orders created in the current transaction. */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void insert(List<Integer> orderIds) {
+        for (int from = 0; from < orderIds.size(); from += chunkSize) {
+            store(orderIds.subList(from, Math.min(from + chunkSize, orderIds.size())));
+        }
+    }
+
+    /**
+     * Locks the summary of an order for the rest of the transaction, building it from the
+     * normalized tables if the order has none yet.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public OrderSummary lock(Integer orderId) {
+        return orderSummaryRepository.findForUpdate(orderId).orElseGet(() -> {
+            List<OrderResponseDTO> orders = OrderRows.group(orderHeaderRepository.findRowsByOrderId(orderId));
+            if (orders.isEmpty()) {
+                throw new EntityNotFoundException("Order not found with ID: " + orderId);
+            }
+            OrderSummary summary = toSummary(orders.get(0));
+            entityManager.persist(summary);
+            return summary;
+        });
+    }
+
+    /**
+     * Locks the summaries of several orders in order ID order, building missing ones like
+     * {@link #lock(Integer)}. Orders that do not exist are left out.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public List<OrderSummary> lockAll(Collection<Integer> orderIds) {
+        List<OrderSummary> summaries = new ArrayList<>(orderSummaryRepository.findAllForUpdate(orderIds));
+        if (summaries.size() < orderIds.size()) {
+            Set<Integer> missing = new HashSet<>(orderIds);
+            summaries.forEach(summary -> missing.remove(summary.getOrderId()));
+            for (OrderResponseDTO order : OrderRows.group(orderHeaderRepository.findRowsByOrderIdIn(missing))) {
+                OrderSummary summary = toSummary(order);
+                entityManager.persist(summary);
+                summaries.add(summary);
+            }
+        }
+        return summaries;
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void delete(Integer orderId) {
+        orderSummaryRepository.deleteByIdInBulk(orderId);
+    }
+
+    /** Regenerates every summary from the normalized tables, one transaction per chunk. */
+    public int rebuildAll() {
+        int rebuilt = 0;
+        int after = 0;
+        while (true) {
+            int from = after;
+            List<Integer> orderIds = transactionTemplate.execute(status -> {
+                List<Integer> chunk = orderHeaderRepository.findIdsAfter(from, Limit.of(chunkSize));
+                if (chunk.isEmpty()) {
+                    orderSummaryRepository.deleteAfter(from);
+                } else {
+                    orderSummaryRepository.deleteRange(from, chunk.get(chunk.size() - 1));
+                    store(chunk);
+                }
+                return chunk;
+            });
+            if (orderIds.isEmpty()) {
+                return rebuilt;
+            }
+            rebuilt += orderIds.size();
+            after = orderIds.get(orderIds.size() - 1);
+            log.info("Rebuilt {} order summaries (up to order {})", rebuilt, after);
+        }
+    }
+
+    /** Whether there are orders but no summaries, e.g. before the first backfill. */
+    @Transactional(readOnly = true)
+    public boolean needsBackfill() {
+        return orderSummaryRepository.findIds(Limit.of(1)).isEmpty()
+                && !orderHeaderRepository.findIdsAfter(0, Limit.of(1)).isEmpty();
+    }
+
+    /** Builds the summaries of orders that have none, e.g. orders written before the read model existed. */
+    public int rebuildMissing() {
+        int rebuilt = 0;
+        int after = 0;
+        while (true) {
+            int from = after;
+            List<Integer> orderIds = transactionTemplate.execute(status -> {
+                List<Integer> chunk = orderHeaderRepository.findIdsWithoutSummaryAfter(from, Limit.of(chunkSize));
+                store(chunk);
+                return chunk;
+            });
+            if (orderIds.isEmpty()) {
+                return rebuilt;
+            }
+            rebuilt += orderIds.size();
+            after = orderIds.get(orderIds.size() - 1);
+        }
+    }
+
+    /**
+     * Copies a committed customer or product name into the summaries that embed it, and moves the
+     * version of those orders (summary and header alike). Runs after the rename's transaction, in
+     * transactions of its own, one per chunk of orders, so a read in between still sees the old
+     * name with the old version.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onReferenceDataChanged(ReferenceDataChangedEvent event) {
+        if (event.removed()) {
+            return;
+        }
+        if (event.entity() instanceof Customer customer) {
+            String customerName = customer.getFirstName() + " " + customer.getLastName();
+            rename(after -> orderHeaderRepository.findIdsByCustomerAfter(
+                            customer.getCustomerId(), after, Limit.of(chunkSize)),
+                    summary -> renameCustomer(summary, customerName));
+        } else if (event.entity() instanceof Product product) {
+            rename(after -> orderItemRepository.findOrderIdsByProductIdAfter(
+                            product.getProductId(), after, Limit.of(chunkSize)),
+                    summary -> renameProduct(summary, product));
+        }
+    }
+
+    private void rename(IntFunction<List<Integer>> chunkAfter, Predicate<OrderSummary> rename) {
+        TransactionTemplate newTransaction = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        newTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        int after = 0;
+        while (true) {
+            int from = after;
+            List<Integer> orderIds = newTransaction.execute(status -> {
+                List<Integer> chunk = chunkAfter.apply(from);
+                if (!chunk.isEmpty()) {
+                    List<Integer> renamed = new ArrayList<>();
+                    for (OrderSummary summary : orderSummaryRepository.findAllForUpdate(chunk)) {
+                        if (rename.test(summary)) {
+                            summary.setVersion(summary.getVersion() + 1);
+                            renamed.add(summary.getOrderId());
+                        }
+                    }
+                    if (!renamed.isEmpty()) {
+                        orderHeaderRepository.incrementVersions(renamed);
+                    }
+                }
+                return chunk;
+            });
+            if (orderIds.isEmpty()) {
+                return;
+            }
+            after = orderIds.get(orderIds.size() - 1);
+        }
+    }
+
+    public OrderResponseDTO toResponse(OrderSummary summary) {
+        return new OrderResponseDTO(
+                summary.getOrderId(),
+                summary.getOrderDate(),
+                summary.getCustomerId(),
+                summary.getCustomerName(),
+                summary.getShippingContactMechId(),
+                summary.getBillingContactMechId(),
+                new ArrayList<>(summary.getOrderItems()),
+                summary.getVersion()
+        );
+    }
+
+    private void store(List<Integer> orderIds) {
+        if (orderIds.isEmpty()) {
+            return;
+        }
+        for (OrderResponseDTO order : OrderRows.group(orderHeaderRepository.findRowsByOrderIdIn(orderIds))) {
+            entityManager.persist(toSummary(order));
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    private static boolean renameCustomer(OrderSummary summary, String customerName) {
+        if (customerName.equals(summary.getCustomerName())) {
+            return false;
+        }
+        summary.setCustomerName(customerName);
+        return true;
+    }
+
+    private static boolean renameProduct(OrderSummary summary, Product product) {
+        List<OrderItemResponseDTO> items = new ArrayList<>(summary.getOrderItems().size());
+        boolean renamed = false;
+        for (OrderItemResponseDTO item : summary.getOrderItems()) {
+            if (product.getProductId().equals(item.getProductId())
+                    && !Objects.equals(product.getProductName(), item.getProductName())) {
+                items.add(new OrderItemResponseDTO(item.getOrderItemSeqId(), item.getProductId(), product.getProductName(),
+                        item.getQuantity(), item.getStatus()));
+                renamed = true;
+            } else {
+                items.add(item);
+            }
+        }
+        if (renamed) {
+            summary.setOrderItems(items);
+        }
+        return renamed;
+    }
+
+    private static OrderSummary toSummary(OrderResponseDTO order) {
+        OrderSummary summary = new OrderSummary();
+        summary.setOrderId(order.getOrderId());
+        summary.setOrderDate(order.getOrderDate());
+        summary.setCustomerId(order.getCustomerId());
+        summary.setCustomerName(order.getCustomerName());
+        summary.setShippingContactMechId(order.getShippingContactMechId());
+        summary.setBillingContactMechId(order.getBillingContactMechId());
+        summary.setOrderItems(new ArrayList<>(order.getOrderItems()));
+        summary.setVersion(order.getVersion());
+        return summary;
+    }
+}
@@ -0,0 +1,81 @@
+package com.hotwax.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Keeps fewer transactions creating orders or items than the pool has connections. Hibernate
+ * fetches the next block of IDs in its own transaction on a second pooled connection while the
+ * creating transaction holds the first, and the other creators wait for that fetch holding theirs;
+ * with a creator on every connection, the fetch would wait for the pool timeout and fail them all.
+ * Permits are taken before the transaction starts. A request that cannot get one within
+ * {@code orders.write.max-wait} is rejected with a {@link RejectedExecutionException}, answered
+ * with 503; the intake writer waits as long as it takes.
+ */
+@Component
+public class OrderWriteLimiter {
+
+    private static final Logger log = LoggerFactory.getLogger(OrderWriteLimiter.class);
+
+    private final Semaphore permits;
+    private final Duration maxWait;
+    private final Counter rejectedCounter;
+
+    public OrderWriteLimiter(@Value("${spring.datasource.hikari.maximum-pool-size:10}") int poolSize,
+                             @Value("${orders.write.max-concurrent:}") Integer maxConcurrent,
+                             @Value("${orders.write.max-wait:5s}") Duration maxWait,
+                             MeterRegistry meterRegistry) {
+        int writers = maxConcurrent != null ? maxConcurrent : Math.max(1, poolSize - 1);
+        if (writers >= poolSize) {
+            log.warn("orders.write.max-concurrent ({}) leaves no connection of the {} in the pool for ID allocation; "
+                    + "order creation can stall until the pool times out", writers, poolSize);
+        }
+        this.permits = new Semaphore(writers, true);
+        this.maxWait = maxWait;
+        this.rejectedCounter = Counter.builder("orders.write.rejected")
+                .description("Order creations rejected because too many were in progress")
+                .register(meterRegistry);
+        Gauge.builder("orders.write.available", permits, Semaphore::availablePermits)
+                .description("Order writers that may still start")
+                .register(meterRegistry);
+    }
+
+    public <T> T call(Supplier<T> write) {
+        boolean acquired;
+        try {
+            acquired = permits.tryAcquire(maxWait.toNanos(), TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting to create orders", e);
+        }
+        if (!acquired) {
+            rejectedCounter.increment();
+            throw new RejectedExecutionException("Too many orders are being created, please retry");
+        }
+        try {
+            return write.get();
+        } finally {
+            permits.release();
+        }
+    }
+
+    public void runWaiting(Runnable write) throws InterruptedException {
+        permits.acquire();
+        try {
+            write.run();
+        } finally {
+            permits.release();
+        }
+    }
+}
@@ -1,5 +1,6 @@
 const API_URL = 'http://localhost:8080';
 let orders = [];
+let nextOrdersCursor = null;
 let customers = [];
 let products = [];
 let contacts = [];
@@ -32,9 +33,25 @@ function checkAuth() {
 async function loadOrders() {
     const ordersList = document.getElementById('ordersList');
     ordersList.innerHTML = '<div class="empty-state"><h3>Loading orders...</h3></div>';
+    orders = [];
+    nextOrdersCursor = null;
+    await fetchOrdersPage();
+}
+
+async function loadMoreOrders() {
+    const button = document.getElementById('loadMoreOrders');
+    button.disabled = true;
+    button.textContent = 'Loading...';
+    await fetchOrdersPage();
+}
+
+// GET /orders is keyset-paginated: each page carries the cursor to pass as ?after= for the next one.
+async function fetchOrdersPage() {
+    const ordersList = document.getElementById('ordersList');
+    const url = nextOrdersCursor === null ? `${API_URL}/orders` : `${API_URL}/orders?after=${nextOrdersCursor}`;
 
     try {
-        const response = await fetch(`${API_URL}/orders`, {
+        const response = await fetch(url, {
             headers: getHeaders()
         });
 
@@ -44,7 +61,9 @@ async function loadOrders() {
         }
 
         if (response.ok) {
-            orders = await response.json();
+            const page = await response.json();
+            orders = orders.concat(page.orders);
+            nextOrdersCursor = page.nextCursor ?? null;
             displayOrders(orders);
         } else {
             ordersList.innerHTML = '<div class="empty-state"><h3>Error loading orders</h3></div>';
@@ -52,6 +71,13 @@ async function loadOrders() {
     } catch (error) {
         ordersList.innerHTML = '<div class="empty-state"><h3>Connection error</h3></div>';
     }
+    displayLoadMore();
+}
+
+function displayLoadMore() {
+    const container = document.getElementById('ordersMore');
+    container.innerHTML = nextOrdersCursor === null ? ''
+        : '<button id="loadMoreOrders" class="btn-secondary" style="width: auto;" onclick="loadMoreOrders()">Load more</button>';
 }
 
 function displayOrders(orders) {
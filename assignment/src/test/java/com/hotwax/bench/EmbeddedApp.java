@@ -0,0 +1,113 @@
+package com.hotwax.bench;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hotwax.AssignmentApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * The application booted on a random port against its own in-memory H2 database (MySQL mode,
+ * seeded from data.sql), plus the HTTP plumbing the load drivers share. Properties are passed as
+ * command-line arguments so they win over application.properties.
+ */
+public final class EmbeddedApp implements AutoCloseable {
+
+    private final ConfigurableApplicationContext context;
+    private final String baseUrl;
+    private final HttpClient client;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private EmbeddedApp(ConfigurableApplicationContext context) {
+        this.context = context;
+        this.baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+        this.client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(10)).build();
+    }
+
+    public static EmbeddedApp start(String databaseName, String... properties) {
+        List<String> args = new ArrayList<>(List.of(
+                "--server.port=0",
+                "--spring.datasource.url=jdbc:h2:mem:" + databaseName + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+                // Seeding posts 1000-order batches, whose batched inserts and ID block fetches repeat by design.
+                "--sql.stats.repeat-action=log"));
+        Stream.of(properties).map(p -> "--" + p).forEach(args::add);
+        return new EmbeddedApp(new SpringApplicationBuilder(AssignmentApplication.class)
+                .profiles("embedded")
+                .run(args.toArray(String[]::new)));
+    }
+
+    public String baseUrl() {
+        return baseUrl;
+    }
+
+    public HttpClient client() {
+        return client;
+    }
+
+    public ObjectMapper objectMapper() {
+        return objectMapper;
+    }
+
+    public HttpRequest.Builder request(String path, String token) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .header("Content-Type", "application/json");
+        return token == null ? builder : builder.header("Authorization", "Bearer " + token);
+    }
+
+    /** Logs in as the seeded admin, backing off while the password hashing pool answers 503. */
+    public String login() throws Exception {
+        HttpRequest request = request("/auth/login", null)
+                .POST(HttpRequest.BodyPublishers.ofString("{\"username\":\"admin\",\"password\":\"admin123\"}"))
+                .build();
+        for (int attempt = 0; ; attempt++) {
+            HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+            if (response.statusCode() == 200) {
+                JsonNode body = objectMapper.readTree(response.body());
+                return body.get("token").asText();
+            }
+            if (response.statusCode() != 503 || attempt == 50) {
+                throw new IllegalStateException("Login failed: " + response.statusCode() + " " + response.body());
+            }
+            Thread.sleep(100L * Math.min(attempt + 1, 10));
+        }
+    }
+
+    /** Creates {@code count} two-item orders through POST /orders/batch. */
+    public void seedOrders(String token, int count) throws Exception {
+        for (int from = 0; from < count; from += 1000) {
+            List<Object> orders = Stream.iterate(from, i -> i + 1)
+                    .limit(Math.min(1000, count - from))
+                    .map(i -> (Object) Map.of(
+                            "customerId", 1 + i % 3,
+                            "orderDate", "2025-01-01",
+                            "shippingContactMechId", 1,
+                            "billingContactMechId", 2,
+                            "orderItems", List.of(
+                                    Map.of("productId", 1 + i % 5, "quantity", 1 + i % 4, "status", "PENDING"),
+                                    Map.of("productId", 1 + (i + 1) % 5, "quantity", 2, "status", "PENDING"))))
+                    .toList();
+            HttpRequest request = request("/orders/batch", token)
+                    .POST(HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(orders)))
+                    .build();
+            HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+            if (response.statusCode() != 201) {
+                throw new IllegalStateException("Seeding failed: " + response.statusCode() + " " + response.body());
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        context.close();
+    }
+}
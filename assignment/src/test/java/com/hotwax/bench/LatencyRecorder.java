@@ -0,0 +1,72 @@
+package com.hotwax.bench;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Collects per-endpoint latencies from many client threads and summarizes them as throughput and
+ * percentiles. Samples are kept in full (one long each), which is fine for runs of a few million
+ * requests.
+ */
+public class LatencyRecorder {
+
+    private final Map<String, Samples> samplesByEndpoint = new ConcurrentHashMap<>();
+
+    public void record(String endpoint, long nanos, boolean success) {
+        Samples samples = samplesByEndpoint.computeIfAbsent(endpoint, k -> new Samples());
+        if (success) {
+            samples.add(nanos);
+        } else {
+            samples.errors.incrementAndGet();
+        }
+    }
+
+    public Map<String, Summary> summarize(double elapsedSeconds) {
+        Map<String, Summary> summaries = new TreeMap<>();
+        samplesByEndpoint.forEach((endpoint, samples) -> summaries.put(endpoint, samples.summarize(elapsedSeconds)));
+        return summaries;
+    }
+
+    public static String format(String title, Map<String, Summary> summaries) {
+        StringBuilder out = new StringBuilder("\n=== ").append(title).append(" ===\n");
+        out.append(String.format("%-36s %10s %8s %10s %10s %10s %10s%n",
+                "endpoint", "requests", "errors", "req/s", "p50 ms", "p99 ms", "p99.9 ms"));
+        summaries.forEach((endpoint, s) -> out.append(String.format("%-36s %10d %8d %10.1f %10.2f %10.2f %10.2f%n",
+                endpoint, s.requests(), s.errors(), s.throughput(), s.p50Millis(), s.p99Millis(), s.p999Millis())));
+        return out.toString();
+    }
+
+    public record Summary(long requests, long errors, double throughput,
+                          double p50Millis, double p99Millis, double p999Millis) {}
+
+    private static final class Samples {
+        private long[] values = new long[1024];
+        private int size;
+        private final AtomicLong errors = new AtomicLong();
+
+        synchronized void add(long nanos) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = nanos;
+        }
+
+        synchronized Summary summarize(double elapsedSeconds) {
+            long[] sorted = Arrays.copyOf(values, size);
+            Arrays.sort(sorted);
+            return new Summary(size, errors.get(), size / elapsedSeconds,
+                    percentile(sorted, 0.50), percentile(sorted, 0.99), percentile(sorted, 0.999));
+        }
+
+        private static double percentile(long[] sorted, double quantile) {
+            if (sorted.length == 0) {
+                return 0;
+            }
+            int index = (int) Math.ceil(quantile * sorted.length) - 1;
+            return sorted[Math.max(index, 0)] / 1_000_000.0;
+        }
+    }
+}
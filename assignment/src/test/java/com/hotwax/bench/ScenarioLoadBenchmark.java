@@ -0,0 +1,200 @@
+package com.hotwax.bench;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Replays the scenarios of the Postman collection (create, get, update item, add item, delete
+ * item, delete order) as closed-loop virtual users against the application booted on an embedded
+ * H2 database in MySQL mode. Each user logs in once, then repeats the scenario chain, carrying the
+ * collection variables ({{current_order_id}}, {{jeans_item_id}}, {{tshirt_item_id}}) from one
+ * response to the next request the way the collection's test scripts do. A paged list request is
+ * inserted after "Get Order Details" so the listing path is part of the mix.
+ *
+ * <pre>
+ * mvn test -Pbenchmark -Dtest=ScenarioLoadBenchmark -Dload.users=50 -Dload.duration-seconds=60
+ * </pre>
+ *
+ * Reports requests, errors, throughput and p50/p99/p99.9 per endpoint, plus completed scenario
+ * iterations per second, to stdout and target/load-report.txt.
+ */
+@Tag("benchmark")
+class ScenarioLoadBenchmark {
+
+    private static final Path COLLECTION = Path.of(System.getProperty("load.collection",
+            "../postman/HotWax_Assignment.postman_collection.json"));
+    private static final int USERS = Integer.getInteger("load.users", 20);
+    private static final long WARMUP_SECONDS = Long.getLong("load.warmup-seconds", 5);
+    private static final long DURATION_SECONDS = Long.getLong("load.duration-seconds", 30);
+    private static final String LIST_PATH = System.getProperty("load.list-path", "/orders?limit=20");
+
+    private static final Pattern VARIABLE = Pattern.compile("\\{\\{(\\w+)}}");
+    private static final Map<String, String> LABELS = Map.of(
+            "current_order_id", "{id}",
+            "jeans_item_id", "{seq}",
+            "tshirt_item_id", "{seq}");
+
+    @Test
+    void replayCollectionScenarios() throws Exception {
+        List<Step> steps = loadScenarios();
+        try (EmbeddedApp app = EmbeddedApp.start("load-scenarios")) {
+            drive(app, steps, WARMUP_SECONDS, new LatencyRecorder(), new AtomicLong());
+
+            LatencyRecorder recorder = new LatencyRecorder();
+            AtomicLong iterations = new AtomicLong();
+            double elapsed = drive(app, steps, DURATION_SECONDS, recorder, iterations);
+
+            String report = LatencyRecorder.format(
+                    "Postman scenarios, " + USERS + " users, " + DURATION_SECONDS + "s", recorder.summarize(elapsed))
+                    + String.format("%nscenario iterations: %d (%.1f/s)%n", iterations.get(), iterations.get() / elapsed);
+            System.out.println(report);
+            Files.writeString(Path.of("target", "load-report.txt"), report);
+        }
+    }
+
+    private List<Step> loadScenarios() throws Exception {
+        JsonNode collection = new ObjectMapper().readTree(COLLECTION.toFile());
+        List<Step> steps = new ArrayList<>();
+        for (JsonNode folder : collection.path("item")) {
+            if (!"Scenarios".equals(folder.path("name").asText())) {
+                continue;
+            }
+            for (JsonNode item : folder.path("item")) {
+                JsonNode request = item.path("request");
+                JsonNode url = request.path("url");
+                String raw = url.isTextual() ? url.asText() : url.path("raw").asText();
+                String path = raw.replaceFirst("^(https?://)?[^/]+", "");
+                steps.add(new Step(item.path("name").asText(), request.path("method").asText(), path,
+                        request.path("body").path("raw").asText(null)));
+                if (item.path("name").asText().startsWith("Scenario 2")) {
+                    steps.add(new Step("List Orders", "GET", LIST_PATH, null));
+                }
+            }
+        }
+        if (steps.isEmpty()) {
+            throw new IllegalStateException("No scenarios found in " + COLLECTION.toAbsolutePath());
+        }
+        return steps;
+    }
+
+    private double drive(EmbeddedApp app, List<Step> steps, long seconds, LatencyRecorder recorder,
+                         AtomicLong iterations) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+        ExecutorService users = Executors.newFixedThreadPool(USERS);
+        long start = System.nanoTime();
+        for (int u = 0; u < USERS; u++) {
+            users.submit(() -> {
+                Map<String, String> variables = new HashMap<>();
+                long loginStart = System.nanoTime();
+                try {
+                    variables.put("token", app.login());
+                    recorder.record("POST /auth/login", System.nanoTime() - loginStart, true);
+                } catch (Exception e) {
+                    recorder.record("POST /auth/login", System.nanoTime() - loginStart, false);
+                    return;
+                }
+                while (System.nanoTime() < deadline) {
+                    if (runScenario(app, steps, variables, recorder)) {
+                        iterations.incrementAndGet();
+                    }
+                }
+            });
+        }
+        users.shutdown();
+        users.awaitTermination(seconds + 60, TimeUnit.SECONDS);
+        return (System.nanoTime() - start) / 1_000_000_000.0;
+    }
+
+    private boolean runScenario(EmbeddedApp app, List<Step> steps, Map<String, String> variables,
+                                LatencyRecorder recorder) {
+        for (Step step : steps) {
+            String path = substitute(step.path(), variables);
+            if (path == null) {
+                return false;
+            }
+            HttpRequest.BodyPublisher body = step.body() == null
+                    ? HttpRequest.BodyPublishers.noBody()
+                    : HttpRequest.BodyPublishers.ofString(step.body());
+            HttpRequest request = app.request(path, variables.get("token")).method(step.method(), body).build();
+
+            long start = System.nanoTime();
+            HttpResponse<String> response;
+            try {
+                response = app.client().send(request, HttpResponse.BodyHandlers.ofString());
+            } catch (Exception e) {
+                recorder.record(step.label(), System.nanoTime() - start, false);
+                return false;
+            }
+            boolean success = response.statusCode() < 400;
+            recorder.record(step.label(), System.nanoTime() - start, success);
+            if (!success || !extract(app, step, response.body(), variables)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /** Mirrors the collection's test scripts: remember the new order id and the item ids by product. */
+    private boolean extract(EmbeddedApp app, Step step, String body, Map<String, String> variables) {
+        try {
+            if (step.name().startsWith("Scenario 1")) {
+                variables.put("current_order_id", app.objectMapper().readTree(body).path("orderId").asText());
+            } else if (step.name().startsWith("Scenario 2")) {
+                variables.remove("tshirt_item_id");
+                variables.remove("jeans_item_id");
+                for (JsonNode item : app.objectMapper().readTree(body).path("orderItems")) {
+                    switch (item.path("productId").asInt()) {
+                        case 1 -> variables.put("tshirt_item_id", item.path("orderItemSeqId").asText());
+                        case 2 -> variables.put("jeans_item_id", item.path("orderItemSeqId").asText());
+                        default -> { }
+                    }
+                }
+            }
+            return true;
+        } catch (Exception e) {
+            return false;
+        }
+    }
+
+    private static String substitute(String template, Map<String, String> variables) {
+        Matcher matcher = VARIABLE.matcher(template);
+        StringBuilder out = new StringBuilder();
+        while (matcher.find()) {
+            String value = variables.get(matcher.group(1));
+            if (value == null) {
+                return null;
+            }
+            matcher.appendReplacement(out, Matcher.quoteReplacement(value));
+        }
+        return matcher.appendTail(out).toString();
+    }
+
+    private record Step(String name, String method, String path, String body) {
+
+        String label() {
+            Matcher matcher = VARIABLE.matcher(path.replaceFirst("\\?.*$", ""));
+            StringBuilder out = new StringBuilder(method).append(' ');
+            while (matcher.find()) {
+                matcher.appendReplacement(out, Matcher.quoteReplacement(LABELS.getOrDefault(matcher.group(1), "{var}")));
+            }
+            return matcher.appendTail(out).toString();
+        }
+    }
+}
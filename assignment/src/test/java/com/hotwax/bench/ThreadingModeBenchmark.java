@@ -0,0 +1,97 @@
+package com.hotwax.bench;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the /orders read endpoints with request handling on the platform-thread Tomcat pool,
+ * with and without the database concurrency limiter, and on virtual threads with the limiter.
+ * Each mode boots its own application on an embedded H2 database, seeds orders through
+ * POST /orders/batch and is then driven by a fixed number of closed-loop clients.
+ *
+ * <pre>
+ * mvn test -Pbenchmark -Dtest=ThreadingModeBenchmark -Dbench.clients=400 -Dbench.duration-seconds=30
+ * </pre>
+ *
+ * Virtual threads need Java 21; on older JVMs only the two platform-thread modes are measured.
+ */
+@Tag("benchmark")
+class ThreadingModeBenchmark {
+
+    private static final int ORDERS = Integer.getInteger("bench.orders", 2000);
+    private static final int CLIENTS = Integer.getInteger("bench.clients", 400);
+    private static final long WARMUP_SECONDS = Long.getLong("bench.warmup-seconds", 5);
+    private static final long DURATION_SECONDS = Long.getLong("bench.duration-seconds", 20);
+
+    @Test
+    void compareThreadingModes() throws Exception {
+        StringBuilder report = new StringBuilder();
+        report.append(run("platform threads (Tomcat pool)", false, false));
+        report.append(run("platform threads + DB limiter", false, true));
+        if (Runtime.version().feature() >= 21) {
+            report.append(run("virtual threads + DB limiter", true, true));
+        } else {
+            report.append("\nVirtual-thread mode skipped: Java ").append(Runtime.version().feature())
+                    .append(" has no virtual threads, run the benchmark on Java 21+.\n");
+        }
+        System.out.println(report);
+    }
+
+    private String run(String title, boolean virtualThreads, boolean limiter) throws Exception {
+        try (EmbeddedApp app = EmbeddedApp.start("bench-" + (virtualThreads ? "virtual" : "platform") + "-" + limiter,
+                "spring.threads.virtual.enabled=" + virtualThreads,
+                "db.limiter.enabled=" + limiter)) {
+            String token = app.login();
+            app.seedOrders(token, ORDERS);
+
+            drive(app, token, WARMUP_SECONDS, new LatencyRecorder());
+            LatencyRecorder recorder = new LatencyRecorder();
+            double elapsed = drive(app, token, DURATION_SECONDS, recorder);
+            return LatencyRecorder.format(title + ", " + CLIENTS + " clients, " + DURATION_SECONDS + "s",
+                    recorder.summarize(elapsed));
+        }
+    }
+
+    private double drive(EmbeddedApp app, String token, long seconds, LatencyRecorder recorder)
+            throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+        ExecutorService clients = Executors.newFixedThreadPool(CLIENTS);
+        long start = System.nanoTime();
+        for (int c = 0; c < CLIENTS; c++) {
+            clients.submit(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                while (System.nanoTime() < deadline) {
+                    if (random.nextBoolean()) {
+                        call(app.client(), recorder, "GET /orders?limit=20",
+                                app.request("/orders?limit=20&after=" + random.nextInt(ORDERS), token).GET().build());
+                    } else {
+                        call(app.client(), recorder, "GET /orders/{id}",
+                                app.request("/orders/" + (1 + random.nextInt(ORDERS)), token).GET().build());
+                    }
+                }
+            });
+        }
+        clients.shutdown();
+        clients.awaitTermination(seconds + 60, TimeUnit.SECONDS);
+        return (System.nanoTime() - start) / 1_000_000_000.0;
+    }
+
+    private void call(HttpClient client, LatencyRecorder recorder, String endpoint, HttpRequest request) {
+        long start = System.nanoTime();
+        boolean success;
+        try {
+            success = client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() < 400;
+        } catch (Exception e) {
+            success = false;
+        }
+        recorder.record(endpoint, System.nanoTime() - start, success);
+    }
+}
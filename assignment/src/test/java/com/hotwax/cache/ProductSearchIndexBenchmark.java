@@ -0,0 +1,62 @@
+package com.hotwax.cache;
+
+import com.hotwax.dto.ProductSuggestionDTO;
+import com.hotwax.model.Product;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/** Top-10 typeahead queries against 500k generated SKUs. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class ProductSearchIndexBenchmark {
+
+    private static final String[] ADJECTIVES = {"Classic", "Slim", "Relaxed", "Vintage", "Sport", "Organic", "Premium", "Light"};
+    private static final String[] NOUNS = {"T-Shirt", "Jeans", "Sneakers", "Jacket", "Hat", "Hoodie", "Chinos", "Boots", "Scarf", "Polo"};
+    private static final String[] COLORS = {"Red", "Blue", "White", "Black", "Green", "Grey", "Navy", "Beige"};
+    private static final String[] SIZES = {"XS", "S", "M", "L", "XL", "28", "30", "32", "34", "OneSize"};
+
+    @Param({"s", "sli", "slim je", "navy boots 32", "vintage scarf xl"})
+    private String query;
+
+    private ProductSearchIndex index;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        List<Product> products = new ArrayList<>();
+        for (int id = 1; id <= 500_000; id++) {
+            Product product = new Product();
+            product.setProductId(id);
+            product.setProductName(ADJECTIVES[random.nextInt(ADJECTIVES.length)] + " "
+                    + NOUNS[random.nextInt(NOUNS.length)] + " " + Integer.toString(id, 36).toUpperCase());
+            product.setColor(COLORS[random.nextInt(COLORS.length)]);
+            product.setSize(SIZES[random.nextInt(SIZES.length)]);
+            products.add(product);
+        }
+        index = new ProductSearchIndex(null);
+        index.load(products);
+    }
+
+    @Benchmark
+    public List<ProductSuggestionDTO> search() {
+        return index.search(query, 10);
+    }
+}
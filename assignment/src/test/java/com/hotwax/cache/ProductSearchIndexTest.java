@@ -0,0 +1,159 @@
+package com.hotwax.cache;
+
+import com.hotwax.dto.ProductSuggestionDTO;
+import com.hotwax.model.Product;
+import com.hotwax.monitoring.SqlStatistics;
+import com.hotwax.repository.ProductRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE, properties =
+        "spring.datasource.url=jdbc:h2:mem:product-search;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1")
+@ActiveProfiles("embedded")
+class ProductSearchIndexTest {
+
+    @Autowired
+    private ProductSearchIndex productSearchIndex;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void sampleProductsAreIndexedAtStartupAndSearchedWithoutSql() {
+        try (SqlStatistics sql = SqlStatistics.open("product search")) {
+            assertThat(productSearchIndex.search("t-sh", 10)).extracting(ProductSuggestionDTO::getProductName)
+                    .containsExactly("T-Shirt");
+            assertThat(productSearchIndex.search("bl", 10)).extracting(ProductSuggestionDTO::getProductName)
+                    .containsExactly("Jacket", "Jeans");
+            assertThat(productSearchIndex.search("blue j", 10)).extracting(ProductSuggestionDTO::getProductName)
+                    .containsExactly("Jeans");
+            assertThat(productSearchIndex.search("bl", 1)).hasSize(1);
+            assertThat(productSearchIndex.search("purple", 10)).isEmpty();
+            assertThat(productSearchIndex.search(" - ", 10)).isEmpty();
+            assertThat(sql.statementsByShape()).isEmpty();
+        }
+    }
+
+    @Test
+    void committedProductChangesAreIndexed() {
+        Product product = new Product();
+        product.setProductName("Wool Scarf");
+        product.setColor("Grey");
+        product.setSize("OneSize");
+        int productId = productRepository.save(product).getProductId();
+        assertThat(productSearchIndex.search("wool sc", 10)).extracting(ProductSuggestionDTO::getProductId)
+                .containsExactly(productId);
+
+        transactionTemplate.executeWithoutResult(status ->
+                productRepository.findById(productId).orElseThrow().setProductName("Cashmere Scarf"));
+        assertThat(productSearchIndex.search("wool", 10)).isEmpty();
+        assertThat(productSearchIndex.search("scarf cash", 10)).extracting(ProductSuggestionDTO::getProductName)
+                .containsExactly("Cashmere Scarf");
+
+        transactionTemplate.executeWithoutResult(status -> {
+            productRepository.findById(productId).orElseThrow().setProductName("Silk Scarf");
+            status.setRollbackOnly();
+        });
+        assertThat(productSearchIndex.search("silk", 10)).isEmpty();
+
+        productRepository.deleteById(productId);
+        assertThat(productSearchIndex.search("scarf", 10)).isEmpty();
+    }
+
+    @Test
+    void multiWordQueriesReturnTheFirstMatchesInNameOrder() {
+        String[] names = {"Slim Jeans", "Classic Jeans", "Slim Jacket", "Vintage Scarf", "Sport Socks", "Jersey Polo"};
+        String[] colors = {"Navy", "Black", "Sand"};
+        Random random = new Random(7);
+        List<Product> products = new ArrayList<>();
+        for (int id = 1; id <= 2000; id++) {
+            Product product = new Product();
+            product.setProductId(id);
+            product.setProductName(names[random.nextInt(names.length)] + " " + id);
+            product.setColor(colors[random.nextInt(colors.length)]);
+            product.setSize(random.nextBoolean() ? "XL" : "S");
+            products.add(product);
+        }
+        ProductSearchIndex index = new ProductSearchIndex(null);
+        index.load(products);
+
+        for (String query : List.of("s", "slim je", "sa sl xl", "j s", "vintage scarf s", "sport 1")) {
+            List<String> words = List.of(query.split(" "));
+            List<Integer> expected = products.stream()
+                    .filter(product -> words.stream().allMatch(word -> words(product).stream().anyMatch(w -> w.startsWith(word))))
+                    .sorted(Comparator.comparing((Product product) -> product.getProductName().toLowerCase(Locale.ROOT))
+                            .thenComparing(Product::getProductId))
+                    .limit(10)
+                    .map(Product::getProductId)
+                    .toList();
+            assertThat(index.search(query, 10)).as(query).extracting(ProductSuggestionDTO::getProductId)
+                    .hasSize(10)
+                    .isEqualTo(expected);
+        }
+    }
+
+    @Test
+    void searchesRacingWithUpdatesStillFinish() throws InterruptedException {
+        List<Product> products = new ArrayList<>();
+        for (int id = 1; id <= 200; id++) {
+            Product product = new Product();
+            product.setProductId(id);
+            product.setProductName("Slim Jeans Denim Cut " + id);
+            product.setColor("Navy");
+            product.setSize("S");
+            products.add(product);
+        }
+        ProductSearchIndex index = new ProductSearchIndex(null);
+        index.load(products);
+        List<Integer> expected = products.stream()
+                .sorted(Comparator.comparing((Product product) -> product.getProductName().toLowerCase(Locale.ROOT)))
+                .limit(10)
+                .map(Product::getProductId)
+                .toList();
+
+        // Recoloring replaces the product in every posting the query reads, and the search reads them one by one.
+        AtomicBoolean searching = new AtomicBoolean(true);
+        Thread recolor = new Thread(() -> {
+            for (int i = 0; searching.get(); i++) {
+                Product product = products.get(i % products.size());
+                product.setColor(product.getColor().equals("Navy") ? "Black" : "Navy");
+                index.put(product);
+            }
+        });
+        recolor.start();
+        try {
+            assertTimeoutPreemptively(Duration.ofSeconds(10), () -> {
+                long end = System.nanoTime() + Duration.ofSeconds(3).toNanos();
+                while (System.nanoTime() < end) {
+                    assertThat(index.search("slim je de cu", 10)).extracting(ProductSuggestionDTO::getProductId)
+                            .isEqualTo(expected);
+                }
+            });
+        } finally {
+            searching.set(false);
+            recolor.join();
+        }
+    }
+
+    private static List<String> words(Product product) {
+        return List.of((product.getProductName() + " " + product.getColor() + " " + product.getSize())
+                .toLowerCase(Locale.ROOT).split(" "));
+    }
+}
@@ -0,0 +1,55 @@
+package com.hotwax.config;
+
+import com.hotwax.model.Product;
+import com.hotwax.monitoring.SqlStatistics;
+import com.hotwax.repository.ProductRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE, properties =
+        "spring.datasource.url=jdbc:h2:mem:entity-cache;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1")
+@ActiveProfiles("embedded")
+class EntityCacheTest {
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void repeatedLookupsAreServedFromTheCache() {
+        productRepository.findById(1).orElseThrow();
+        productRepository.multiLoad(List.of(2, 3));
+
+        try (SqlStatistics sql = SqlStatistics.open("cached lookups")) {
+            assertThat(productRepository.findById(1)).isPresent();
+            assertThat(productRepository.multiLoad(List.of(1, 2, 3))).hasSize(3);
+            assertThat(sql.statementsByShape()).isEmpty();
+        }
+    }
+
+    @Test
+    void updatesReplaceTheCachedEntry() {
+        productRepository.findById(4).orElseThrow();
+
+        transactionTemplate.executeWithoutResult(status -> {
+            Product product = productRepository.findById(4).orElseThrow();
+            product.setProductName("Rain Jacket");
+        });
+
+        assertThat(productRepository.findById(4)).get()
+                .extracting(Product::getProductName)
+                .isEqualTo("Rain Jacket");
+        assertThat(productRepository.multiLoad(List.of(4)))
+                .extracting(Product::getProductName)
+                .containsExactly("Rain Jacket");
+    }
+}
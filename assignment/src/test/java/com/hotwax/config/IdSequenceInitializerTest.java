@@ -0,0 +1,41 @@
+package com.hotwax.config;
+
+import com.hotwax.model.IdSequences;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.spy;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE, properties =
+        "spring.datasource.url=jdbc:h2:mem:id-sequence;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1")
+@ActiveProfiles("embedded")
+class IdSequenceInitializerTest {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    /** Another instance inserts the sequence rows between this one's count and insert. */
+    @Test
+    void losingTheFirstInsertRaceFallsBackToRaising() {
+        jdbcTemplate.update("insert into order_header (order_id, order_date, customer_id, shipping_contact_mech_id, "
+                + "billing_contact_mech_id) values (5000, '2025-01-01', 1, 1, 2)");
+        JdbcTemplate racing = spy(jdbcTemplate);
+        for (String sequence : new String[]{IdSequences.ORDER_HEADER, IdSequences.ORDER_ITEM}) {
+            doReturn(0).when(racing)
+                    .queryForObject(startsWith("select count(*) from " + IdSequences.TABLE), eq(Integer.class), eq(sequence));
+        }
+
+        new IdSequenceInitializer(racing).afterPropertiesSet();
+
+        assertThat(jdbcTemplate.queryForObject("select next_val from " + IdSequences.TABLE + " where sequence_name = ?",
+                Long.class, IdSequences.ORDER_HEADER)).isEqualTo(5000L + IdSequences.ALLOCATION_SIZE);
+        jdbcTemplate.update("delete from order_header");
+    }
+}
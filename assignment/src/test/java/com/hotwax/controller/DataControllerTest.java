@@ -0,0 +1,90 @@
+package com.hotwax.controller;
+
+import com.hotwax.model.Product;
+import com.hotwax.repository.ProductRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:reference-data-api;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1")
+@AutoConfigureMockMvc
+@ActiveProfiles("embedded")
+class DataControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void aMatchingIfNoneMatchGetsNotModified() throws Exception {
+        String etag = fetch("/data/customers");
+        assertThat(etag).startsWith("\"").endsWith("\"");
+        assertThat(fetch("/data/customers")).isEqualTo(etag);
+
+        mockMvc.perform(get("/data/customers").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, etag))
+                .andExpect(content().bytes(new byte[0]));
+
+        mockMvc.perform(get("/data/customers").header(HttpHeaders.IF_NONE_MATCH, "\"stale\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, etag));
+    }
+
+    @Test
+    void aCommittedChangeReplacesTheCachedPayload() throws Exception {
+        String before = fetch("/data/products");
+        String contacts = fetch("/data/contacts");
+
+        transactionTemplate.executeWithoutResult(status -> {
+            Product product = productRepository.findById(5).orElseThrow();
+            product.setProductName("Sun Hat");
+        });
+
+        MvcResult after = mockMvc.perform(get("/data/products").header(HttpHeaders.IF_NONE_MATCH, before))
+                .andExpect(status().isOk())
+                .andReturn();
+        assertThat(after.getResponse().getHeader(HttpHeaders.ETAG)).isNotEqualTo(before);
+        assertThat(after.getResponse().getContentAsString()).contains("Sun Hat");
+        // Only the changed kind of reference data is reloaded.
+        assertThat(fetch("/data/contacts")).isEqualTo(contacts);
+    }
+
+    @Test
+    void aRolledBackChangeKeepsTheCachedPayload() throws Exception {
+        String before = fetch("/data/products");
+
+        transactionTemplate.executeWithoutResult(status -> {
+            Product product = productRepository.findById(4).orElseThrow();
+            product.setProductName("Discarded");
+            productRepository.saveAndFlush(product);
+            status.setRollbackOnly();
+        });
+
+        mockMvc.perform(get("/data/products").header(HttpHeaders.IF_NONE_MATCH, before))
+                .andExpect(status().isNotModified());
+    }
+
+    private String fetch(String path) throws Exception {
+        return mockMvc.perform(get(path))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+    }
+}
@@ -0,0 +1,93 @@
+package com.hotwax.controller;
+
+import com.hotwax.security.JwtUtil;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:order-batch-api;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1")
+@AutoConfigureMockMvc
+@ActiveProfiles("embedded")
+class OrderBatchControllerTest {
+
+    private static final String VALID = """
+            {"customerId": 1, "orderDate": "2025-03-01", "shippingContactMechId": 1, "billingContactMechId": 2,
+             "orderItems": [{"productId": 1, "quantity": 2, "status": "PENDING"}]}""";
+
+    private static final String UNKNOWN_PRODUCT = """
+            {"customerId": 1, "orderDate": "2025-03-01", "shippingContactMechId": 1, "billingContactMechId": 2,
+             "orderItems": [{"productId": 999, "quantity": 1, "status": "PENDING"}]}""";
+
+    private static final String MISSING_ITEMS = """
+            {"customerId": 1, "orderDate": "2025-03-01", "shippingContactMechId": 1, "billingContactMechId": 2}""";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void clean() {
+        jdbcTemplate.update("delete from order_item");
+        jdbcTemplate.update("delete from order_summary");
+        jdbcTemplate.update("delete from order_header");
+    }
+
+    @Test
+    void aFullyValidBatchIsCreated() throws Exception {
+        batch("[" + VALID + "," + VALID + "]")
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.created").value(2))
+                .andExpect(jsonPath("$.failed").value(0))
+                .andExpect(jsonPath("$.results[0].status").value("CREATED"))
+                .andExpect(jsonPath("$.results[1].orderId").isNumber());
+        assertThat(count("order_header")).isEqualTo(2);
+        assertThat(count("order_item")).isEqualTo(2);
+    }
+
+    @Test
+    void invalidOrdersAreReportedByIndexAndTheRestCreated() throws Exception {
+        batch("[" + VALID + "," + UNKNOWN_PRODUCT + "," + MISSING_ITEMS + "]")
+                .andExpect(status().isMultiStatus())
+                .andExpect(jsonPath("$.created").value(1))
+                .andExpect(jsonPath("$.failed").value(2))
+                .andExpect(jsonPath("$.results[0].status").value("CREATED"))
+                .andExpect(jsonPath("$.results[1].index").value(1))
+                .andExpect(jsonPath("$.results[1].status").value("FAILED"))
+                .andExpect(jsonPath("$.results[1].orderId").isEmpty())
+                .andExpect(jsonPath("$.results[2].status").value("FAILED"));
+        assertThat(count("order_header")).isEqualTo(1);
+    }
+
+    @Test
+    void anEmptyBatchIsRejected() throws Exception {
+        batch("[]").andExpect(status().isBadRequest());
+    }
+
+    private ResultActions batch(String body) throws Exception {
+        return mockMvc.perform(post("/orders/batch")
+                .header("Authorization", "Bearer " + jwtUtil.generateToken("admin", "ADMIN"))
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(body));
+    }
+
+    private int count(String table) {
+        return jdbcTemplate.queryForObject("select count(*) from " + table, Integer.class);
+    }
+}
@@ -0,0 +1,62 @@
+package com.hotwax.controller;
+
+import com.hotwax.security.JwtUtil;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:order-export-api;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+        "orders.export.timeout=45m"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("embedded")
+class OrderExportControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private static final String ORDER = """
+            {"customerId": 1, "orderDate": "2025-03-01", "shippingContactMechId": 1, "billingContactMechId": 2,
+             "orderItems": [{"productId": 1, "quantity": 2, "status": "PENDING"}]}""";
+
+    @Test
+    void theExportRunsUnderItsOwnTimeout() throws Exception {
+        String token = "Bearer " + jwtUtil.generateToken("admin", "ADMIN");
+        for (int n = 0; n < 3; n++) {
+            mockMvc.perform(post("/orders").header(HttpHeaders.AUTHORIZATION, token)
+                            .contentType(MediaType.APPLICATION_JSON).content(ORDER))
+                    .andExpect(status().isCreated());
+        }
+
+        MvcResult started = mockMvc.perform(get("/orders/export").header(HttpHeaders.AUTHORIZATION, token))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        assertThat(started.getRequest().getAsyncContext().getTimeout()).isEqualTo(45 * 60 * 1000L);
+
+        String body = mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        assertThat(body.lines()).hasSizeGreaterThanOrEqualTo(3).hasSize(jdbcTemplate.queryForObject("select count(*) from order_header", Integer.class));
+    }
+}
@@ -0,0 +1,111 @@
+package com.hotwax.controller;
+
+import com.hotwax.repository.ProductRepository;
+import com.hotwax.security.JwtUtil;
+import com.jayway.jsonpath.JsonPath;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:order-if-match;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1")
+@AutoConfigureMockMvc
+@ActiveProfiles("embedded")
+class OrderIfMatchTest {
+
+    private static final String ORDER = """
+            {"customerId": 1, "orderDate": "2025-03-01", "shippingContactMechId": 1, "billingContactMechId": 2,
+             "orderItems": [{"productId": 1, "quantity": 2, "status": "PENDING"}]}""";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private String token;
+
+    private String orderPath;
+
+    @BeforeEach
+    void createOrder() throws Exception {
+        token = "Bearer " + jwtUtil.generateToken("admin", "ADMIN");
+        String created = mockMvc.perform(post("/orders")
+                        .header(HttpHeaders.AUTHORIZATION, token)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(ORDER))
+                .andExpect(status().isCreated())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"0\""))
+                .andReturn().getResponse().getContentAsString();
+        orderPath = "/orders/" + JsonPath.read(created, "$.orderId");
+    }
+
+    @Test
+    void anyMatchingStrongTagInTheListAllowsTheWrite() throws Exception {
+        update("\"7\", \"0\"")
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"1\""));
+        update("W/\"0\",\"1\"").andExpect(status().isOk());
+        update("*").andExpect(status().isOk());
+    }
+
+    @Test
+    void weakOrUnknownTagsFailThePrecondition() throws Exception {
+        update("W/\"0\"").andExpect(status().isPreconditionFailed());
+        update("\"3\", \"4\"").andExpect(status().isPreconditionFailed());
+        update("\"00\"").andExpect(status().isPreconditionFailed());
+        update("\"v0\", \"\"").andExpect(status().isPreconditionFailed());
+        update("\"0\"").andExpect(status().isOk());
+    }
+
+    @Test
+    void malformedHeadersAreBadRequests() throws Exception {
+        update("0").andExpect(status().isBadRequest());
+        update("\"0\" \"1\"").andExpect(status().isBadRequest());
+        update("\"0\", *").andExpect(status().isBadRequest());
+        update("\"0").andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void aCopiedRenameMovesTheETag() throws Exception {
+        transactionTemplate.executeWithoutResult(status ->
+                productRepository.findById(1).orElseThrow().setProductName("Renamed Shirt"));
+
+        mockMvc.perform(get(orderPath)
+                        .header(HttpHeaders.AUTHORIZATION, token)
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"0\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"1\""))
+                .andExpect(jsonPath("$.orderItems[0].productName").value("Renamed Shirt"));
+        update("\"0\"").andExpect(status().isPreconditionFailed());
+        update("\"1\"").andExpect(status().isOk());
+    }
+
+    private ResultActions update(String ifMatch) throws Exception {
+        return mockMvc.perform(put(orderPath)
+                .header(HttpHeaders.AUTHORIZATION, token)
+                .header(HttpHeaders.IF_MATCH, ifMatch)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"billingContactMechId\": 1}"));
+    }
+}
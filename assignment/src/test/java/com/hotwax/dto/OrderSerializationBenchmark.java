@@ -0,0 +1,56 @@
+package com.hotwax.dto;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class OrderSerializationBenchmark {
+
+    @Param({"1", "100", "1000"})
+    private int orderCount;
+
+    private ObjectMapper objectMapper;
+    private List<OrderResponseDTO> orders;
+
+    @Setup
+    public void setUp() {
+        // Same defaults Spring MVC uses for its message converter.
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        orders = new ArrayList<>(orderCount);
+        for (int o = 0; o < orderCount; o++) {
+            List<OrderItemResponseDTO> items = new ArrayList<>();
+            for (int i = 0; i < 3; i++) {
+                items.add(new OrderItemResponseDTO(o * 3 + i, 1 + i, "Product " + (1 + i), 1 + i, "PENDING"));
+            }
+            orders.add(new OrderResponseDTO(o + 1, LocalDate.of(2025, 1, 1).plusDays(o % 365), 1 + o % 3,
+                    "John Doe", 1, 2, items, 0L));
+        }
+    }
+
+    @Benchmark
+    public byte[] serializeOrders() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(orders);
+    }
+}
@@ -0,0 +1,75 @@
+package com.hotwax.filter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockAsyncContext;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.IOException;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DbConcurrencyLimitFilterTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final DbConcurrencyLimitFilter filter = new DbConcurrencyLimitFilter(1, Duration.ofMillis(50),
+            new ObjectMapper().registerModule(new JavaTimeModule()), meterRegistry);
+
+    @Test
+    void aRequestWaitingTooLongForAPermitGetsServiceUnavailable() throws ServletException, IOException {
+        MockHttpServletResponse[] nested = new MockHttpServletResponse[1];
+        FilterChain whileInProgress = (request, response) -> nested[0] = call("GET", "/customers/1/orders", new MockFilterChain());
+
+        assertThat(call("GET", "/orders", whileInProgress).getStatus()).isEqualTo(200);
+
+        assertThat(nested[0].getStatus()).isEqualTo(503);
+        assertThat(nested[0].getHeader("Retry-After")).isEqualTo("1");
+        assertThat(meterRegistry.get("db.limiter.rejected").counter().count()).isEqualTo(1);
+        assertThat(available()).isEqualTo(1);
+    }
+
+    @Test
+    void anAsyncRequestHoldsItsPermitUntilItCompletes() throws ServletException, IOException {
+        MockHttpServletRequest export = new MockHttpServletRequest("GET", "/orders/export");
+        export.setAsyncSupported(true);
+        filter.doFilter(export, new MockHttpServletResponse(), (request, response) -> request.startAsync());
+
+        assertThat(available()).isZero();
+        assertThat(call("GET", "/orders", new MockFilterChain()).getStatus()).isEqualTo(503);
+
+        ((MockAsyncContext) export.getAsyncContext()).complete();
+
+        assertThat(available()).isEqualTo(1);
+        assertThat(call("GET", "/orders", new MockFilterChain()).getStatus()).isEqualTo(200);
+    }
+
+    @Test
+    void intakeSubmissionsDoNotTakeAPermit() throws ServletException, IOException {
+        MockHttpServletResponse[] nested = new MockHttpServletResponse[1];
+        FilterChain whileInProgress = (request, response) -> nested[0] = call("POST", "/orders/intake", new MockFilterChain());
+
+        call("GET", "/orders", whileInProgress);
+
+        assertThat(nested[0].getStatus()).isEqualTo(200);
+    }
+
+    private MockHttpServletResponse call(String method, String path, FilterChain chain) throws ServletException, IOException {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, path);
+        request.setServletPath(path);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, chain);
+        return response;
+    }
+
+    private double available() {
+        return meterRegistry.get("db.limiter.available").gauge().value();
+    }
+}
@@ -0,0 +1,165 @@
+package com.hotwax.filter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.hotwax.config.RateLimitProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockAsyncContext;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.io.IOException;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class UserRateLimitFilterTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @AfterEach
+    void logout() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void eachUserGetsABurstAndThenWaits() throws ServletException, IOException {
+        UserRateLimitFilter filter = filter(limit(0.5, 3, 0), limit(0.5, 10, 0));
+
+        for (int i = 0; i < 3; i++) {
+            assertThat(call(filter, "alice", "USER", new MockFilterChain()).getStatus()).isEqualTo(200);
+        }
+        MockHttpServletResponse rejected = call(filter, "alice", "USER", new MockFilterChain());
+        assertThat(rejected.getStatus()).isEqualTo(429);
+        assertThat(rejected.getHeader("Retry-After")).isEqualTo("2");
+        assertThat(rejected.getContentAsString()).contains("Rate limit exceeded");
+
+        assertThat(call(filter, "bob", "USER", new MockFilterChain()).getStatus()).isEqualTo(200);
+        for (int i = 0; i < 10; i++) {
+            assertThat(call(filter, "admin", "ADMIN", new MockFilterChain()).getStatus()).isEqualTo(200);
+        }
+        // Roles without limits of their own get the USER limits.
+        for (int i = 0; i < 3; i++) {
+            assertThat(call(filter, "carol", "AUDITOR", new MockFilterChain()).getStatus()).isEqualTo(200);
+        }
+        assertThat(call(filter, "carol", "AUDITOR", new MockFilterChain()).getStatus()).isEqualTo(429);
+
+        assertThat(count("USER", "admitted")).isEqualTo(7);
+        assertThat(count("USER", "rate_limited")).isEqualTo(2);
+        assertThat(count("ADMIN", "admitted")).isEqualTo(10);
+        assertThat(meterRegistry.get("rate.limit.users").gauge().value()).isEqualTo(4);
+    }
+
+    @Test
+    void requestsBeyondTheConcurrencyLimitAreRejected() throws ServletException, IOException {
+        UserRateLimitFilter filter = filter(limit(0, 1, 1), limit(0, 1, 0));
+        MockHttpServletResponse[] nested = new MockHttpServletResponse[2];
+
+        FilterChain whileInProgress = (request, response) -> {
+            nested[0] = call(filter, "alice", "USER", new MockFilterChain());
+            nested[1] = call(filter, "bob", "USER", new MockFilterChain());
+            login("alice", "USER");
+        };
+        assertThat(call(filter, "alice", "USER", whileInProgress).getStatus()).isEqualTo(200);
+
+        assertThat(nested[0].getStatus()).isEqualTo(429);
+        assertThat(nested[0].getHeader("Retry-After")).isEqualTo("1");
+        assertThat(nested[1].getStatus()).isEqualTo(200);
+        assertThat(call(filter, "alice", "USER", new MockFilterChain()).getStatus()).isEqualTo(200);
+        assertThat(count("USER", "concurrency_limited")).isEqualTo(1);
+    }
+
+    @Test
+    void requestsInProgressOutliveTheUsersBucket() throws ServletException, IOException {
+        RateLimitProperties properties = properties(limit(0, 1, 1), limit(0, 1, 0));
+        properties.setIdleTimeout(Duration.ofMillis(1));
+        UserRateLimitFilter filter = filter(properties);
+        MockHttpServletResponse[] nested = new MockHttpServletResponse[1];
+
+        FilterChain whileInProgress = (request, response) -> {
+            try {
+                Thread.sleep(20);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            nested[0] = call(filter, "alice", "USER", new MockFilterChain());
+        };
+        assertThat(call(filter, "alice", "USER", whileInProgress).getStatus()).isEqualTo(200);
+
+        assertThat(nested[0].getStatus()).isEqualTo(429);
+        assertThat(call(filter, "alice", "USER", new MockFilterChain()).getStatus()).isEqualTo(200);
+    }
+
+    @Test
+    void anAsyncRequestStaysInProgressUntilItCompletes() throws ServletException, IOException {
+        UserRateLimitFilter filter = filter(limit(0, 1, 1), limit(0, 1, 0));
+        login("alice", "USER");
+        MockHttpServletRequest export = new MockHttpServletRequest("GET", "/orders/export");
+        export.setAsyncSupported(true);
+        filter.doFilter(export, new MockHttpServletResponse(), (request, response) -> request.startAsync());
+
+        assertThat(call(filter, "alice", "USER", new MockFilterChain()).getStatus()).isEqualTo(429);
+
+        ((MockAsyncContext) export.getAsyncContext()).complete();
+
+        assertThat(call(filter, "alice", "USER", new MockFilterChain()).getStatus()).isEqualTo(200);
+    }
+
+    @Test
+    void unauthenticatedRequestsPassThrough() throws ServletException, IOException {
+        UserRateLimitFilter filter = filter(limit(0.5, 1, 1), limit(0.5, 1, 1));
+        for (int i = 0; i < 3; i++) {
+            MockHttpServletResponse response = new MockHttpServletResponse();
+            filter.doFilter(new MockHttpServletRequest("GET", "/orders"), response, new MockFilterChain());
+            assertThat(response.getStatus()).isEqualTo(200);
+        }
+    }
+
+    private UserRateLimitFilter filter(RateLimitProperties.Limit user, RateLimitProperties.Limit admin) {
+        return filter(properties(user, admin));
+    }
+
+    private UserRateLimitFilter filter(RateLimitProperties properties) {
+        return new UserRateLimitFilter(properties, new ObjectMapper().registerModule(new JavaTimeModule()), meterRegistry);
+    }
+
+    private static RateLimitProperties properties(RateLimitProperties.Limit user, RateLimitProperties.Limit admin) {
+        RateLimitProperties properties = new RateLimitProperties();
+        properties.getRoles().put("USER", user);
+        properties.getRoles().put("admin", admin);
+        return properties;
+    }
+
+    private MockHttpServletResponse call(UserRateLimitFilter filter, String username, String role, FilterChain chain)
+            throws ServletException, IOException {
+        login(username, role);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest("GET", "/orders"), response, chain);
+        return response;
+    }
+
+    private double count(String role, String outcome) {
+        return meterRegistry.get("rate.limit.requests").tag("role", role).tag("outcome", outcome).counter().count();
+    }
+
+    private static void login(String username, String role) {
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+                username, null, AuthorityUtils.createAuthorityList("ROLE_" + role)));
+    }
+
+    private static RateLimitProperties.Limit limit(double requestsPerSecond, int burst, int maxConcurrent) {
+        RateLimitProperties.Limit limit = new RateLimitProperties.Limit();
+        limit.setRequestsPerSecond(requestsPerSecond);
+        limit.setBurst(burst);
+        limit.setMaxConcurrent(maxConcurrent);
+        return limit;
+    }
+}
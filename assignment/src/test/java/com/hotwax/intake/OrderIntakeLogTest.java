@@ -0,0 +1,100 @@
+package com.hotwax.intake;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class OrderIntakeLogTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void acknowledgedRecordsSurviveReopeningAndATornTailIsCutOff() throws Exception {
+        String logId;
+        long durable;
+        try (OrderIntakeLog log = new OrderIntakeLog(directory, 1 << 20, 1000)) {
+            logId = log.logId();
+            List<CompletableFuture<Long>> appends = IntStream.range(0, 200)
+                    .parallel()
+                    .mapToObj(i -> log.append(("record-" + i).getBytes(StandardCharsets.UTF_8)))
+                    .toList();
+            appends.forEach(CompletableFuture::join);
+            durable = log.durableOffset();
+            assertThat(appends.stream().map(CompletableFuture::join).max(Long::compare)).contains(durable);
+        }
+        try (FileChannel segment = FileChannel.open(onlySegment(), StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            // A record header promising more bytes than were written before the crash.
+            segment.write(ByteBuffer.allocate(10).putInt(100).putInt(0).flip());
+        }
+
+        try (OrderIntakeLog log = new OrderIntakeLog(directory, 1 << 20, 1000)) {
+            assertThat(log.logId()).isEqualTo(logId);
+            assertThat(log.durableOffset()).isEqualTo(durable);
+            log.append("after-restart".getBytes(StandardCharsets.UTF_8)).join();
+
+            List<String> payloads = readAll(log, 0);
+            assertThat(payloads).hasSize(201);
+            assertThat(payloads.subList(0, 200)).containsExactlyInAnyOrderElementsOf(
+                    IntStream.range(0, 200).mapToObj(i -> "record-" + i).toList());
+            assertThat(payloads.get(200)).isEqualTo("after-restart");
+        }
+    }
+
+    @Test
+    void fullSegmentsRollOverAndAreReleasedOnceRead() throws Exception {
+        try (OrderIntakeLog log = new OrderIntakeLog(directory, 100, 1000)) {
+            long offset = 0;
+            for (int i = 0; i < 10; i++) {
+                offset = log.append(new byte[40]).join();
+            }
+            assertThat(segmentCount()).isGreaterThan(3);
+
+            List<OrderIntakeLog.Entry> entries = log.read(0, 100, 0, TimeUnit.MILLISECONDS);
+            assertThat(entries).hasSize(10);
+            assertThat(entries.get(9).nextOffset()).isEqualTo(offset);
+
+            log.release(entries.get(6).nextOffset());
+            assertThat(log.startOffset()).isGreaterThan(0).isLessThanOrEqualTo(entries.get(6).nextOffset());
+            assertThat(log.read(entries.get(7).offset(), 100, 0, TimeUnit.MILLISECONDS)).hasSize(3);
+        }
+        try (OrderIntakeLog log = new OrderIntakeLog(directory, 100, 1000)) {
+            assertThat(log.read(log.startOffset(), 100, 0, TimeUnit.MILLISECONDS)).isNotEmpty();
+        }
+    }
+
+    private static List<String> readAll(OrderIntakeLog log, long from) throws IOException, InterruptedException {
+        List<String> payloads = new ArrayList<>();
+        for (OrderIntakeLog.Entry entry : log.read(from, Integer.MAX_VALUE, 0, TimeUnit.MILLISECONDS)) {
+            payloads.add(new String(entry.payload(), StandardCharsets.UTF_8));
+        }
+        return payloads;
+    }
+
+    private Path onlySegment() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(file -> file.toString().endsWith(".log")).findFirst().orElseThrow();
+        }
+    }
+
+    private long segmentCount() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(file -> file.toString().endsWith(".log")).count();
+        }
+    }
+}
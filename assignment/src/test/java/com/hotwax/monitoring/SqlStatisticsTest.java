@@ -0,0 +1,39 @@
+package com.hotwax.monitoring;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SqlStatisticsTest {
+
+    @Test
+    void shapeCollapsesLiteralsAndParameterLists() {
+        assertEquals("select * from product p1_0 where p1_0.product_id in (?...) and p1_0.color=?",
+                SqlStatistics.shape("select *\n  from product p1_0 where p1_0.product_id in (?, ?,?) and p1_0.color='Red'"));
+        assertEquals(SqlStatistics.shape("select * from order_item where order_id = 7"),
+                SqlStatistics.shape("select * from order_item where order_id = 42"));
+    }
+
+    @Test
+    void statementsCountTowardsEveryOpenScope() {
+        try (SqlStatistics request = SqlStatistics.open("request")) {
+            SqlStatistics.recordStatement("select 1", 1_000);
+            try (SqlStatistics method = SqlStatistics.open("method")) {
+                for (int i = 0; i < 4; i++) {
+                    SqlStatistics.recordStatement("select * from product where product_id = ?", 1_000);
+                    SqlStatistics.recordFetch(true, 500);
+                }
+                assertEquals(4, method.statements());
+                assertEquals(4, method.rows());
+                assertEquals(Map.of("select * from product where product_id = ?", 4), method.repeatedStatements(3));
+            }
+            SqlStatistics.recordStatement("select 2", 1_000);
+            assertEquals(6, request.statements());
+            assertEquals(8_000, request.jdbcTime().toNanos());
+            assertTrue(request.repeatedStatements(4).isEmpty());
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package com.hotwax.routing;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Two embedded databases stand in for a primary and its replica; a third replica URL points at
+ * nothing. The replica does not exist until the first test copies the primary into it, so it starts
+ * out ejected and has to be re-admitted by the health check. Which database served a statement is
+ * told by its name.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE, properties = {
+        "spring.datasource.url=jdbc:h2:mem:routing-primary;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+        "db.replicas.enabled=true",
+        "db.replicas.urls=jdbc:h2:tcp://localhost:1/unreachable," + ReplicaRoutingDataSourceTest.REPLICA_URL + ";IFEXISTS=TRUE",
+        "db.replicas.connection-timeout=250ms",
+        "db.replicas.health-check-interval=100ms",
+        "db.replicas.read-your-writes-window=500ms"
+})
+@ActiveProfiles("embedded")
+class ReplicaRoutingDataSourceTest {
+
+    static final String REPLICA_URL = "jdbc:h2:mem:routing-replica;MODE=MySQL;DATABASE_TO_LOWER=TRUE";
+
+    /** Keeps the replica database open for the rest of the run. */
+    private static Connection replica;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @BeforeEach
+    void startReplica() throws SQLException, InterruptedException {
+        if (replica == null) {
+            assertThat(database(true)).isEqualTo("routing-primary");
+            replica = DriverManager.getConnection(REPLICA_URL, "sa", "");
+            try (Statement statement = replica.createStatement()) {
+                for (String sql : jdbcTemplate.queryForList("script nopasswords nosettings", String.class)) {
+                    statement.execute(sql);
+                }
+            }
+            for (int i = 0; i < 200 && meterRegistry.get("db.replicas.healthy").gauge().value() < 1; i++) {
+                Thread.sleep(50);
+            }
+        }
+    }
+
+    @AfterEach
+    void logout() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void readOnlyTransactionsGoToHealthyReplicas() {
+        for (int i = 0; i < 4; i++) {
+            assertThat(database(true)).isEqualTo("routing-replica");
+        }
+        assertThat(database(false)).isEqualTo("routing-primary");
+        assertThat(jdbcTemplate.queryForObject("select database()", String.class)).isEqualTo("routing-primary");
+
+        assertThat(meterRegistry.get("db.replicas.healthy").gauge().value()).isEqualTo(1);
+        assertThat(meterRegistry.get("db.routing.reads").tag("target", "replica-1").counter().count()).isZero();
+    }
+
+    @Test
+    void aUserReadsFromThePrimaryRightAfterWriting() throws InterruptedException {
+        login("alice");
+        database(false);
+        assertThat(database(true)).isEqualTo("routing-primary");
+
+        login("bob");
+        assertThat(database(true)).isEqualTo("routing-replica");
+
+        Thread.sleep(700);
+        login("alice");
+        assertThat(database(true)).isEqualTo("routing-replica");
+    }
+
+    private String database(boolean readOnly) {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setReadOnly(readOnly);
+        return transaction.execute(status -> jdbcTemplate.queryForObject("select database()", String.class));
+    }
+
+    private static void login(String username) {
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(username, null, AuthorityUtils.createAuthorityList("ROLE_USER")));
+    }
+}
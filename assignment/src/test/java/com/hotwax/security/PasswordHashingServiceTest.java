@@ -0,0 +1,128 @@
+package com.hotwax.security;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:password-hashing;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+        "auth.hashing.pool-size=1",
+        "auth.hashing.queue-capacity=1",
+        "auth.hashing.timeout=2s"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("embedded")
+class PasswordHashingServiceTest {
+
+    @MockitoBean
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private PasswordHashingService passwordHashingService;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final ExecutorService callers = Executors.newFixedThreadPool(2);
+
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    @BeforeEach
+    void blockHashing() {
+        when(passwordEncoder.encode(any())).thenAnswer(invocation -> {
+            release.await();
+            return "hashed";
+        });
+    }
+
+    @AfterEach
+    void releaseHashing() throws InterruptedException {
+        release.countDown();
+        callers.shutdown();
+        assertThat(callers.awaitTermination(5, TimeUnit.SECONDS)).isTrue();
+    }
+
+    @Test
+    void aFullQueueIsAnsweredWithServiceUnavailable() throws Exception {
+        double rejected = rejectedCount();
+        Future<String> running = callers.submit(() -> passwordHashingService.encode("first"));
+        // The second task must wait for the first to leave the queue, or it would be the one rejected.
+        awaitGauge("auth.hashing.active", 1);
+        Future<String> queued = callers.submit(() -> passwordHashingService.encode("second"));
+        awaitGauge("auth.hashing.queue.depth", 1);
+
+        long start = System.nanoTime();
+        register("queue-full")
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string(HttpHeaders.RETRY_AFTER, "1"))
+                .andExpect(jsonPath("$.status").value(503))
+                .andExpect(jsonPath("$.message").value("Authentication is busy, please retry"));
+        // Rejected at submission, without waiting for the hashing timeout.
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofSeconds(1));
+        assertThat(rejectedCount()).isEqualTo(rejected + 1);
+
+        release.countDown();
+        assertThat(running.get(5, TimeUnit.SECONDS)).isEqualTo("hashed");
+        assertThat(queued.get(5, TimeUnit.SECONDS)).isEqualTo("hashed");
+    }
+
+    @Test
+    void hashingThatOutlivesTheTimeoutIsAnsweredWithServiceUnavailable() throws Exception {
+        double rejected = rejectedCount();
+
+        register("timed-out")
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string(HttpHeaders.RETRY_AFTER, "1"))
+                .andExpect(jsonPath("$.message").value("Authentication is busy, please retry"));
+        assertThat(rejectedCount()).isEqualTo(rejected + 1);
+        // The timed-out task is cancelled, so the worker is free again.
+        awaitGauge("auth.hashing.active", 0);
+    }
+
+    private ResultActions register(String username) throws Exception {
+        return mockMvc.perform(post("/auth/register")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"username\": \"" + username + "\", \"password\": \"secret-password\"}"));
+    }
+
+    private void awaitGauge(String name, double expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (meterRegistry.get(name).gauge().value() != expected) {
+            assertThat(System.nanoTime()).as("%s reaching %s", name, expected).isLessThan(deadline);
+            Thread.sleep(10);
+        }
+    }
+
+    private double rejectedCount() {
+        return meterRegistry.get("auth.hashing.rejected").counter().count();
+    }
+}
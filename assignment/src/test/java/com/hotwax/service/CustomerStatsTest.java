@@ -0,0 +1,170 @@
+package com.hotwax.service;
+
+import com.hotwax.dto.ArchiveJobDTO;
+import com.hotwax.dto.CustomerOrdersDTO;
+import com.hotwax.dto.OrderItemDTO;
+import com.hotwax.dto.OrderItemUpdateDTO;
+import com.hotwax.dto.OrderRequestDTO;
+import com.hotwax.dto.OrderResponseDTO;
+import jakarta.persistence.EntityNotFoundException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/** Customer stats must always equal the aggregates computed from the order tables. */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE, properties = {
+        "spring.datasource.url=jdbc:h2:mem:customer-stats;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+        "orders.archive.chunk-size=2",
+        "orders.archive.pause=0ms"
+})
+@ActiveProfiles("embedded")
+class CustomerStatsTest {
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private OrderBatchService orderBatchService;
+
+    @Autowired
+    private OrderArchiveService orderArchiveService;
+
+    @Autowired
+    private CustomerService customerService;
+
+    @Autowired
+    private CustomerStatsService customerStatsService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void clean() {
+        for (String table : List.of("order_item_archive", "order_header_archive", "order_summary", "order_item", "order_header")) {
+            jdbcTemplate.update("delete from " + table);
+        }
+        customerStatsService.rebuildAll();
+    }
+
+    @Test
+    void everyOrderWriteKeepsTheStatsInStep() throws InterruptedException {
+        OrderResponseDTO created = orderService.createOrder(orderRequest(1, LocalDate.of(2025, 3, 1), 2, 3));
+        int orderId = created.getOrderId();
+        assertStatsMatchOrders();
+
+        int added = orderService.addOrderItem(orderId, orderItem(4)).body().getOrderItemSeqId();
+        OrderItemUpdateDTO update = new OrderItemUpdateDTO();
+        update.setQuantity(9);
+        orderService.updateOrderItem(orderId, created.getOrderItems().get(0).getOrderItemSeqId(), update, null);
+        orderService.deleteOrderItem(orderId, added, null);
+        assertStatsMatchOrders();
+
+        orderBatchService.createOrders(List.of(
+                orderRequest(2, LocalDate.of(2020, 5, 1), 1),
+                orderRequest(1, LocalDate.of(2021, 5, 1), 5, 5),
+                orderRequest(2, LocalDate.of(2025, 6, 1), 2)));
+        assertStatsMatchOrders();
+
+        orderService.deleteOrder(orderId, null);
+        assertThat(customerService.getOrders(1, null, 10).getLastOrderDate()).isEqualTo(LocalDate.of(2021, 5, 1));
+        assertStatsMatchOrders();
+
+        ArchiveJobDTO job = orderArchiveService.start(LocalDate.of(2024, 1, 1), false);
+        for (int i = 0; i < 200 && orderArchiveService.get(job.getJobId()).getState().equals("RUNNING"); i++) {
+            Thread.sleep(50);
+        }
+        assertThat(orderArchiveService.get(job.getJobId()).getState()).isEqualTo("COMPLETED");
+        assertThat(customerService.getOrders(1, null, 10).getOrderCount()).isZero();
+        assertStatsMatchOrders();
+    }
+
+    @Test
+    void historyPagesRunNewestFirst() {
+        List<OrderRequestDTO> orders = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            orders.add(orderRequest(3, LocalDate.of(2025, 1, 1 + i % 3), 1));
+            orders.add(orderRequest(2, LocalDate.of(2025, 2, 1), 1));
+        }
+        orderBatchService.createOrders(orders);
+        List<Integer> expected = jdbcTemplate.queryForList(
+                "select order_id from order_header where customer_id = 3 order by order_date desc, order_id desc", Integer.class);
+        // Orders without a summary, one of them the last of the first page, are still listed in place.
+        jdbcTemplate.update("delete from order_summary where order_id in (?, ?)", expected.get(2), expected.get(4));
+
+        List<Integer> found = new ArrayList<>();
+        String after = null;
+        do {
+            CustomerOrdersDTO page = customerService.getOrders(3, after, 3);
+            assertThat(page.getOrderCount()).isEqualTo(8);
+            assertThat(page.getItemQuantity()).isEqualTo(8);
+            assertThat(page.getLastOrderDate()).isEqualTo(LocalDate.of(2025, 1, 3));
+            page.getOrders().forEach(order -> found.add(order.getOrderId()));
+            after = page.getNextCursor();
+        } while (after != null);
+        assertThat(found).isEqualTo(expected);
+
+        assertThat(customerService.getOrders(1, null, 10).getOrders()).isEmpty();
+        assertThatThrownBy(() -> customerService.getOrders(999, null, 10)).isInstanceOf(EntityNotFoundException.class);
+    }
+
+    @Test
+    void missingStatsAreComputedFromTheOrders() {
+        orderBatchService.createOrders(List.of(orderRequest(2, LocalDate.of(2025, 4, 1), 3, 4)));
+        jdbcTemplate.update("delete from customer_stats");
+
+        assertThat(customerStatsService.rebuildMissing()).isEqualTo(3);
+        assertStatsMatchOrders();
+    }
+
+    private void assertStatsMatchOrders() {
+        List<Map<String, Object>> expected = jdbcTemplate.queryForList("""
+                select c.customer_id, count(distinct o.order_id) as order_count, coalesce(sum(i.quantity), 0) as item_quantity,
+                       max(o.order_date) as last_order_date
+                from customer c
+                left join order_header o on o.customer_id = c.customer_id
+                left join order_item i on i.order_id = o.order_id
+                group by c.customer_id order by c.customer_id
+                """);
+        List<Map<String, Object>> actual = jdbcTemplate.queryForList(
+                "select customer_id, order_count, item_quantity, last_order_date from customer_stats order by customer_id");
+        assertThat(actual).hasSameSizeAs(expected);
+        for (int n = 0; n < expected.size(); n++) {
+            assertThat(actual.get(n).values().stream().map(String::valueOf).toList())
+                    .isEqualTo(expected.get(n).values().stream().map(String::valueOf).toList());
+        }
+    }
+
+    private static OrderRequestDTO orderRequest(int customerId, LocalDate orderDate, int... quantities) {
+        OrderRequestDTO request = new OrderRequestDTO();
+        request.setCustomerId(customerId);
+        request.setOrderDate(orderDate);
+        request.setShippingContactMechId(1);
+        request.setBillingContactMechId(1);
+        List<OrderItemDTO> items = new ArrayList<>();
+        for (int quantity : quantities) {
+            OrderItemDTO item = orderItem(quantity);
+            items.add(item);
+        }
+        request.setOrderItems(items);
+        return request;
+    }
+
+    private static OrderItemDTO orderItem(int quantity) {
+        OrderItemDTO item = new OrderItemDTO();
+        item.setProductId(quantity % 5 + 1);
+        item.setQuantity(quantity);
+        item.setStatus("PENDING");
+        return item;
+    }
+}
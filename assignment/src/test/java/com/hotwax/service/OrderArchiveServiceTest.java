@@ -0,0 +1,147 @@
+package com.hotwax.service;
+
+import com.hotwax.dto.ArchiveJobDTO;
+import com.hotwax.dto.OrderItemDTO;
+import com.hotwax.dto.OrderRequestDTO;
+import com.hotwax.exception.ArchiveJobRunningException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE, properties = {
+        "spring.datasource.url=jdbc:h2:mem:order-archive;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+        "orders.archive.chunk-size=2",
+        "orders.archive.pause=0ms"
+})
+@ActiveProfiles("embedded")
+class OrderArchiveServiceTest {
+
+    private static final LocalDate CUTOFF = LocalDate.of(2024, 1, 1);
+
+    @Autowired
+    private OrderArchiveService orderArchiveService;
+
+    @Autowired
+    private OrderBatchService orderBatchService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    /** Five orders from 2020 and three from 2025, each with two items. */
+    @BeforeEach
+    void seed() {
+        for (String table : List.of("order_item_archive", "order_header_archive", "order_summary", "order_item", "order_header")) {
+            jdbcTemplate.update("delete from " + table);
+        }
+        List<OrderRequestDTO> orders = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            orders.add(orderRequest(i < 5 ? LocalDate.of(2020, 6, 1 + i) : LocalDate.of(2025, 6, 1 + i)));
+        }
+        orderBatchService.createOrders(orders);
+    }
+
+    @Test
+    void oldOrdersAreCopiedToTheArchiveAndRemovedInChunks() throws InterruptedException {
+        long orderCount = customerStat("order_count");
+        long itemQuantity = customerStat("item_quantity");
+        long rolledUpOrders = rolledUpBeforeCutoff("daily_order_rollup", "order_count");
+        long rolledUpQuantity = rolledUpBeforeCutoff("daily_item_rollup", "quantity");
+
+        ArchiveJobDTO job = awaitCompletion(orderArchiveService.start(CUTOFF, false));
+
+        assertThat(job.getState()).isEqualTo("COMPLETED");
+        assertThat(job.getOrdersProcessed()).isEqualTo(5);
+        assertThat(job.getItemsProcessed()).isEqualTo(10);
+        assertThat(job.getChunks()).isEqualTo(3);
+        assertThat(count("order_header_archive where order_date < '2024-01-01'")).isEqualTo(5);
+        assertThat(count("order_item_archive")).isEqualTo(10);
+        assertThat(count("order_header where order_date < '2024-01-01'")).isZero();
+        assertThat(count("order_summary where order_date < '2024-01-01'")).isZero();
+        assertThat(count("order_header")).isEqualTo(3);
+        assertThat(count("order_summary")).isEqualTo(3);
+        assertThat(count("order_item")).isEqualTo(6);
+        assertThat(customerStat("order_count")).isEqualTo(orderCount - 5);
+        assertThat(customerStat("item_quantity")).isEqualTo(itemQuantity - 20);
+        // Archived orders still count in the history.
+        assertThat(rolledUpBeforeCutoff("daily_order_rollup", "order_count")).isEqualTo(rolledUpOrders);
+        assertThat(rolledUpBeforeCutoff("daily_item_rollup", "quantity")).isEqualTo(rolledUpQuantity);
+    }
+
+    @Test
+    void purgeDeletesWithoutArchiving() throws InterruptedException {
+        long orderCount = customerStat("order_count");
+        long itemQuantity = customerStat("item_quantity");
+        long rolledUpOrders = rolledUpBeforeCutoff("daily_order_rollup", "order_count");
+        long rolledUpQuantity = rolledUpBeforeCutoff("daily_item_rollup", "quantity");
+
+        ArchiveJobDTO job = awaitCompletion(orderArchiveService.start(CUTOFF, true));
+
+        assertThat(job.getState()).isEqualTo("COMPLETED");
+        assertThat(job.getOrdersProcessed()).isEqualTo(5);
+        assertThat(count("order_header_archive")).isZero();
+        assertThat(count("order_header")).isEqualTo(3);
+        assertThat(customerStat("order_count")).isEqualTo(orderCount - 5);
+        assertThat(customerStat("item_quantity")).isEqualTo(itemQuantity - 20);
+        assertThat(rolledUpBeforeCutoff("daily_order_rollup", "order_count")).isEqualTo(rolledUpOrders - 5);
+        assertThat(rolledUpBeforeCutoff("daily_item_rollup", "quantity")).isEqualTo(rolledUpQuantity - 20);
+    }
+
+    @Test
+    void aSecondJobIsRefusedWhileOneRuns() throws InterruptedException {
+        ArchiveJobDTO running = orderArchiveService.start(CUTOFF, false);
+
+        assertThatThrownBy(() -> orderArchiveService.start(CUTOFF, true))
+                .isInstanceOf(ArchiveJobRunningException.class)
+                .hasMessageContaining(running.getJobId());
+        assertThat(awaitCompletion(running).getState()).isEqualTo("COMPLETED");
+    }
+
+    private ArchiveJobDTO awaitCompletion(ArchiveJobDTO job) throws InterruptedException {
+        for (int i = 0; i < 200 && job.getState().equals("RUNNING"); i++) {
+            Thread.sleep(50);
+            job = orderArchiveService.get(job.getJobId());
+        }
+        return job;
+    }
+
+    private long customerStat(String column) {
+        return jdbcTemplate.queryForObject("select coalesce(sum(" + column + "), 0) from customer_stats where customer_id = 2", Long.class);
+    }
+
+    private long rolledUpBeforeCutoff(String table, String column) {
+        return jdbcTemplate.queryForObject("select coalesce(sum(" + column + "), 0) from " + table
+                + " where order_date < ?", Long.class, CUTOFF);
+    }
+
+    private int count(String tableAndFilter) {
+        return jdbcTemplate.queryForObject("select count(*) from " + tableAndFilter, Integer.class);
+    }
+
+    private static OrderRequestDTO orderRequest(LocalDate orderDate) {
+        OrderRequestDTO request = new OrderRequestDTO();
+        request.setCustomerId(2);
+        request.setOrderDate(orderDate);
+        request.setShippingContactMechId(3);
+        request.setBillingContactMechId(3);
+        request.setOrderItems(List.of(orderItem(1), orderItem(4)));
+        return request;
+    }
+
+    private static OrderItemDTO orderItem(int productId) {
+        OrderItemDTO item = new OrderItemDTO();
+        item.setProductId(productId);
+        item.setQuantity(2);
+        item.setStatus("DELIVERED");
+        return item;
+    }
+}
@@ -0,0 +1,200 @@
+package com.hotwax.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hotwax.dto.OrderIntakeStatusDTO;
+import com.hotwax.dto.OrderItemDTO;
+import com.hotwax.dto.OrderRequestDTO;
+import com.hotwax.exception.GlobalExceptionHandler;
+import com.hotwax.exception.IntakeAppendTimeoutException;
+import com.hotwax.intake.OrderIntakeLog;
+import com.hotwax.repository.OrderIntakeRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowableOfType;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE, properties = {
+        "spring.datasource.url=jdbc:h2:mem:order-intake;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+        "orders.intake.enabled=true",
+        "orders.intake.batch-size=3"
+})
+@ActiveProfiles("embedded")
+class OrderIntakeServiceTest {
+
+    @DynamicPropertySource
+    static void intakeDirectory(DynamicPropertyRegistry registry) throws IOException {
+        Path directory = Files.createTempDirectory("order-intake");
+        registry.add("orders.intake.dir", directory::toString);
+    }
+
+    @Autowired
+    private OrderIntakeService orderIntakeService;
+
+    @Autowired
+    private OrderBatchService orderBatchService;
+
+    @Autowired
+    private OrderWriteLimiter orderWriteLimiter;
+
+    @Autowired
+    private OrderIntakeRepository orderIntakeRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @BeforeEach
+    void clean() {
+        jdbcTemplate.update("delete from order_summary");
+        jdbcTemplate.update("delete from order_item");
+        jdbcTemplate.update("delete from order_header");
+    }
+
+    @Test
+    void acceptedOrdersAreWrittenInTheBackground() throws InterruptedException {
+        List<String> trackingIds = new ArrayList<>();
+        for (int i = 0; i < 7; i++) {
+            OrderIntakeStatusDTO status = orderIntakeService.submit(orderRequest(i == 3 ? 999 : 1));
+            assertThat(status.getState()).isEqualTo("ACCEPTED");
+            trackingIds.add(status.getTrackingId());
+        }
+
+        List<OrderIntakeStatusDTO> statuses = new ArrayList<>();
+        for (String trackingId : trackingIds) {
+            statuses.add(awaitProcessed(orderIntakeService, trackingId));
+        }
+
+        assertThat(statuses).extracting(OrderIntakeStatusDTO::getState)
+                .containsExactly("CREATED", "CREATED", "CREATED", "FAILED", "CREATED", "CREATED", "CREATED");
+        assertThat(statuses.get(3).getMessage()).contains("999");
+        assertThat(jdbcTemplate.queryForObject("select count(*) from order_header", Integer.class)).isEqualTo(6);
+        assertThat(jdbcTemplate.queryForObject("select count(*) from order_summary where order_id = ?", Integer.class,
+                statuses.get(0).getOrderId())).isEqualTo(1);
+    }
+
+    /**
+     * A log left behind by a crash: three orders were accepted, and the first was written to the
+     * database before the process died. Only the other two may be written on restart.
+     */
+    @Test
+    void aRestartReplaysWhatWasAcceptedButNotWritten() throws Exception {
+        Path directory = Files.createTempDirectory("order-intake-crash");
+        List<String> trackingIds = new ArrayList<>();
+        try (OrderIntakeLog log = new OrderIntakeLog(directory, DataSize.ofMegabytes(1).toBytes(), 10)) {
+            for (int i = 0; i < 3; i++) {
+                String trackingId = "crash-" + i;
+                long offset = log.append(objectMapper.writeValueAsBytes(
+                        new OrderIntakeService.IntakeRecord(trackingId, orderRequest(2)))).join();
+                trackingIds.add(trackingId);
+                if (i == 0) {
+                    int orderId = orderBatchService.createOrders(List.of(orderRequest(2))).getResults().get(0).getOrderId();
+                    jdbcTemplate.update("insert into order_intake (tracking_id, log_id, log_offset, state, order_id, processed_at) "
+                            + "values (?, ?, ?, 'CREATED', ?, current_timestamp)", trackingId, log.logId(), offset, orderId);
+                }
+            }
+        }
+
+        OrderIntakeService restarted = new OrderIntakeService(orderBatchService, orderWriteLimiter, orderIntakeRepository, jdbcTemplate,
+                transactionTemplate, objectMapper, new SimpleMeterRegistry(), directory, DataSize.ofMegabytes(1), 10, 100,
+                Duration.ofMillis(100), Duration.ofSeconds(5));
+        restarted.afterPropertiesSet();
+        try {
+            for (String trackingId : trackingIds) {
+                assertThat(awaitProcessed(restarted, trackingId).getState()).isEqualTo("CREATED");
+            }
+        } finally {
+            restarted.destroy();
+        }
+        assertThat(jdbcTemplate.queryForObject("select count(*) from order_header where customer_id = 2", Integer.class))
+                .isEqualTo(3);
+    }
+
+    /**
+     * An append that is not on disk within the timeout is answered as busy, but the record is
+     * already queued for the log, so its tracking ID stays pending until the writer gets to it.
+     */
+    @Test
+    void aSlowAppendIsRejectedButKeepsItsTrackingId() throws Exception {
+        Path directory = Files.createTempDirectory("order-intake-slow");
+        OrderIntakeService impatient = new OrderIntakeService(orderBatchService, orderWriteLimiter, orderIntakeRepository, jdbcTemplate,
+                transactionTemplate, objectMapper, new SimpleMeterRegistry(), directory, DataSize.ofMegabytes(1), 10, 100,
+                Duration.ofMillis(100), Duration.ofMillis(50)) {
+            @Override
+            OrderIntakeLog openLog() throws IOException {
+                return new OrderIntakeLog(directory, DataSize.ofMegabytes(1).toBytes(), 10) {
+                    @Override
+                    public CompletableFuture<Long> append(byte[] payload) {
+                        // Acknowledged long after the submitter has stopped waiting.
+                        return super.append(payload).thenApplyAsync(offset -> offset,
+                                CompletableFuture.delayedExecutor(500, TimeUnit.MILLISECONDS));
+                    }
+                };
+            }
+        };
+        impatient.afterPropertiesSet();
+        try {
+            IntakeAppendTimeoutException rejected = catchThrowableOfType(IntakeAppendTimeoutException.class,
+                    () -> impatient.submit(orderRequest(3)));
+            assertThat(rejected.getTrackingId()).isNotBlank();
+            ResponseEntity<?> response = new GlobalExceptionHandler().handleIntakeAppendTimeoutException(rejected);
+            assertThat(response.getStatusCode().value()).isEqualTo(503);
+            assertThat(response.getHeaders().getLocation()).hasToString("/orders/intake/" + rejected.getTrackingId());
+
+            OrderIntakeStatusDTO status = awaitProcessed(impatient, rejected.getTrackingId());
+            assertThat(status.getState()).isEqualTo("CREATED");
+            assertThat(jdbcTemplate.queryForObject("select customer_id from order_header where order_id = ?",
+                    Integer.class, status.getOrderId())).isEqualTo(3);
+        } finally {
+            impatient.destroy();
+        }
+    }
+
+    private static OrderIntakeStatusDTO awaitProcessed(OrderIntakeService service, String trackingId) throws InterruptedException {
+        OrderIntakeStatusDTO status = service.get(trackingId);
+        for (int i = 0; i < 200 && status.getState().equals("ACCEPTED"); i++) {
+            Thread.sleep(50);
+            status = service.get(trackingId);
+        }
+        return status;
+    }
+
+    private static OrderRequestDTO orderRequest(int customerId) {
+        OrderRequestDTO request = new OrderRequestDTO();
+        request.setCustomerId(customerId);
+        request.setOrderDate(LocalDate.of(2025, 5, 1));
+        request.setShippingContactMechId(1);
+        request.setBillingContactMechId(1);
+        OrderItemDTO item = new OrderItemDTO();
+        item.setProductId(2);
+        item.setQuantity(1);
+        item.setStatus("PENDING");
+        request.setOrderItems(List.of(item));
+        return request;
+    }
+}
@@ -0,0 +1,132 @@
+package com.hotwax.service;
+
+import com.hotwax.dto.ItemStatusTransitionDTO;
+import com.hotwax.dto.ItemStatusTransitionResultDTO;
+import com.hotwax.dto.OrderItemDTO;
+import com.hotwax.dto.OrderRequestDTO;
+import com.hotwax.dto.OrderResponseDTO;
+import com.hotwax.repository.OrderHeaderRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE, properties = {
+        "spring.datasource.url=jdbc:h2:mem:item-status;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+        "orders.status.chunk-size=4"
+})
+@ActiveProfiles("embedded")
+class OrderItemStatusServiceTest {
+
+    @Autowired
+    private OrderItemStatusService orderItemStatusService;
+
+    @Autowired
+    private OrderBatchService orderBatchService;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private OrderHeaderRepository orderHeaderRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private List<Integer> orderIds;
+
+    /** Five orders, each with a T-Shirt (product 1) and Jeans (product 2) item, all ALLOCATED. */
+    @BeforeEach
+    void seed() {
+        jdbcTemplate.update("delete from order_summary");
+        jdbcTemplate.update("delete from order_item");
+        jdbcTemplate.update("delete from order_header");
+        orderBatchService.createOrders(IntStream.range(0, 5).mapToObj(i -> orderRequest()).toList());
+        orderIds = jdbcTemplate.queryForList("select order_id from order_header order by order_id", Integer.class);
+    }
+
+    @Test
+    void filterIsAppliedInChunksAndSummariesFollow() {
+        ItemStatusTransitionDTO request = transition("SHIPPED");
+        request.setFromStatus("ALLOCATED");
+        request.setProductId(1);
+
+        ItemStatusTransitionResultDTO result = orderItemStatusService.transition(request);
+
+        assertThat(result.getItemsUpdated()).isEqualTo(5);
+        assertThat(result.getOrdersUpdated()).isEqualTo(5);
+        assertThat(result.getChunks()).isEqualTo(2);
+        for (int orderId : orderIds) {
+            OrderResponseDTO order = orderService.getOrderById(orderId);
+            assertThat(order).isEqualTo(normalized(orderId));
+            assertThat(order.getVersion()).isEqualTo(1);
+            assertThat(order.getOrderItems())
+                    .extracting(item -> item.getProductId() + ":" + item.getStatus())
+                    .containsExactly("1:SHIPPED", "2:ALLOCATED");
+        }
+
+        assertThat(orderItemStatusService.transition(request).getItemsUpdated()).isZero();
+    }
+
+    @Test
+    void explicitItemsAndOrdersLeaveTheRestAlone() {
+        int firstOrder = orderIds.get(0);
+        List<Integer> items = jdbcTemplate.queryForList(
+                "select order_item_seq_id from order_item where order_id = ? order by order_item_seq_id", Integer.class, firstOrder);
+        ItemStatusTransitionDTO request = transition("CANCELLED");
+        request.setOrderItemSeqIds(items);
+        request.setOrderIds(List.of(firstOrder, orderIds.get(1)));
+
+        ItemStatusTransitionResultDTO result = orderItemStatusService.transition(request);
+
+        assertThat(result.getItemsUpdated()).isEqualTo(2);
+        assertThat(result.getOrdersUpdated()).isEqualTo(1);
+        assertThat(orderService.getOrderById(firstOrder)).isEqualTo(normalized(firstOrder));
+        assertThat(orderService.getOrderById(orderIds.get(1)).getVersion()).isZero();
+        assertThat(jdbcTemplate.queryForObject("select count(*) from order_item where status = 'CANCELLED'", Integer.class))
+                .isEqualTo(2);
+    }
+
+    @Test
+    void aTransitionNeedsAFilter() {
+        assertThatThrownBy(() -> orderItemStatusService.transition(transition("SHIPPED")))
+                .isInstanceOf(IllegalStateException.class);
+    }
+
+    private OrderResponseDTO normalized(int orderId) {
+        return OrderRows.group(orderHeaderRepository.findRowsByOrderId(orderId)).get(0);
+    }
+
+    private static ItemStatusTransitionDTO transition(String toStatus) {
+        ItemStatusTransitionDTO request = new ItemStatusTransitionDTO();
+        request.setToStatus(toStatus);
+        return request;
+    }
+
+    private static OrderRequestDTO orderRequest() {
+        OrderRequestDTO request = new OrderRequestDTO();
+        request.setCustomerId(1);
+        request.setOrderDate(LocalDate.of(2025, 2, 1));
+        request.setShippingContactMechId(1);
+        request.setBillingContactMechId(2);
+        request.setOrderItems(List.of(orderItem(1), orderItem(2)));
+        return request;
+    }
+
+    private static OrderItemDTO orderItem(int productId) {
+        OrderItemDTO item = new OrderItemDTO();
+        item.setProductId(productId);
+        item.setQuantity(1);
+        item.setStatus("ALLOCATED");
+        return item;
+    }
+}
@@ -0,0 +1,185 @@
+package com.hotwax.service;
+
+import com.hotwax.AssignmentApplication;
+import com.hotwax.dto.OrderItemDTO;
+import com.hotwax.dto.OrderItemResponseDTO;
+import com.hotwax.dto.OrderPageDTO;
+import com.hotwax.dto.OrderRequestDTO;
+import com.hotwax.dto.OrderResponseDTO;
+import com.hotwax.model.OrderHeader;
+import com.hotwax.model.OrderItem;
+import com.hotwax.repository.OrderHeaderRepository;
+import jakarta.persistence.EntityManager;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Three ways to read orders on an embedded H2 database: through managed entities (join-fetched
+ * header, customer, items and products, then copied into DTOs), through the tuple projection of
+ * {@link OrderHeaderRepository#ORDER_ROWS} grouped by {@link OrderRows}, and from the
+ * {@code order_summary} read model that {@link OrderService} serves. Run with {@code -prof gc} to
+ * compare allocation per read.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OrderReadPathBenchmark {
+
+    private static final int ORDERS = 200;
+    private static final int PAGE_SIZE = 50;
+
+    @Param({"1", "10", "50"})
+    private int itemCount;
+
+    private ConfigurableApplicationContext context;
+    private OrderService orderService;
+    private OrderHeaderRepository orderHeaderRepository;
+    private EntityManager entityManager;
+    private TransactionTemplate readOnly;
+    private int orderId;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(AssignmentApplication.class)
+                .web(WebApplicationType.NONE)
+                .profiles("embedded")
+                .run("--spring.datasource.url=jdbc:h2:mem:read-path;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+                        "--sql.stats.enabled=false",
+                        "--logging.level.root=WARN");
+        orderService = context.getBean(OrderService.class);
+        orderHeaderRepository = context.getBean(OrderHeaderRepository.class);
+        entityManager = context.getBean(EntityManager.class);
+        readOnly = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        readOnly.setReadOnly(true);
+
+        context.getBean(OrderBatchService.class).createOrders(IntStream.range(0, ORDERS)
+                .mapToObj(i -> orderRequest(itemCount))
+                .toList());
+        orderId = orderService.getAllOrders(null, ORDERS).getOrders().get(ORDERS / 2).getOrderId();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public OrderResponseDTO getOrderByIdEntities() {
+        return readOnly.execute(status -> {
+            OrderHeader header = entityManager.createQuery(
+                            "select o from OrderHeader o join fetch o.customer where o.orderId = :orderId", OrderHeader.class)
+                    .setParameter("orderId", orderId)
+                    .getSingleResult();
+            return toDto(header, itemsOf(List.of(orderId)));
+        });
+    }
+
+    @Benchmark
+    public OrderResponseDTO getOrderByIdProjection() {
+        return readOnly.execute(status -> OrderRows.group(orderHeaderRepository.findRowsByOrderId(orderId)).get(0));
+    }
+
+    @Benchmark
+    public OrderResponseDTO getOrderByIdSummary() {
+        return orderService.getOrderById(orderId);
+    }
+
+    @Benchmark
+    public List<OrderResponseDTO> getPageEntities() {
+        return readOnly.execute(status -> {
+            List<OrderHeader> headers = entityManager.createQuery(
+                            "select o from OrderHeader o join fetch o.customer order by o.orderId", OrderHeader.class)
+                    .setMaxResults(PAGE_SIZE)
+                    .getResultList();
+            Map<Integer, List<OrderItem>> items = itemsOf(headers.stream().map(OrderHeader::getOrderId).toList())
+                    .stream()
+                    .collect(Collectors.groupingBy(OrderItem::getOrderId));
+            return headers.stream()
+                    .map(header -> toDto(header, items.getOrDefault(header.getOrderId(), List.of())))
+                    .toList();
+        });
+    }
+
+    @Benchmark
+    public List<OrderResponseDTO> getPageProjection() {
+        return readOnly.execute(status -> OrderRows.group(orderHeaderRepository.findRowsByOrderIdIn(
+                orderHeaderRepository.findIdsAfter(0, Limit.of(PAGE_SIZE)))));
+    }
+
+    @Benchmark
+    public OrderPageDTO getPageSummary() {
+        return orderService.getAllOrders(null, PAGE_SIZE);
+    }
+
+    private List<OrderItem> itemsOf(List<Integer> orderIds) {
+        return entityManager.createQuery("select i from OrderItem i join fetch i.product "
+                        + "where i.orderId in :orderIds order by i.orderId, i.orderItemSeqId", OrderItem.class)
+                .setParameter("orderIds", orderIds)
+                .getResultList();
+    }
+
+    private static OrderResponseDTO toDto(OrderHeader header, List<OrderItem> items) {
+        return new OrderResponseDTO(
+                header.getOrderId(),
+                header.getOrderDate(),
+                header.getCustomer().getCustomerId(),
+                header.getCustomer().getFirstName() + " " + header.getCustomer().getLastName(),
+                header.getShippingContactMech().getContactMechId(),
+                header.getBillingContactMech().getContactMechId(),
+                items.stream()
+                        .map(item -> new OrderItemResponseDTO(
+                                item.getOrderItemSeqId(),
+                                item.getProduct().getProductId(),
+                                item.getProduct().getProductName(),
+                                item.getQuantity(),
+                                item.getStatus()))
+                        .collect(Collectors.toList()),
+                header.getVersion());
+    }
+
+    private static OrderRequestDTO orderRequest(int items) {
+        OrderRequestDTO request = new OrderRequestDTO();
+        request.setCustomerId(1);
+        request.setOrderDate(LocalDate.of(2025, 1, 1));
+        request.setShippingContactMechId(1);
+        request.setBillingContactMechId(2);
+        List<OrderItemDTO> orderItems = new ArrayList<>();
+        for (int i = 0; i < items; i++) {
+            OrderItemDTO item = new OrderItemDTO();
+            item.setProductId(1 + i % 5);
+            item.setQuantity(1);
+            item.setStatus("PENDING");
+            orderItems.add(item);
+        }
+        request.setOrderItems(orderItems);
+        return request;
+    }
+}
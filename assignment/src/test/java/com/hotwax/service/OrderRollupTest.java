@@ -0,0 +1,195 @@
+package com.hotwax.service;
+
+import com.hotwax.config.OrderRollupInitializer;
+import com.hotwax.dto.ArchiveJobDTO;
+import com.hotwax.dto.DailyItemCountDTO;
+import com.hotwax.dto.ItemStatusTransitionDTO;
+import com.hotwax.dto.OrderItemDTO;
+import com.hotwax.dto.OrderItemUpdateDTO;
+import com.hotwax.dto.OrderRequestDTO;
+import com.hotwax.dto.OrderResponseDTO;
+import org.assertj.core.groups.Tuple;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.DefaultApplicationArguments;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/** The daily rollups must always equal the aggregates computed from the live and archived orders. */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE, properties = {
+        "spring.datasource.url=jdbc:h2:mem:order-rollup;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+        "orders.archive.pause=0ms",
+        "orders.status.chunk-size=2",
+        "orders.rollup.backfill-days=3"
+})
+@ActiveProfiles("embedded")
+class OrderRollupTest {
+
+    private static final String EXPECTED_ORDERS_SQL = """
+            select order_date, count(*) from (
+                select order_date from order_header union all select order_date from order_header_archive
+            ) o group by order_date order by order_date
+            """;
+    private static final String EXPECTED_ITEMS_SQL = """
+            select order_date, product_id, status, count(*), sum(quantity) from (
+                select h.order_date, i.product_id, i.status, i.quantity from order_header h join order_item i on i.order_id = h.order_id
+                union all
+                select a.order_date, ai.product_id, ai.status, ai.quantity
+                from order_header_archive a join order_item_archive ai on ai.order_id = a.order_id
+            ) o group by order_date, product_id, status order by order_date, product_id, status
+            """;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private OrderBatchService orderBatchService;
+
+    @Autowired
+    private OrderItemStatusService orderItemStatusService;
+
+    @Autowired
+    private OrderArchiveService orderArchiveService;
+
+    @Autowired
+    private OrderRollupService orderRollupService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void clean() {
+        for (String table : List.of("order_item_archive", "order_header_archive", "order_summary", "order_item", "order_header",
+                "daily_item_rollup", "daily_order_rollup")) {
+            jdbcTemplate.update("delete from " + table);
+        }
+    }
+
+    @Test
+    void everyOrderWriteKeepsTheRollupsInStep() throws InterruptedException {
+        OrderResponseDTO created = orderService.createOrder(orderRequest(LocalDate.of(2025, 3, 1), 1, 2));
+        int orderId = created.getOrderId();
+        int added = orderService.addOrderItem(orderId, orderItem(3, 4)).body().getOrderItemSeqId();
+        OrderItemUpdateDTO update = new OrderItemUpdateDTO();
+        update.setQuantity(7);
+        update.setStatus("SHIPPED");
+        orderService.updateOrderItem(orderId, created.getOrderItems().get(0).getOrderItemSeqId(), update, null);
+        orderService.deleteOrderItem(orderId, added, null);
+        assertRollupsMatchOrders();
+
+        orderBatchService.createOrders(List.of(
+                orderRequest(LocalDate.of(2020, 5, 1), 1, 1),
+                orderRequest(LocalDate.of(2021, 5, 1), 2, 3),
+                orderRequest(LocalDate.of(2022, 5, 1), 4),
+                orderRequest(LocalDate.of(2025, 3, 1), 1, 5)));
+        ItemStatusTransitionDTO transition = new ItemStatusTransitionDTO();
+        transition.setFromStatus("PENDING");
+        transition.setToStatus("ALLOCATED");
+        orderItemStatusService.transition(transition);
+        assertRollupsMatchOrders();
+
+        orderService.deleteOrder(orderId, null);
+        assertRollupsMatchOrders();
+
+        awaitCompletion(orderArchiveService.start(LocalDate.of(2021, 1, 1), false));
+        awaitCompletion(orderArchiveService.start(LocalDate.of(2023, 1, 1), true));
+        assertThat(jdbcTemplate.queryForObject("select count(*) from order_header_archive", Integer.class)).isEqualTo(1);
+        assertRollupsMatchOrders();
+
+        assertThat(orderRollupService.getDailyItems(LocalDate.of(2020, 1, 1), LocalDate.of(2020, 12, 31), 1, null))
+                .extracting(DailyItemCountDTO::getItemCount, DailyItemCountDTO::getQuantity)
+                .containsExactly(Tuple.tuple(2L, 2L));
+    }
+
+    @Test
+    void backfillRecomputesTheRollupsFromTheOrderTables() throws InterruptedException {
+        List<OrderRequestDTO> orders = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            orders.add(orderRequest(LocalDate.of(2025, 1, 1).plusDays(i), i % 5 + 1, 2));
+        }
+        orderBatchService.createOrders(orders);
+        awaitCompletion(orderArchiveService.start(LocalDate.of(2025, 1, 4), false));
+        jdbcTemplate.update("update daily_item_rollup set quantity = 99");
+        jdbcTemplate.update("insert into daily_order_rollup (order_date, order_count) values (?, 5)", LocalDate.of(2026, 1, 1));
+
+        assertThat(orderRollupService.backfill()).isEqualTo(366);
+
+        assertRollupsMatchOrders();
+        assertThat(orderRollupService.getDailyOrders(LocalDate.of(2025, 1, 1), LocalDate.of(2025, 1, 31))).hasSize(10);
+    }
+
+    @Test
+    void aNormalStartLeavesMissingRollupsToTheExplicitBackfill() {
+        orderBatchService.createOrders(List.of(orderRequest(LocalDate.of(2025, 6, 1), 1, 1)));
+        jdbcTemplate.update("delete from daily_order_rollup");
+        jdbcTemplate.update("delete from daily_item_rollup");
+        assertThat(orderRollupService.needsBackfill()).isTrue();
+
+        new OrderRollupInitializer(orderRollupService, null).run(new DefaultApplicationArguments());
+
+        assertThat(jdbcTemplate.queryForObject("select count(*) from daily_order_rollup", Integer.class)).isZero();
+        orderRollupService.backfill();
+        assertThat(orderRollupService.needsBackfill()).isFalse();
+        assertRollupsMatchOrders();
+    }
+
+    @Test
+    void rangesAreBounded() {
+        assertThatThrownBy(() -> orderRollupService.getDailyOrders(LocalDate.of(2025, 2, 1), LocalDate.of(2025, 1, 1)))
+                .isInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(() -> orderRollupService.getDailyItems(LocalDate.of(2024, 1, 1), LocalDate.of(2025, 1, 1), null, null))
+                .isInstanceOf(IllegalStateException.class);
+    }
+
+    private void assertRollupsMatchOrders() {
+        assertThat(rows("select order_date, order_count from daily_order_rollup where order_count <> 0 order by order_date"))
+                .isEqualTo(rows(EXPECTED_ORDERS_SQL));
+        assertThat(rows("select order_date, product_id, status, item_count, quantity from daily_item_rollup "
+                + "where item_count <> 0 order by order_date, product_id, status"))
+                .isEqualTo(rows(EXPECTED_ITEMS_SQL));
+    }
+
+    private List<List<String>> rows(String sql) {
+        return jdbcTemplate.queryForList(sql).stream()
+                .map(row -> row.values().stream().map(String::valueOf).toList())
+                .toList();
+    }
+
+    private void awaitCompletion(ArchiveJobDTO job) throws InterruptedException {
+        for (int i = 0; i < 200 && orderArchiveService.get(job.getJobId()).getState().equals("RUNNING"); i++) {
+            Thread.sleep(50);
+        }
+        assertThat(orderArchiveService.get(job.getJobId()).getState()).isEqualTo("COMPLETED");
+    }
+
+    private static OrderRequestDTO orderRequest(LocalDate orderDate, int... productIds) {
+        OrderRequestDTO request = new OrderRequestDTO();
+        request.setCustomerId(1);
+        request.setOrderDate(orderDate);
+        request.setShippingContactMechId(1);
+        request.setBillingContactMechId(1);
+        List<OrderItemDTO> items = new ArrayList<>();
+        for (int productId : productIds) {
+            items.add(orderItem(productId, 1));
+        }
+        request.setOrderItems(items);
+        return request;
+    }
+
+    private static OrderItemDTO orderItem(int productId, int quantity) {
+        OrderItemDTO item = new OrderItemDTO();
+        item.setProductId(productId);
+        item.setQuantity(quantity);
+        item.setStatus("PENDING");
+        return item;
+    }
+}
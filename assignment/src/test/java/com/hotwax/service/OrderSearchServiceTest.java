@@ -0,0 +1,165 @@
+package com.hotwax.service;
+
+import com.hotwax.dto.OrderItemDTO;
+import com.hotwax.dto.OrderRequestDTO;
+import com.hotwax.dto.OrderResponseDTO;
+import com.hotwax.dto.OrderSearchCriteria;
+import com.hotwax.dto.OrderSearchPageDTO;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE, properties =
+        "spring.datasource.url=jdbc:h2:mem:order-search;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1")
+@ActiveProfiles("embedded")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class OrderSearchServiceTest {
+
+    private static final String[] STATUSES = {"PENDING", "ALLOCATED", "SHIPPED", "DELIVERED"};
+
+    @Autowired
+    private OrderSearchService orderSearchService;
+
+    @Autowired
+    private OrderBatchService orderBatchService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    /** 600 orders over three customers and two years, each with two items in varying status. */
+    @BeforeAll
+    void seed() {
+        jdbcTemplate.update("delete from order_summary");
+        jdbcTemplate.update("delete from order_item");
+        jdbcTemplate.update("delete from order_header");
+        List<OrderRequestDTO> orders = new ArrayList<>();
+        for (int i = 0; i < 600; i++) {
+            orders.add(orderRequest(i % 3 + 1, LocalDate.of(2024, 1, 1).plusDays(i % 700),
+                    orderItem(i % 5 + 1, STATUSES[i % 4]), orderItem((i + 2) % 5 + 1, STATUSES[i / 4 % 4])));
+        }
+        orderBatchService.createOrders(orders);
+        jdbcTemplate.execute("analyze");
+    }
+
+    /** Combinations with item filters but neither a customer nor a closed short date range are rejected. */
+    @Test
+    void everyFilterCombinationIsAnIndexRangeScan() {
+        List<Consumer<OrderSearchCriteria>> filters = List.of(
+                c -> c.setCustomerId(2),
+                c -> c.setFrom(LocalDate.of(2024, 6, 1)),
+                c -> c.setTo(LocalDate.of(2024, 6, 20)),
+                c -> c.setStatus("SHIPPED"),
+                c -> c.setProductId(3));
+        for (int mask = 1; mask < 1 << filters.size(); mask++) {
+            for (String after : new String[]{null, "2024-05-01:100"}) {
+                OrderSearchCriteria criteria = new OrderSearchCriteria();
+                for (int f = 0; f < filters.size(); f++) {
+                    if ((mask & 1 << f) != 0) {
+                        filters.get(f).accept(criteria);
+                    }
+                }
+                criteria.setAfter(after);
+                boolean itemFilter = criteria.getStatus() != null || criteria.getProductId() != null;
+                if (itemFilter && criteria.getCustomerId() == null && (criteria.getFrom() == null || criteria.getTo() == null)) {
+                    assertThatThrownBy(() -> orderSearchService.query(criteria)).as(criteria.toString())
+                            .isInstanceOf(IllegalStateException.class);
+                    continue;
+                }
+                OrderSearchQuery query = orderSearchService.query(criteria);
+                String plan = jdbcTemplate.queryForObject("explain " + query.sql(), String.class, query.args().toArray());
+
+                assertThat(plan).as(criteria.toString()).doesNotContain("tableScan").contains(expectedIndex(criteria));
+                if (itemFilter) {
+                    assertThat(plan).as(criteria.toString()).contains("idx_order_item_order");
+                }
+            }
+        }
+    }
+
+    @Test
+    void pagesFollowOrderDateThenOrderId() {
+        OrderSearchCriteria criteria = new OrderSearchCriteria();
+        criteria.setCustomerId(1);
+        criteria.setFrom(LocalDate.of(2024, 3, 1));
+        criteria.setStatus("PENDING");
+        criteria.setLimit(7);
+        List<Integer> expected = jdbcTemplate.queryForList("""
+                select o.order_id from order_header o
+                where o.customer_id = 1 and o.order_date >= '2024-03-01'
+                  and exists (select 1 from order_item i where i.order_id = o.order_id and i.status = 'PENDING')
+                order by o.order_date, o.order_id
+                """, Integer.class);
+
+        List<Integer> found = new ArrayList<>();
+        int pages = 0;
+        do {
+            OrderSearchPageDTO page = orderSearchService.search(criteria);
+            page.getOrders().forEach(order -> assertThat(order.getCustomerId()).isEqualTo(1));
+            page.getOrders().stream().map(OrderResponseDTO::getOrderId).forEach(found::add);
+            criteria.setAfter(page.getNextCursor());
+            pages++;
+        } while (criteria.getAfter() != null);
+
+        assertThat(expected).hasSizeGreaterThan(7);
+        assertThat(found).isEqualTo(expected);
+        assertThat(pages).isEqualTo((expected.size() + 6) / 7);
+    }
+
+    @Test
+    void aSearchNeedsAFilter() {
+        assertThatThrownBy(() -> orderSearchService.search(new OrderSearchCriteria()))
+                .isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void itemFiltersNeedACustomerOrAShortDateRange() {
+        OrderSearchCriteria criteria = new OrderSearchCriteria();
+        criteria.setStatus("PENDING");
+        criteria.setFrom(LocalDate.of(2024, 1, 1));
+        criteria.setTo(LocalDate.of(2024, 1, 1).plusDays(OrderSearchService.MAX_ITEM_FILTER_DAYS));
+        assertThatThrownBy(() -> orderSearchService.search(criteria))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("customerId");
+
+        criteria.setTo(criteria.getTo().minusDays(1));
+        assertThat(orderSearchService.search(criteria).getOrders()).isNotEmpty();
+
+        criteria.setFrom(null);
+        criteria.setCustomerId(2);
+        assertThat(orderSearchService.search(criteria).getOrders()).isNotEmpty();
+    }
+
+    private static String expectedIndex(OrderSearchCriteria criteria) {
+        return criteria.getCustomerId() != null ? "idx_order_header_customer_date" : "idx_order_header_date";
+    }
+
+    private static OrderRequestDTO orderRequest(int customerId, LocalDate orderDate, OrderItemDTO... items) {
+        OrderRequestDTO request = new OrderRequestDTO();
+        request.setCustomerId(customerId);
+        request.setOrderDate(orderDate);
+        request.setShippingContactMechId(1);
+        request.setBillingContactMechId(1);
+        request.setOrderItems(List.of(items));
+        return request;
+    }
+
+    private static OrderItemDTO orderItem(int productId, String status) {
+        OrderItemDTO item = new OrderItemDTO();
+        item.setProductId(productId);
+        item.setQuantity(1);
+        item.setStatus(status);
+        return item;
+    }
+}
@@ -0,0 +1,115 @@
+package com.hotwax.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hotwax.dto.OrderItemResponseDTO;
+import com.hotwax.dto.OrderResponseDTO;
+import com.hotwax.model.OrderSummary;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Building one order response, for 1/10/100 items:
+ * <ul>
+ *   <li>{@code readSummaryResponse}: the per-row work of GET /orders and GET /orders/{id}, which
+ *       decode the summary's {@code order_items} JSON into item DTOs and construct the response
+ *       (Jackson with the defaults of Hibernate's JSON format mapper);</li>
+ *   <li>{@code summaryToResponse}: the response of a write, copied from the locked summary;</li>
+ *   <li>{@code groupOrderRows}: grouping joined rows, as summaries are built and the export reads.</li>
+ * </ul>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class OrderServiceBenchmark {
+
+    private static final TypeReference<List<OrderItemResponseDTO>> ITEMS = new TypeReference<>() {};
+
+    @Param({"1", "10", "100"})
+    private int itemCount;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+    private final OrderSummaryService orderSummaryService = new OrderSummaryService(null, null, null, null, null);
+
+    private List<Object[]> rows;
+    private OrderSummary summary;
+    private String itemsJson;
+
+    @Setup
+    public void setUp() throws JsonProcessingException {
+        rows = BenchmarkData.orderRows(1, itemCount);
+        OrderResponseDTO order = OrderRows.group(rows).get(0);
+        summary = BenchmarkData.orderSummary(order);
+        itemsJson = objectMapper.writeValueAsString(order.getOrderItems());
+    }
+
+    @Benchmark
+    public OrderResponseDTO readSummaryResponse() throws JsonProcessingException {
+        return new OrderResponseDTO(
+                summary.getOrderId(),
+                summary.getOrderDate(),
+                summary.getCustomerId(),
+                summary.getCustomerName(),
+                summary.getShippingContactMechId(),
+                summary.getBillingContactMechId(),
+                objectMapper.readValue(itemsJson, ITEMS),
+                summary.getVersion()
+        );
+    }
+
+    @Benchmark
+    public OrderResponseDTO summaryToResponse() {
+        return orderSummaryService.toResponse(summary);
+    }
+
+    @Benchmark
+    public List<OrderResponseDTO> groupOrderRows() {
+        return OrderRows.group(rows);
+    }
+
+    static final class BenchmarkData {
+
+        /** Rows shaped like {@code OrderHeaderRepository.ORDER_ROWS}. */
+        static List<Object[]> orderRows(int orderId, int itemCount) {
+            List<Object[]> rows = new ArrayList<>(itemCount);
+            for (int i = 0; i < itemCount; i++) {
+                rows.add(new Object[]{
+                        orderId, LocalDate.of(2025, 1, 1), 1, "John", "Doe", 1, 2,
+                        orderId * 1000 + i, 1 + i % 5, "Product " + (1 + i % 5), 1 + i % 4, "PENDING", 0L
+                });
+            }
+            return rows;
+        }
+
+        static OrderSummary orderSummary(OrderResponseDTO order) {
+            OrderSummary summary = new OrderSummary();
+            summary.setOrderId(order.getOrderId());
+            summary.setOrderDate(order.getOrderDate());
+            summary.setCustomerId(order.getCustomerId());
+            summary.setCustomerName(order.getCustomerName());
+            summary.setShippingContactMechId(order.getShippingContactMechId());
+            summary.setBillingContactMechId(order.getBillingContactMechId());
+            summary.setOrderItems(new ArrayList<>(order.getOrderItems()));
+            summary.setVersion(order.getVersion());
+            return summary;
+        }
+    }
+}
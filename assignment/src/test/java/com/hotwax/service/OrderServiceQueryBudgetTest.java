@@ -0,0 +1,211 @@
+package com.hotwax.service;
+
+import com.hotwax.dto.OrderItemDTO;
+import com.hotwax.dto.OrderItemUpdateDTO;
+import com.hotwax.dto.OrderRequestDTO;
+import com.hotwax.dto.OrderUpdateDTO;
+import com.hotwax.monitoring.SqlStatistics;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Fixed SQL budgets for every public {@link OrderService} method. Each method runs against a
+ * small and a large seeded dataset (more orders and more items per order, including the order
+ * being touched, each item on its own product) and must stay within the same statement budget on
+ * both, so anything that starts to scale with order or item count fails here. Reads are a single
+ * lookup on the order summary and load no entities at all; writes load only what they modify or
+ * validate, plus the summary row they patch.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE, properties = {
+        "spring.datasource.url=jdbc:h2:mem:query-budget;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "logging.level.org.hibernate.engine.internal.StatisticalLoggingSessionEventListener=WARN"
+})
+@ActiveProfiles("embedded")
+class OrderServiceQueryBudgetTest {
+
+    private static final int PAGE_SIZE = 20;
+    private static final int CUSTOMERS = 3;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private OrderBatchService orderBatchService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    record Dataset(String name, int orders, int itemsPerOrder) {
+        @Override
+        public String toString() {
+            return name + " (" + orders + " orders x " + itemsPerOrder + " items)";
+        }
+    }
+
+    record Usage(int statements, long entities) {}
+
+    static Stream<Dataset> datasets() {
+        return Stream.of(new Dataset("small", 3, 1), new Dataset("large", 400, 40));
+    }
+
+    @ParameterizedTest
+    @MethodSource("datasets")
+    void getAllOrders(Dataset dataset) {
+        seed(dataset);
+        Usage usage = measure(() -> orderService.getAllOrders(null, PAGE_SIZE));
+        assertThat(usage.statements()).isLessThanOrEqualTo(1);
+        assertThat(usage.entities()).isZero();
+    }
+
+    @ParameterizedTest
+    @MethodSource("datasets")
+    void getOrderById(Dataset dataset) {
+        int orderId = seed(dataset);
+        Usage usage = measure(() -> orderService.getOrderById(orderId));
+        assertThat(usage.statements()).isLessThanOrEqualTo(1);
+        assertThat(usage.entities()).isZero();
+    }
+
+    @ParameterizedTest
+    @MethodSource("datasets")
+    void createOrder(Dataset dataset) {
+        seed(dataset);
+        OrderRequestDTO request = orderRequest(dataset.itemsPerOrder());
+        Usage usage = measure(() -> orderService.createOrder(request));
+        // customer, 2 contacts, products, header insert, item batch, summary insert, customer stats
+        // update, 2 rollup upserts, plus one allocation round (select + update) for each of the two
+        // ID generators
+        assertThat(usage.statements()).isLessThanOrEqualTo(14);
+        assertThat(usage.entities()).isLessThanOrEqualTo(3 + dataset.itemsPerOrder());
+    }
+
+    @ParameterizedTest
+    @MethodSource("datasets")
+    void updateOrder(Dataset dataset) {
+        int orderId = seed(dataset);
+        OrderUpdateDTO update = new OrderUpdateDTO();
+        update.setShippingContactMechId(2);
+        update.setBillingContactMechId(1);
+        Usage usage = measure(() -> orderService.updateOrder(orderId, update, null));
+        // summary lock, 2 contacts, header update, summary update
+        assertThat(usage.statements()).isLessThanOrEqualTo(5);
+        assertThat(usage.entities()).isLessThanOrEqualTo(3);
+    }
+
+    @ParameterizedTest
+    @MethodSource("datasets")
+    void deleteOrder(Dataset dataset) {
+        int orderId = seed(dataset);
+        Usage usage = measure(() -> orderService.deleteOrder(orderId, null));
+        // summary lock, summary, items and header deletes, customer stats update, 2 rollup upserts
+        assertThat(usage.statements()).isLessThanOrEqualTo(7);
+        assertThat(usage.entities()).isLessThanOrEqualTo(1);
+    }
+
+    @ParameterizedTest
+    @MethodSource("datasets")
+    void addOrderItem(Dataset dataset) {
+        int orderId = seed(dataset);
+        OrderItemDTO item = orderItem(3);
+        Usage usage = measure(() -> orderService.addOrderItem(orderId, item));
+        // summary lock, product, insert, version bump, customer stats update, rollup upsert, summary
+        // update, plus one ID allocation round
+        assertThat(usage.statements()).isLessThanOrEqualTo(9);
+        assertThat(usage.entities()).isLessThanOrEqualTo(2);
+    }
+
+    @ParameterizedTest
+    @MethodSource("datasets")
+    void updateOrderItem(Dataset dataset) {
+        int orderId = seed(dataset);
+        int orderItemSeqId = firstItemOf(orderId);
+        OrderItemUpdateDTO update = new OrderItemUpdateDTO();
+        update.setQuantity(7);
+        update.setStatus("SHIPPED");
+        Usage usage = measure(() -> orderService.updateOrderItem(orderId, orderItemSeqId, update, null));
+        assertThat(usage.statements()).isLessThanOrEqualTo(6);
+        assertThat(usage.entities()).isLessThanOrEqualTo(1);
+    }
+
+    @ParameterizedTest
+    @MethodSource("datasets")
+    void deleteOrderItem(Dataset dataset) {
+        int orderId = seed(dataset);
+        int orderItemSeqId = firstItemOf(orderId);
+        Usage usage = measure(() -> orderService.deleteOrderItem(orderId, orderItemSeqId, null));
+        assertThat(usage.statements()).isLessThanOrEqualTo(6);
+        assertThat(usage.entities()).isLessThanOrEqualTo(1);
+    }
+
+    private Usage measure(Runnable call) {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        try (SqlStatistics sql = SqlStatistics.open("query budget")) {
+            call.run();
+            return new Usage(sql.statements(), statistics.getEntityLoadCount());
+        }
+    }
+
+    /** Replaces all orders with the dataset and returns the ID of an order in the middle of it. */
+    private int seed(Dataset dataset) {
+        int products = jdbcTemplate.queryForObject("select count(*) from product", Integer.class);
+        for (int p = products; p < dataset.itemsPerOrder(); p++) {
+            jdbcTemplate.update("insert into product (product_name, color, size) values (?, 'Grey', 'M')", "Product " + p);
+        }
+        jdbcTemplate.update("delete from order_summary");
+        jdbcTemplate.update("delete from order_item");
+        jdbcTemplate.update("delete from order_header");
+        List<OrderRequestDTO> orders = IntStream.range(0, dataset.orders())
+                .mapToObj(i -> orderRequest(dataset.itemsPerOrder()))
+                .toList();
+        orderBatchService.createOrders(orders);
+        List<Integer> orderIds = jdbcTemplate.queryForList("select order_id from order_header order by order_id", Integer.class);
+        return orderIds.get(orderIds.size() / 2);
+    }
+
+    private int firstItemOf(int orderId) {
+        return jdbcTemplate.queryForObject("select min(order_item_seq_id) from order_item where order_id = ?",
+                Integer.class, orderId);
+    }
+
+    private static OrderRequestDTO orderRequest(int items) {
+        OrderRequestDTO request = new OrderRequestDTO();
+        request.setCustomerId(1 + items % CUSTOMERS);
+        request.setOrderDate(LocalDate.of(2025, 1, 1));
+        request.setShippingContactMechId(1);
+        request.setBillingContactMechId(2);
+        List<OrderItemDTO> orderItems = new ArrayList<>();
+        for (int i = 0; i < items; i++) {
+            orderItems.add(orderItem(1 + i));
+        }
+        request.setOrderItems(orderItems);
+        return request;
+    }
+
+    private static OrderItemDTO orderItem(int productId) {
+        OrderItemDTO item = new OrderItemDTO();
+        item.setProductId(productId);
+        item.setQuantity(1);
+        item.setStatus("PENDING");
+        return item;
+    }
+}
@@ -0,0 +1,227 @@
+package com.hotwax.service;
+
+import com.hotwax.config.OrderSummaryInitializer;
+import com.hotwax.dto.OrderItemDTO;
+import com.hotwax.dto.OrderItemUpdateDTO;
+import com.hotwax.dto.OrderRequestDTO;
+import com.hotwax.dto.OrderResponseDTO;
+import com.hotwax.dto.OrderUpdateDTO;
+import com.hotwax.exception.VersionMismatchException;
+import com.hotwax.model.Customer;
+import com.hotwax.model.Product;
+import com.hotwax.repository.CustomerRepository;
+import com.hotwax.repository.OrderHeaderRepository;
+import com.hotwax.repository.ProductRepository;
+import jakarta.persistence.EntityNotFoundException;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.DefaultApplicationArguments;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * The order summary must always equal what the normalized tables say, version included, after
+ * every mutation and after a rebuild.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE, properties =
+        "spring.datasource.url=jdbc:h2:mem:order-summary;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1")
+@ActiveProfiles("embedded")
+class OrderSummaryTest {
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private OrderBatchService orderBatchService;
+
+    @Autowired
+    private OrderSummaryService orderSummaryService;
+
+    @Autowired
+    private CustomerStatsService customerStatsService;
+
+    @Autowired
+    private OrderHeaderRepository orderHeaderRepository;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void mutationsKeepTheSummaryInStep() {
+        OrderResponseDTO created = orderService.createOrder(orderRequest(1, 2));
+        int orderId = created.getOrderId();
+        assertThat(created).isEqualTo(normalized(orderId));
+        assertMatchesNormalized(orderId);
+
+        OrderUpdateDTO update = new OrderUpdateDTO();
+        update.setShippingContactMechId(2);
+        assertThat(orderService.updateOrder(orderId, update, null)).isEqualTo(normalized(orderId));
+
+        int added = orderService.addOrderItem(orderId, orderItem(3)).body().getOrderItemSeqId();
+        assertMatchesNormalized(orderId);
+
+        OrderItemUpdateDTO itemUpdate = new OrderItemUpdateDTO();
+        itemUpdate.setQuantity(5);
+        itemUpdate.setStatus("SHIPPED");
+        orderService.updateOrderItem(orderId, created.getOrderItems().get(0).getOrderItemSeqId(), itemUpdate, null);
+        assertMatchesNormalized(orderId);
+
+        orderService.deleteOrderItem(orderId, added, null);
+        assertMatchesNormalized(orderId);
+
+        orderService.deleteOrder(orderId, null);
+        assertThatThrownBy(() -> orderService.getOrderById(orderId)).isInstanceOf(EntityNotFoundException.class);
+        assertThat(jdbcTemplate.queryForObject("select count(*) from order_summary where order_id = ?", Integer.class, orderId))
+                .isZero();
+    }
+
+    @Test
+    void everyWriteMovesTheOrderVersionAndStaleVersionsAreRejected() {
+        OrderResponseDTO created = orderService.createOrder(orderRequest(3, 1));
+        int orderId = created.getOrderId();
+        int itemId = created.getOrderItems().get(0).getOrderItemSeqId();
+        assertThat(created.getVersion()).isZero();
+
+        OrderUpdateDTO update = new OrderUpdateDTO();
+        update.setBillingContactMechId(2);
+        assertThat(orderService.updateOrder(orderId, update, Set.of(0L)).getVersion()).isEqualTo(1);
+        assertThatThrownBy(() -> orderService.updateOrder(orderId, update, Set.of(0L)))
+                .isInstanceOf(VersionMismatchException.class);
+
+        OrderItemUpdateDTO itemUpdate = new OrderItemUpdateDTO();
+        itemUpdate.setQuantity(3);
+        assertThat(orderService.updateOrderItem(orderId, itemId, itemUpdate, Set.of(1L)).version()).isEqualTo(2);
+        assertThat(orderService.addOrderItem(orderId, orderItem(2)).version()).isEqualTo(3);
+        assertThatThrownBy(() -> orderService.deleteOrderItem(orderId, itemId, Set.of(2L)))
+                .isInstanceOf(VersionMismatchException.class);
+        assertThatThrownBy(() -> orderService.deleteOrder(orderId, Set.of(2L)))
+                .isInstanceOf(VersionMismatchException.class);
+
+        assertThat(orderService.getOrderById(orderId).getVersion()).isEqualTo(3);
+        assertMatchesNormalized(orderId);
+        orderService.deleteOrder(orderId, Set.of(3L));
+    }
+
+    @Test
+    void batchOrdersGetSummaries() {
+        Integer orderId = orderBatchService.createOrders(List.of(orderRequest(2, 4), orderRequest(3, 5)))
+                .getResults().get(1).getOrderId();
+        assertMatchesNormalized(orderId);
+    }
+
+    @Test
+    void rebuildRegeneratesSummariesFromTheNormalizedTables() {
+        int orderId = orderService.createOrder(orderRequest(1, 1)).getOrderId();
+        jdbcTemplate.update("update order_item set quantity = 9 where order_id = ?", orderId);
+        jdbcTemplate.update("insert into order_summary (order_id, order_date, customer_id, customer_name, "
+                + "shipping_contact_mech_id, billing_contact_mech_id, version, order_items) values (999999, ?, 1, 'Gone', 1, 1, 0, '[]' format json)",
+                LocalDate.of(2025, 1, 1));
+
+        orderSummaryService.rebuildAll();
+
+        assertMatchesNormalized(orderId);
+        assertThatThrownBy(() -> orderService.getOrderById(999999)).isInstanceOf(EntityNotFoundException.class);
+    }
+
+    @Test
+    void aNormalStartLeavesMissingSummariesToTheExplicitBackfill() {
+        int orderId = orderService.createOrder(orderRequest(2, 1)).getOrderId();
+        jdbcTemplate.update("delete from order_summary");
+        assertThat(orderSummaryService.needsBackfill()).isTrue();
+
+        new OrderSummaryInitializer(orderSummaryService, customerStatsService, null).run(new DefaultApplicationArguments());
+
+        assertThatThrownBy(() -> orderService.getOrderById(orderId)).isInstanceOf(EntityNotFoundException.class);
+        orderSummaryService.rebuildMissing();
+        assertThat(orderSummaryService.needsBackfill()).isFalse();
+        assertMatchesNormalized(orderId);
+    }
+
+    @Test
+    void mutationsBuildAMissingSummaryFirst() {
+        int orderId = orderService.createOrder(orderRequest(2, 3)).getOrderId();
+        jdbcTemplate.update("delete from order_summary where order_id = ?", orderId);
+
+        orderService.addOrderItem(orderId, orderItem(4));
+
+        assertMatchesNormalized(orderId);
+    }
+
+    @Test
+    void committedRenamesReachTheSummaries() {
+        int first = orderService.createOrder(orderRequest(3, 4)).getOrderId();
+        int second = orderService.createOrder(orderRequest(3, 5)).getOrderId();
+
+        transactionTemplate.executeWithoutResult(status -> {
+            Customer customer = customerRepository.findById(3).orElseThrow();
+            customer.setLastName("Liddell");
+            Product product = productRepository.findById(5).orElseThrow();
+            product.setProductName("Bucket Hat");
+        });
+
+        assertThat(orderService.getOrderById(first).getCustomerName()).isEqualTo("Alice Liddell");
+        assertThat(orderService.getOrderById(second).getOrderItems())
+                .anySatisfy(item -> assertThat(item.getProductName()).isEqualTo("Bucket Hat"));
+        assertMatchesNormalized(first);
+        assertMatchesNormalized(second);
+    }
+
+    @Test
+    void rolledBackRenamesLeaveTheSummariesAlone() {
+        int orderId = orderService.createOrder(orderRequest(2, 2)).getOrderId();
+        OrderResponseDTO before = orderService.getOrderById(orderId);
+
+        transactionTemplate.executeWithoutResult(status -> {
+            Product product = productRepository.findById(2).orElseThrow();
+            product.setProductName("Discarded");
+            productRepository.saveAndFlush(product);
+            status.setRollbackOnly();
+        });
+
+        assertThat(orderService.getOrderById(orderId)).isEqualTo(before);
+    }
+
+    private void assertMatchesNormalized(int orderId) {
+        assertThat(orderService.getOrderById(orderId)).isEqualTo(normalized(orderId));
+    }
+
+    private OrderResponseDTO normalized(int orderId) {
+        return OrderRows.group(orderHeaderRepository.findRowsByOrderId(orderId)).get(0);
+    }
+
+    private static OrderRequestDTO orderRequest(int customerId, int productId) {
+        OrderRequestDTO request = new OrderRequestDTO();
+        request.setCustomerId(customerId);
+        request.setOrderDate(LocalDate.of(2025, 3, 1));
+        request.setShippingContactMechId(1);
+        request.setBillingContactMechId(1);
+        request.setOrderItems(List.of(orderItem(productId), orderItem(productId % 5 + 1)));
+        return request;
+    }
+
+    private static OrderItemDTO orderItem(int productId) {
+        OrderItemDTO item = new OrderItemDTO();
+        item.setProductId(productId);
+        item.setQuantity(1);
+        item.setStatus("PENDING");
+        return item;
+    }
+}
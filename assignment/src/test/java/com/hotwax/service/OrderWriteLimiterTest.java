@@ -0,0 +1,82 @@
+package com.hotwax.service;
+
+import com.hotwax.security.JwtUtil;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+/**
+ * Concurrent creates on a pool of two connections, with the DB limiter off: more writers than
+ * connections must not leave the ID block fetch waiting for a connection that a writer holds.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:order-write-limiter;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+        "spring.datasource.hikari.maximum-pool-size=2",
+        "spring.datasource.hikari.connection-timeout=1000",
+        "db.limiter.enabled=false"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("embedded")
+class OrderWriteLimiterTest {
+
+    private static final String ORDER = """
+            {"customerId": 1, "orderDate": "2025-03-01", "shippingContactMechId": 1, "billingContactMechId": 2,
+             "orderItems": [{"productId": 1, "quantity": 2, "status": "PENDING"},
+                            {"productId": 2, "quantity": 1, "status": "PENDING"}]}""";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void moreConcurrentCreatesThanConnectionsAllSucceed() throws Exception {
+        String token = "Bearer " + jwtUtil.generateToken("admin", "ADMIN");
+        int before = jdbcTemplate.queryForObject("select count(*) from order_header", Integer.class);
+        ExecutorService clients = Executors.newFixedThreadPool(6);
+        try {
+            List<Future<List<Integer>>> statuses = new ArrayList<>();
+            for (int client = 0; client < 6; client++) {
+                statuses.add(clients.submit(() -> {
+                    List<Integer> codes = new ArrayList<>();
+                    // 240 orders and 480 items cross several ID blocks of 100.
+                    for (int n = 0; n < 40; n++) {
+                        codes.add(mockMvc.perform(post("/orders")
+                                        .header(HttpHeaders.AUTHORIZATION, token)
+                                        .contentType(MediaType.APPLICATION_JSON)
+                                        .content(ORDER))
+                                .andReturn().getResponse().getStatus());
+                    }
+                    return codes;
+                }));
+            }
+            for (Future<List<Integer>> codes : statuses) {
+                assertThat(codes.get(2, TimeUnit.MINUTES)).containsOnly(201);
+            }
+        } finally {
+            clients.shutdownNow();
+        }
+        assertThat(jdbcTemplate.queryForObject("select count(*) from order_header", Integer.class))
+                .isEqualTo(before + 240);
+    }
+}